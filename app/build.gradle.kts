@@ -29,6 +29,21 @@ android {
         sourceCompatibility = JavaVersion.VERSION_1_8
         targetCompatibility = JavaVersion.VERSION_1_8
     }
+    androidResources {
+        // Catalogue hors ligne projeté en mémoire directement depuis l'APK
+        noCompress += "bin"
+    }
+    testOptions {
+        unitTests.all {
+            // Benchmarks Room (src/test/.../benchmark) : ./gradlew :app:testDebugUnitTest -Pbenchmark
+            if (project.hasProperty("benchmark")) {
+                it.filter.includeTestsMatching("com.example.projet_android.benchmark.*")
+                it.maxHeapSize = "2g"
+            } else {
+                it.exclude("**/benchmark/**")
+            }
+        }
+    }
 }
 
 dependencies {
@@ -58,9 +73,19 @@ dependencies {
     implementation("androidx.viewpager2:viewpager2:1.0.0")
     implementation("androidx.fragment:fragment:1.6.2")
     
+    // LiveData (Transformations)
+    implementation("androidx.lifecycle:lifecycle-livedata:2.6.2")
+    
+    // Synchronisation en arrière-plan
+    implementation("androidx.work:work-runtime:2.9.0")
+    
     // Room Database
     implementation("androidx.room:room-runtime:2.6.1")
     annotationProcessor("androidx.room:room-compiler:2.6.1")
+    implementation("androidx.room:room-paging:2.6.1")
+    
+    // Pagination (chronologie du calendrier)
+    implementation("androidx.paging:paging-runtime:3.2.1")
     
     // Charts pour les graphiques
     implementation("com.github.PhilJay:MPAndroidChart:v3.1.0")
@@ -74,6 +99,10 @@ dependencies {
     implementation("com.google.firebase:firebase-messaging:23.4.0")
     
     testImplementation("junit:junit:4.13.2")
+    testImplementation("org.robolectric:robolectric:4.11.1")
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.11.0")
+    testImplementation("androidx.test:core:1.5.0")
+    testImplementation("androidx.arch.core:core-testing:2.2.0")
     androidTestImplementation("androidx.test.ext:junit:1.3.0")
     androidTestImplementation("androidx.test.espresso:espresso-core:3.7.0")
 }
\ No newline at end of file
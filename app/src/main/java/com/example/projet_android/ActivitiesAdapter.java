@@ -6,16 +6,40 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.List;
+import com.example.projet_android.database.entities.TimelineEntry;
 
-public class ActivitiesAdapter extends RecyclerView.Adapter<ActivitiesAdapter.ViewHolder> {
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Chronologie d'une journée (écran calendrier), paginée.
+ * Les différences entre deux listes sont calculées hors du thread principal :
+ * changer de jour ne relie que les éléments réellement modifiés.
+ */
+public class ActivitiesAdapter extends PagingDataAdapter<TimelineEntry, ActivitiesAdapter.ViewHolder> {
     
-    private List<String> activities;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
     
-    public ActivitiesAdapter(List<String> activities) {
-        this.activities = activities;
+    private static final DiffUtil.ItemCallback<TimelineEntry> DIFF_CALLBACK = new DiffUtil.ItemCallback<TimelineEntry>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull TimelineEntry oldItem, @NonNull TimelineEntry newItem) {
+            return oldItem.getStableId() == newItem.getStableId();
+        }
+        
+        @Override
+        public boolean areContentsTheSame(@NonNull TimelineEntry oldItem, @NonNull TimelineEntry newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+    
+    public ActivitiesAdapter() {
+        super(DIFF_CALLBACK);
     }
     
     @NonNull
@@ -28,13 +52,54 @@ public class ActivitiesAdapter extends RecyclerView.Adapter<ActivitiesAdapter.Vi
     
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        String activity = activities.get(position);
-        holder.activityTextView.setText(activity);
+        TimelineEntry entry = getItem(position);
+        holder.activityTextView.setText(entry != null ? describe(entry) : "");
     }
     
-    @Override
-    public int getItemCount() {
-        return activities.size();
+    static String describe(TimelineEntry entry) {
+        switch (entry.kind) {
+            case TimelineEntry.KIND_SUMMARY:
+                StringBuilder summary = new StringBuilder("Résumé : ")
+                        .append(entry.steps).append(" pas, ")
+                        .append(entry.calories).append(" calories brûlées");
+                if (entry.amount > 0) {
+                    int minutes = Math.round(entry.amount * 60);
+                    summary.append(String.format(Locale.getDefault(), ", sommeil %dh%02d", minutes / 60, minutes % 60));
+                }
+                if (entry.heartRate > 0) {
+                    summary.append(", ").append(entry.heartRate).append(" bpm");
+                }
+                return summary.toString();
+            case TimelineEntry.KIND_FOOD:
+                return formatTime(entry.time) + "  " + mealLabel(entry.detail) + ": " + entry.label
+                        + ", " + entry.calories + " calories"
+                        + (entry.amount > 0 ? " (" + Math.round(entry.amount) + " g)" : "");
+            default:
+                return formatTime(entry.time) + "  " + entry.label + ": " + Math.round(entry.amount)
+                        + " minutes, " + entry.calories + " calories brûlées";
+        }
+    }
+    
+    private static String formatTime(long timeMillis) {
+        return Instant.ofEpochMilli(timeMillis).atZone(ZoneId.systemDefault()).format(TIME_FORMAT);
+    }
+    
+    private static String mealLabel(String mealType) {
+        if (mealType == null) {
+            return "Repas";
+        }
+        switch (mealType) {
+            case "breakfast":
+                return "Petit-déjeuner";
+            case "lunch":
+                return "Déjeuner";
+            case "dinner":
+                return "Dîner";
+            case "snack":
+                return "Collation";
+            default:
+                return "Repas";
+        }
     }
     
     public static class ViewHolder extends RecyclerView.ViewHolder {
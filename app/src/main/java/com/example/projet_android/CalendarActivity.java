@@ -1,8 +1,14 @@
 package com.example.projet_android;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.paging.PagingData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import androidx.viewpager2.widget.ViewPager2;
 
 import android.app.DatePickerDialog;
 import android.os.Bundle;
@@ -10,11 +16,15 @@ import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
 
+import com.example.projet_android.database.DatabaseManager;
+import com.example.projet_android.database.entities.TimelineEntry;
+import com.example.projet_android.utils.DayKeys;
+import com.example.projet_android.utils.PreferencesManager;
+
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Calendar;
-import java.util.Date;
-import java.util.List;
 import java.util.Locale;
 
 public class CalendarActivity extends AppCompatActivity {
@@ -23,16 +33,27 @@ public class CalendarActivity extends AppCompatActivity {
     private Button selectDateButton;
     private RecyclerView activitiesRecyclerView;
     private Calendar selectedDate;
-    private List<String> activities;
     private ActivitiesAdapter adapter;
+    private ViewPager2 monthPager;
+    private MonthPagerAdapter monthAdapter;
+    
+    private DatabaseManager databaseManager;
+    private PreferencesManager preferencesManager;
+    
+    // Jour affiché ("yyyy-MM-dd") : chaque changement recharge la chronologie
+    private final MutableLiveData<String> selectedDay = new MutableLiveData<>();
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_calendar);
         
+        databaseManager = DatabaseManager.getInstance(this);
+        preferencesManager = new PreferencesManager(this);
+        
         initViews();
         setupRecyclerView();
+        setupMonthPager();
         setupDatePicker();
         
         // Par défaut, afficher la date d'aujourd'hui
@@ -41,17 +62,61 @@ public class CalendarActivity extends AppCompatActivity {
         loadActivitiesForDate();
     }
     
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // Les objectifs ont pu changer dans les paramètres
+        monthAdapter.setGoals(preferencesManager.getDailyStepsGoal(),
+                preferencesManager.getDailyCaloriesGoal(), preferencesManager.getDailySleepGoal());
+    }
+    
     private void initViews() {
         dateTextView = findViewById(R.id.tv_selected_date);
         selectDateButton = findViewById(R.id.btn_select_date);
         activitiesRecyclerView = findViewById(R.id.rv_activities);
+        monthPager = findViewById(R.id.vp_month_heatmap);
     }
     
     private void setupRecyclerView() {
-        activities = new ArrayList<>();
-        adapter = new ActivitiesAdapter(activities);
+        adapter = new ActivitiesAdapter();
         activitiesRecyclerView.setLayoutManager(new LinearLayoutManager(this));
         activitiesRecyclerView.setAdapter(adapter);
+        
+        // Requête Room paginée, exécutée hors du thread principal ; l'ancienne
+        // chronologie est remplacée par différence quand le jour change
+        LiveData<PagingData<TimelineEntry>> timeline = Transformations.switchMap(selectedDay, day -> {
+            String userId = preferencesManager.getUserId();
+            if (userId == null) {
+                return new MutableLiveData<>(PagingData.<TimelineEntry>empty());
+            }
+            return databaseManager.getDayTimeline(userId, day);
+        });
+        timeline.observe(this, pagingData -> adapter.submitData(getLifecycle(), pagingData));
+    }
+    
+    private void setupMonthPager() {
+        // Un toucher sur une case sélectionne ce jour dans la chronologie
+        monthAdapter = new MonthPagerAdapter(databaseManager, preferencesManager.getUserId(),
+                ContextCompat.getMainExecutor(this), YearMonth.now(), date -> {
+                    selectedDate.set(date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth());
+                    updateDateDisplay();
+                    loadActivitiesForDate();
+                });
+        monthPager.setAdapter(monthAdapter);
+        monthPager.setCurrentItem(monthAdapter.getItemCount() - 1, false);
+        
+        // Une synchronisation ou une saisie a modifié health_data : les mois touchés sont relus
+        databaseManager.getMonthSummaryInvalidations().observe(this, monthAdapter::refreshSummaries);
+        
+        // Les mois voisins sont lus pendant que l'utilisateur regarde celui-ci :
+        // le prochain glissement s'affiche depuis le cache
+        monthPager.registerOnPageChangeCallback(new ViewPager2.OnPageChangeCallback() {
+            @Override
+            public void onPageSelected(int position) {
+                monthAdapter.prefetch(position - 1);
+                monthAdapter.prefetch(position + 1);
+            }
+        });
     }
     
     private void setupDatePicker() {
@@ -86,17 +151,17 @@ public class CalendarActivity extends AppCompatActivity {
     }
     
     private void loadActivitiesForDate() {
-        // Simuler le chargement des activités pour la date sélectionnée
-        activities.clear();
-        
-        // Ajouter des données d'exemple
-        activities.add("Petit-déjeuner: 350 calories");
-        activities.add("Marche: 30 minutes, 150 calories brûlées");
-        activities.add("Déjeuner: 500 calories");
-        activities.add("Course: 45 minutes, 400 calories brûlées");
-        activities.add("Dîner: 450 calories");
-        activities.add("Sommeil: 7h30");
+        LocalDate date = LocalDate.of(selectedDate.get(Calendar.YEAR),
+                selectedDate.get(Calendar.MONTH) + 1, selectedDate.get(Calendar.DAY_OF_MONTH));
+        String day = DayKeys.format(date);
+        if (!day.equals(selectedDay.getValue())) {
+            selectedDay.setValue(day);
+        }
         
-        adapter.notifyDataSetChanged();
+        monthAdapter.setSelectedDate(date);
+        int position = monthAdapter.getPosition(YearMonth.from(date));
+        if (position >= 0 && position != monthPager.getCurrentItem()) {
+            monthPager.setCurrentItem(position, false);
+        }
     }
 }
@@ -1,6 +1,7 @@
 package com.example.projet_android;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
 
 import android.os.Bundle;
 import android.view.View;
@@ -8,25 +9,64 @@ import android.widget.Button;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import com.example.projet_android.database.AppDatabase;
+import com.example.projet_android.database.DatabaseManager;
+import com.example.projet_android.database.entities.DailyValue;
+import com.example.projet_android.utils.DayKeys;
+import com.example.projet_android.utils.Lttb;
+import com.example.projet_android.utils.PreferencesManager;
 import com.github.mikephil.charting.charts.LineChart;
+import com.github.mikephil.charting.components.XAxis;
 import com.github.mikephil.charting.data.Entry;
 import com.github.mikephil.charting.data.LineData;
 import com.github.mikephil.charting.data.LineDataSet;
+import com.github.mikephil.charting.formatter.ValueFormatter;
+import com.google.android.material.button.MaterialButtonToggleGroup;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 public class DetailActivity extends AppCompatActivity {
     
+    // Plages du graphique, en jours (RANGE_ALL : depuis la première donnée)
+    private static final int RANGE_30_DAYS = 30;
+    private static final int RANGE_YEAR = 365;
+    private static final int RANGE_ALL = -1;
+    
+    // Un point tous les 2 pixels suffit : au-delà, les points se superposent
+    private static final int PIXELS_PER_POINT = 2;
+    private static final int MIN_CHART_POINTS = 50;
+    private static final int DEFAULT_CHART_POINTS = 300;
+    private static final int MAX_DETAILED_POINTS = 31;
+    
+    private static final DateTimeFormatter DAY_LABEL = DateTimeFormatter.ofPattern("dd/MM");
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MM/yy");
+    
     private TextView titleTextView;
     private TextView currentValueTextView;
     private TextView goalTextView;
     private TextView progressTextView;
+    private TextView chartTitleTextView;
     private LineChart progressChart;
+    private MaterialButtonToggleGroup rangeToggleGroup;
     private Button addDataButton;
     
     private String activityType;
     
+    private DatabaseManager databaseManager;
+    private PreferencesManager preferencesManager;
+    
+    private final List<Entry> chartEntries = new ArrayList<>();
+    private final List<Entry> spareEntries = new ArrayList<>();
+    private LineDataSet chartDataSet;
+    private LineData chartData;
+    private int chartMetric;
+    private int chartRangeDays = RANGE_30_DAYS;
+    private int chartGeneration;
+    
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -38,6 +78,9 @@ public class DetailActivity extends AppCompatActivity {
             activityType = "Activité";
         }
         
+        databaseManager = DatabaseManager.getInstance(this);
+        preferencesManager = new PreferencesManager(this);
+        
         initViews();
         setupChart();
         updateDisplay();
@@ -48,7 +91,9 @@ public class DetailActivity extends AppCompatActivity {
         currentValueTextView = findViewById(R.id.tv_current_value);
         goalTextView = findViewById(R.id.tv_goal_value);
         progressTextView = findViewById(R.id.tv_progress_percentage);
+        chartTitleTextView = findViewById(R.id.tv_chart_title);
         progressChart = findViewById(R.id.chart_progress);
+        rangeToggleGroup = findViewById(R.id.toggle_chart_range);
         addDataButton = findViewById(R.id.btn_add_data);
         
         titleTextView.setText(activityType);
@@ -62,58 +107,163 @@ public class DetailActivity extends AppCompatActivity {
     }
     
     private void setupChart() {
-        List<Entry> entries = new ArrayList<>();
-        
-        // Données d'exemple pour les 7 derniers jours
         switch (activityType) {
             case "Pas":
-                entries.add(new Entry(1, 8500));
-                entries.add(new Entry(2, 9200));
-                entries.add(new Entry(3, 7800));
-                entries.add(new Entry(4, 10500));
-                entries.add(new Entry(5, 9800));
-                entries.add(new Entry(6, 11200));
-                entries.add(new Entry(7, 10000));
+                chartMetric = DailyValue.METRIC_STEPS;
                 break;
             case "Calories":
-                entries.add(new Entry(1, 1800));
-                entries.add(new Entry(2, 2100));
-                entries.add(new Entry(3, 1950));
-                entries.add(new Entry(4, 2200));
-                entries.add(new Entry(5, 1750));
-                entries.add(new Entry(6, 2000));
-                entries.add(new Entry(7, 1900));
+                chartMetric = DailyValue.METRIC_CALORIES;
                 break;
             case "Sommeil":
-                entries.add(new Entry(1, 7.5f));
-                entries.add(new Entry(2, 8.0f));
-                entries.add(new Entry(3, 6.5f));
-                entries.add(new Entry(4, 7.8f));
-                entries.add(new Entry(5, 8.2f));
-                entries.add(new Entry(6, 7.0f));
-                entries.add(new Entry(7, 7.5f));
+                chartMetric = DailyValue.METRIC_SLEEP;
                 break;
             default:
-                entries.add(new Entry(1, 50));
-                entries.add(new Entry(2, 75));
-                entries.add(new Entry(3, 60));
-                entries.add(new Entry(4, 80));
-                entries.add(new Entry(5, 65));
-                entries.add(new Entry(6, 90));
-                entries.add(new Entry(7, 85));
+                chartMetric = 0; // Pas de série enregistrée pour ce type
+        }
+        
+        // Un seul LineDataSet pour toute la vie de l'écran : ses Entry sont réutilisées
+        chartDataSet = new LineDataSet(chartEntries, activityType);
+        chartDataSet.setColor(getResources().getColor(android.R.color.holo_blue_dark));
+        chartDataSet.setCircleColor(getResources().getColor(android.R.color.holo_blue_dark));
+        chartDataSet.setLineWidth(2f);
+        chartDataSet.setCircleRadius(4f);
+        chartData = new LineData(chartDataSet);
+        
+        progressChart.setNoDataText("Aucune donnée pour cette période");
+        progressChart.getDescription().setEnabled(false);
+        XAxis xAxis = progressChart.getXAxis();
+        xAxis.setGranularity(1f); // x = epochDay
+        xAxis.setValueFormatter(new ValueFormatter() {
+            @Override
+            public String getFormattedValue(float value) {
+                DateTimeFormatter format = chartRangeDays == RANGE_ALL ? MONTH_LABEL : DAY_LABEL;
+                return LocalDate.ofEpochDay((long) value).format(format);
+            }
+        });
+        
+        rangeToggleGroup.check(R.id.btn_range_30d);
+        rangeToggleGroup.addOnButtonCheckedListener((group, checkedId, isChecked) -> {
+            if (!isChecked) {
+                return;
+            }
+            if (checkedId == R.id.btn_range_year) {
+                chartRangeDays = RANGE_YEAR;
+                chartTitleTextView.setText("Évolution sur 1 an");
+            } else if (checkedId == R.id.btn_range_all) {
+                chartRangeDays = RANGE_ALL;
+                chartTitleTextView.setText("Évolution depuis le début");
+            } else {
+                chartRangeDays = RANGE_30_DAYS;
+                chartTitleTextView.setText("Évolution sur 30 jours");
+            }
+            loadChart();
+        });
+        
+        // Après la mise en page : la largeur du graphique fixe le nombre de points
+        progressChart.post(this::loadChart);
+    }
+    
+    /**
+     * Lit la série hors du thread principal, la réduit à la largeur du graphique
+     * (LTTB), puis l'affiche. Un chargement dépassé par un plus récent est ignoré.
+     */
+    private void loadChart() {
+        int generation = ++chartGeneration;
+        int metric = chartMetric;
+        int rangeDays = chartRangeDays;
+        int width = progressChart.getWidth();
+        int maxPoints = width > 0 ? Math.max(MIN_CHART_POINTS, width / PIXELS_PER_POINT) : DEFAULT_CHART_POINTS;
+        
+        String userId = preferencesManager.getUserId();
+        if (userId == null || metric == 0) {
+            showSeries(new ChartSeries(new float[0], new float[0], 0));
+            return;
+        }
+        
+        Executor mainExecutor = ContextCompat.getMainExecutor(this);
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            ChartSeries series = readSeries(userId, metric, rangeDays, maxPoints);
+            mainExecutor.execute(() -> {
+                if (generation == chartGeneration && !isDestroyed()) {
+                    showSeries(series);
+                }
+            });
+        });
+    }
+    
+    private ChartSeries readSeries(String userId, int metric, int rangeDays, int maxPoints) {
+        long endDay = DayKeys.todayDate().toEpochDay();
+        long startDay;
+        if (rangeDays == RANGE_ALL) {
+            Long firstDay = databaseManager.getFirstEpochDaySync(userId);
+            startDay = firstDay != null ? firstDay : endDay;
+        } else {
+            startDay = endDay - rangeDays + 1;
+        }
+        
+        List<DailyValue> values = databaseManager.getDailySeriesSync(userId, metric, startDay, endDay);
+        int count = values.size();
+        float[] x = new float[count];
+        float[] y = new float[count];
+        for (int i = 0; i < count; i++) {
+            DailyValue value = values.get(i);
+            x[i] = value.epochDay;
+            y[i] = value.value;
+        }
+        
+        int outSize = Math.min(count, maxPoints);
+        float[] outX = new float[outSize];
+        float[] outY = new float[outSize];
+        return new ChartSeries(outX, outY, Lttb.downsample(x, y, count, maxPoints, outX, outY));
+    }
+    
+    // Thread principal : met à jour les Entry en place au lieu de reconstruire la liste
+    private void showSeries(ChartSeries series) {
+        if (series.count == 0) {
+            progressChart.clear();
+            return;
         }
         
-        LineDataSet dataSet = new LineDataSet(entries, activityType);
-        dataSet.setColor(getResources().getColor(android.R.color.holo_blue_dark));
-        dataSet.setCircleColor(getResources().getColor(android.R.color.holo_blue_dark));
-        dataSet.setLineWidth(2f);
-        dataSet.setCircleRadius(4f);
+        while (chartEntries.size() > series.count) {
+            spareEntries.add(chartEntries.remove(chartEntries.size() - 1));
+        }
+        for (int i = 0; i < series.count; i++) {
+            Entry entry;
+            if (i < chartEntries.size()) {
+                entry = chartEntries.get(i);
+            } else {
+                entry = spareEntries.isEmpty() ? new Entry() : spareEntries.remove(spareEntries.size() - 1);
+                chartEntries.add(entry);
+            }
+            entry.setX(series.x[i]);
+            entry.setY(series.y[i]);
+        }
         
-        LineData lineData = new LineData(dataSet);
-        progressChart.setData(lineData);
+        // Cercles et valeurs illisibles (et coûteux) au-delà d'un mois de points
+        boolean detailed = series.count <= MAX_DETAILED_POINTS;
+        chartDataSet.setDrawCircles(detailed);
+        chartDataSet.setDrawValues(detailed);
+        chartDataSet.notifyDataSetChanged();
+        chartData.notifyDataChanged();
+        if (progressChart.getData() == null) {
+            progressChart.setData(chartData);
+        }
+        progressChart.notifyDataSetChanged();
         progressChart.invalidate(); // refresh
     }
     
+    private static final class ChartSeries {
+        final float[] x;
+        final float[] y;
+        final int count;
+        
+        ChartSeries(float[] x, float[] y, int count) {
+            this.x = x;
+            this.y = y;
+            this.count = count;
+        }
+    }
+    
     private void updateDisplay() {
         switch (activityType) {
             case "Pas":
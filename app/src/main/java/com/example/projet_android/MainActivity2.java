@@ -2,6 +2,7 @@ package com.example.projet_android;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
 import android.view.View;
@@ -10,17 +11,24 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import com.example.projet_android.services.GoogleFitManager;
-import com.example.projet_android.services.NotificationHelper;
 import com.example.projet_android.services.AuthManager;
 import com.example.projet_android.services.DataSyncService;
 import com.example.projet_android.services.HealthNotificationManager;
 import com.example.projet_android.services.HealthNotificationService;
+import com.example.projet_android.services.ReminderScheduler;
+import com.example.projet_android.services.SyncScheduler;
 import com.example.projet_android.utils.PreferencesManager;
 import com.example.projet_android.database.DatabaseManager;
+import com.example.projet_android.database.entities.DailyDashboard;
 import com.example.projet_android.database.entities.HealthData;
+import com.example.projet_android.viewmodels.HealthViewModel;
 
 import androidx.appcompat.app.AlertDialog;
-import androidx.lifecycle.Observer;
+import androidx.core.content.ContextCompat;
+import androidx.lifecycle.ViewModelProvider;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class MainActivity2 extends AppCompatActivity implements GoogleFitManager.FitnessDataListener, GoogleFitManager.AuthenticationListener {
     
@@ -36,33 +44,58 @@ public class MainActivity2 extends AppCompatActivity implements GoogleFitManager
     private Button connectGoogleFitButton;
     private TextView authStatusTextView;
     private GoogleFitManager googleFitManager;
+    // Complétée sur le thread principal une fois googleFitManager affecté
+    private CompletableFuture<GoogleFitManager> googleFit;
     private PreferencesManager preferencesManager;
-    private NotificationHelper notificationHelper;    private AuthManager authManager;
+    private AuthManager authManager;
     private DatabaseManager databaseManager;
-    private DataSyncService dataSyncService;
-    private HealthNotificationManager healthNotificationManager;
+    private HealthViewModel healthViewModel;
+    private StartupOrchestrator startup;
+    // Construits en arrière-plan après la première image (voir StartupOrchestrator)
+    private CompletableFuture<DataSyncService> dataSyncService;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        startup = StartupOrchestrator.getInstance(this);
+        startup.mark(StartupOrchestrator.PHASE_MAIN_CREATED);
         setContentView(R.layout.activity_main2);        
         preferencesManager = new PreferencesManager(this);
-        notificationHelper = new NotificationHelper(this);        authManager = new AuthManager(this);
+        authManager = new AuthManager(this);
         databaseManager = DatabaseManager.getInstance(this);
-        dataSyncService = new DataSyncService(this);
-        healthNotificationManager = new HealthNotificationManager(this);
+        healthViewModel = new ViewModelProvider(this).get(HealthViewModel.class);
         
         // S'assurer qu'un utilisateur par défaut existe
         ensureDefaultUser();
         
         initViews();
         setupClickListeners();
-        setupGoogleFit();
-        setupNotifications();
-        updateDashboard();
+        observeDatabaseData();
+        updateAuthStatus();
         
         // Personnaliser le message de bienvenue
         updateWelcomeMessage();
+        
+        // Le reste n'est pas nécessaire à la première image : construit en parallèle,
+        // hors du thread principal, une fois le tableau de bord affiché.
+        // La synchronisation est lancée par onResume() dès que le service est prêt
+        CompletableFuture<Void> firstFrame = startup.whenFirstFrameDrawn(this);
+        firstFrame.thenRun(() -> startup.mark(StartupOrchestrator.PHASE_MAIN_FIRST_FRAME));
+        Context appContext = getApplicationContext();
+        dataSyncService = startup.initAsync("sync_service", firstFrame, () -> new DataSyncService(appContext));
+        CompletableFuture<Void> notifications = startup.initAsync("notifications", firstFrame, () -> {
+            setupNotifications(appContext);
+            return null;
+        });
+        // Synchronisation périodique en arrière-plan (sans effet si déjà planifiée)
+        CompletableFuture<Void> workManager = startup.initAsync("work_manager", firstFrame, () -> {
+            SyncScheduler.schedulePeriodicSync(appContext);
+            return null;
+        });
+        googleFit = setupGoogleFit(firstFrame);
+        
+        CompletableFuture.allOf(dataSyncService, notifications, workManager, googleFit)
+                .whenComplete((ignored, error) -> startup.reportColdStart());
     }
       private void initViews() {
         welcomeTextView = findViewById(R.id.tv_welcome);
@@ -151,30 +184,49 @@ public class MainActivity2 extends AppCompatActivity implements GoogleFitManager
         intent.putExtra("ACTIVITY_TYPE", activityType);
         startActivity(intent);
     }
-      private void setupGoogleFit() {
-        googleFitManager = new GoogleFitManager(this);
-        updateAuthStatus();
-        
-        // Si pas de connexion Google Fit, utiliser le mode démo
-        if (!googleFitManager.isSignedIn() || !googleFitManager.hasPermissions()) {
-            googleFitManager.enableDemoMode();
-            updateAuthStatus();
-        }
+      private CompletableFuture<GoogleFitManager> setupGoogleFit(CompletableFuture<Void> firstFrame) {
+        // Client GoogleSignIn et FitnessOptions construits hors du thread principal
+        Context appContext = getApplicationContext();
+        return startup.initAsync("google_fit", firstFrame, () -> new GoogleFitManager(appContext))
+                .thenApplyAsync(fitManager -> {
+                    googleFitManager = fitManager;
+                    
+                    // Si pas de connexion Google Fit, utiliser le mode démo
+                    if (!googleFitManager.isSignedIn() || !googleFitManager.hasPermissions()) {
+                        googleFitManager.enableDemoMode();
+                    }
+                    updateAuthStatus();
+                    return fitManager;
+                }, ContextCompat.getMainExecutor(this));
+    }
+    
+    /**
+     * Exécute action sur le thread principal dès que GoogleFitManager est prêt
+     * (aussitôt s'il l'est déjà) : une action demandée pendant l'initialisation
+     * (toucher, résultat d'activité après recréation) est mise en attente, pas perdue
+     */
+    private void withGoogleFit(Consumer<GoogleFitManager> action) {
+        googleFit.thenAcceptAsync(action, ContextCompat.getMainExecutor(this));
     }
     
     private void connectToGoogleFit() {
-        if (!googleFitManager.isSignedIn()) {
-            googleFitManager.signIn(this, this);
-        } else if (!googleFitManager.hasPermissions()) {
-            googleFitManager.requestPermissions(this);
-        } else {
-            Toast.makeText(this, "Déjà connecté à Google Fit", Toast.LENGTH_SHORT).show();
-        }
+        withGoogleFit(manager -> {
+            if (!manager.isSignedIn()) {
+                manager.signIn(this, this);
+            } else if (!manager.hasPermissions()) {
+                manager.requestPermissions(this);
+            } else {
+                Toast.makeText(this, "Déjà connecté à Google Fit", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
     
     private void updateAuthStatus() {
         String status;
-        if (googleFitManager.isSignedIn() && googleFitManager.hasPermissions()) {
+        if (googleFitManager == null) {
+            // Initialisation en cours : un toucher sur le bouton est mis en attente
+            status = "⏳ Initialisation de Google Fit…";
+        } else if (googleFitManager.isSignedIn() && googleFitManager.hasPermissions()) {
             status = "🟢 Connecté à Google Fit";
             if (connectGoogleFitButton != null) {
                 connectGoogleFitButton.setText("Connecté");
@@ -214,8 +266,12 @@ public class MainActivity2 extends AppCompatActivity implements GoogleFitManager
         }
     }
       private void syncAndLoadData() {
-        // Une seule synchronisation au lieu de deux
-        dataSyncService.syncAllData(new DataSyncService.SyncListener() {
+        syncAndLoadData(false);
+    }
+    
+    // force : ignorer la fraîcheur de la dernière synchronisation
+    private void syncAndLoadData(boolean force) {
+        DataSyncService.SyncListener listener = new DataSyncService.SyncListener() {
             @Override
             public void onSyncStarted() {
                 // Optionnel : afficher un indicateur de chargement
@@ -232,7 +288,7 @@ public class MainActivity2 extends AppCompatActivity implements GoogleFitManager
             public void onSyncError(String error) {
                 runOnUiThread(() -> {
                     // En cas d'erreur, utiliser les données de fallback
-                    googleFitManager.getSimulatedData(MainActivity2.this);
+                    withGoogleFit(manager -> manager.getSimulatedData(MainActivity2.this));
                 });
             }
             
@@ -240,47 +296,45 @@ public class MainActivity2 extends AppCompatActivity implements GoogleFitManager
             public void onDataUpdated(HealthData healthData) {
                 // Les données seront automatiquement mises à jour via les observers
             }
-        });
+        };
+        
+        // Une seule synchronisation à la fois pour toute l'application (SyncCoordinator)
+        dataSyncService.thenAcceptAsync(service -> {
+            if (force) {
+                service.syncNow(listener);
+            } else {
+                service.syncAllData(listener);
+            }
+        }, ContextCompat.getMainExecutor(this));
     }
     
     private void observeDatabaseData() {
-        String userId = preferencesManager.getUserId();
-        if (userId != null) {
-            // Observer les données de santé du jour
-            databaseManager.getTodaysHealthData(userId).observe(this, new Observer<HealthData>() {
-                @Override
-                public void onChanged(HealthData healthData) {
-                    if (healthData != null) {
-                        updateUIWithHealthData(healthData);
-                    }
-                }
-            });
-        }
+        // Un seul observer pour tout le tableau de bord, enregistré une fois (onCreate)
+        healthViewModel.getTodaysDashboard().observe(this, dashboard -> {
+            if (dashboard != null && dashboard.hasHealthData) {
+                updateUIWithDashboard(dashboard);
+            }
+        });
     }
     
-    private void updateUIWithHealthData(HealthData healthData) {
+    private void updateUIWithDashboard(DailyDashboard dashboard) {
         // Mettre à jour les TextViews avec les données de la base
-        stepsTextView.setText(String.format("%,d pas", healthData.steps));
-        caloriesTextView.setText(String.format("%,d cal", healthData.calories));
+        stepsTextView.setText(String.format("%,d pas", dashboard.steps));
+        caloriesTextView.setText(String.format("%,d cal", dashboard.calories));
         
         // Afficher les heures de sommeil
-        int hours = (int) healthData.sleepHours;
-        int minutes = (int) ((healthData.sleepHours - hours) * 60);
+        int hours = (int) dashboard.sleepHours;
+        int minutes = (int) ((dashboard.sleepHours - hours) * 60);
         sleepTextView.setText(String.format("%dh %02dmin", hours, minutes));
     }
-      private void setupNotifications() {
-        // Configuration des notifications quotidiennes complètes
-        if (preferencesManager.areNotificationsEnabled()) {
-            // Activer le système complet de notifications quotidiennes
-            healthNotificationManager.enableDailyNotifications();
-            
-            // Anciennes notifications pour compatibilité
-            notificationHelper.scheduleStepsReminder();
-        }
+    // Thread de fond : création des canaux et programmation des alarmes
+    private void setupNotifications(Context appContext) {
+        // Canaux de notification utilisés par les receivers des rappels
+        new HealthNotificationManager(appContext);
         
-        if (preferencesManager.areWaterRemindersEnabled()) {
-            notificationHelper.scheduleWaterReminders();
-        }
+        // Les alarmes déjà programmées lors d'un lancement précédent sont conservées :
+        // seules celles dont les réglages ont changé sont ajoutées ou annulées
+        ReminderScheduler.sync(appContext);
         
         // Log pour confirmer l'activation des notifications
         android.util.Log.d("MainActivity2", "Système de notifications quotidiennes activé");
@@ -299,10 +353,8 @@ public class MainActivity2 extends AppCompatActivity implements GoogleFitManager
         updateWelcomeMessage();
         
         // Synchroniser et charger les données
+        // (l'observer de la base est enregistré une seule fois dans onCreate)
         syncAndLoadData();
-        
-        // Observer les données de la base de données
-        observeDatabaseData();
     }
     
     // Implémentation des méthodes de GoogleFitManager.FitnessDataListener    @Override
@@ -347,6 +399,8 @@ public class MainActivity2 extends AppCompatActivity implements GoogleFitManager
     protected void onResume() {
         super.onResume();
         // Rafraîchir les données quand l'utilisateur revient sur l'écran
+        // (nouvelle requête du tableau de bord si minuit est passé)
+        healthViewModel.refreshDay();
         updateDashboard();
     }
     
@@ -363,6 +417,10 @@ public class MainActivity2 extends AppCompatActivity implements GoogleFitManager
         // Déconnexion via AuthManager
         authManager.logout();
         
+        // Oublier l'utilisateur dans le cache de la base
+        databaseManager.onUserLoggedOut(preferencesManager.getUserId());
+        SyncScheduler.cancelAll(this);
+        
         // Effacer les préférences utilisateur
         preferencesManager.logout();
         
@@ -380,7 +438,8 @@ public class MainActivity2 extends AppCompatActivity implements GoogleFitManager
         super.onActivityResult(requestCode, resultCode, data);
         
         if (requestCode == GoogleFitManager.GOOGLE_SIGN_IN_REQUEST_CODE) {
-            googleFitManager.handleSignInResult(data, this);
+            // L'activité a pu être recréée pendant la connexion : manager pas encore prêt
+            withGoogleFit(manager -> manager.handleSignInResult(data, this));
         } else if (requestCode == 1000) { // GOOGLE_FIT_PERMISSIONS_REQUEST_CODE
             if (resultCode == RESULT_OK) {
                 onSignInSuccess();
@@ -405,7 +464,7 @@ public class MainActivity2 extends AppCompatActivity implements GoogleFitManager
             updateAuthStatus();
             Toast.makeText(this, "Connexion Google Fit réussie!", Toast.LENGTH_SHORT).show();
             // Relancer la synchronisation avec les vraies données
-            syncAndLoadData();
+            syncAndLoadData(true);
         });
     }
     
@@ -415,8 +474,10 @@ public class MainActivity2 extends AppCompatActivity implements GoogleFitManager
             updateAuthStatus();
             Toast.makeText(this, "Connexion échouée: " + error, Toast.LENGTH_LONG).show();
             // Continuer en mode démo
-            googleFitManager.enableDemoMode();
-            updateAuthStatus();
+            withGoogleFit(manager -> {
+                manager.enableDemoMode();
+                updateAuthStatus();
+            });
         });
     }
     
@@ -0,0 +1,250 @@
+package com.example.projet_android;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.core.content.ContextCompat;
+
+import com.example.projet_android.models.MonthSummary;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Grille d'un mois (lundi en première colonne). Chaque jour est découpé en trois
+ * bandes (pas, calories, sommeil) dont l'intensité suit le pourcentage d'objectif.
+ * Dessin sans allocation ni accès à la base : tout vient d'un MonthSummary déjà lu.
+ */
+public class MonthHeatmapView extends View {
+    
+    public interface OnDayClickListener {
+        void onDayClick(LocalDate date);
+    }
+    
+    private static final int COLUMNS = 7;
+    private static final int MAX_ROWS = 6;
+    private static final String[] WEEKDAYS = {"L", "M", "M", "J", "V", "S", "D"};
+    private static final String[] DAY_NUMBERS = new String[32];
+    private static final DateTimeFormatter MONTH_TITLE = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.getDefault());
+    
+    // Intensité minimale d'une bande : un jour à 0 % reste distinct d'un jour sans données
+    private static final int MIN_ALPHA = 40;
+    
+    static {
+        for (int day = 1; day < DAY_NUMBERS.length; day++) {
+            DAY_NUMBERS[day] = String.valueOf(day);
+        }
+    }
+    
+    private final Paint titlePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint weekdayPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint dayPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint emptyPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint bandPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint selectedPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF cell = new RectF();
+    private final RectF band = new RectF();
+    
+    private final int stepsColor;
+    private final int caloriesColor;
+    private final int sleepColor;
+    private final float cellPadding;
+    private final float cornerRadius;
+    
+    private YearMonth month;
+    private String title = "";
+    private int firstColumn; // Colonne du 1er du mois
+    private MonthSummary summary;
+    private int selectedDay; // 0 : aucun jour sélectionné dans ce mois
+    
+    private int stepsGoal = 10000;
+    private int caloriesGoal = 2000;
+    private float sleepGoal = 8f;
+    
+    private float titleHeight;
+    private float weekdayHeight;
+    private float cellWidth;
+    private float cellHeight;
+    
+    private OnDayClickListener onDayClickListener;
+    
+    public MonthHeatmapView(Context context) {
+        this(context, null);
+    }
+    
+    public MonthHeatmapView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        float density = getResources().getDisplayMetrics().density;
+        float scaledDensity = getResources().getDisplayMetrics().scaledDensity;
+        
+        stepsColor = ContextCompat.getColor(context, android.R.color.holo_green_dark);
+        caloriesColor = ContextCompat.getColor(context, android.R.color.holo_orange_dark);
+        sleepColor = ContextCompat.getColor(context, android.R.color.holo_blue_dark);
+        cellPadding = 2 * density;
+        cornerRadius = 4 * density;
+        
+        titlePaint.setTextSize(18 * scaledDensity);
+        titlePaint.setFakeBoldText(true);
+        titlePaint.setTextAlign(Paint.Align.CENTER);
+        titlePaint.setColor(Color.BLACK);
+        weekdayPaint.setTextSize(12 * scaledDensity);
+        weekdayPaint.setTextAlign(Paint.Align.CENTER);
+        weekdayPaint.setColor(Color.GRAY);
+        dayPaint.setTextSize(11 * scaledDensity);
+        dayPaint.setColor(Color.BLACK);
+        emptyPaint.setColor(0xFFEEEEEE);
+        selectedPaint.setStyle(Paint.Style.STROKE);
+        selectedPaint.setStrokeWidth(2 * density);
+        selectedPaint.setColor(Color.BLACK);
+        
+        titleHeight = 32 * density;
+        weekdayHeight = 20 * density;
+    }
+    
+    public void setMonth(YearMonth month) {
+        if (month.equals(this.month)) {
+            return;
+        }
+        this.month = month;
+        this.firstColumn = month.atDay(1).getDayOfWeek().getValue() - 1;
+        String label = month.format(MONTH_TITLE);
+        this.title = label.substring(0, 1).toUpperCase(Locale.getDefault()) + label.substring(1);
+        this.summary = null;
+        invalidate();
+    }
+    
+    public YearMonth getMonth() {
+        return month;
+    }
+    
+    /**
+     * summary null : mois en cours de chargement, les cases sont dessinées vides
+     */
+    public void setSummary(MonthSummary summary) {
+        this.summary = summary != null && summary.getMonth().equals(month) ? summary : null;
+        invalidate();
+    }
+    
+    public void setGoals(int stepsGoal, int caloriesGoal, float sleepGoal) {
+        this.stepsGoal = Math.max(1, stepsGoal);
+        this.caloriesGoal = Math.max(1, caloriesGoal);
+        this.sleepGoal = sleepGoal > 0 ? sleepGoal : 1f;
+        invalidate();
+    }
+    
+    public void setSelectedDate(LocalDate date) {
+        int day = date != null && month != null && YearMonth.from(date).equals(month) ? date.getDayOfMonth() : 0;
+        if (day != selectedDay) {
+            selectedDay = day;
+            invalidate();
+        }
+    }
+    
+    public void setOnDayClickListener(OnDayClickListener listener) {
+        this.onDayClickListener = listener;
+    }
+    
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        cellWidth = (w - getPaddingLeft() - getPaddingRight()) / (float) COLUMNS;
+        cellHeight = (h - getPaddingTop() - getPaddingBottom() - titleHeight - weekdayHeight) / MAX_ROWS;
+    }
+    
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (month == null) {
+            return;
+        }
+        float left = getPaddingLeft();
+        float top = getPaddingTop();
+        
+        canvas.drawText(title, getWidth() / 2f, top + titleHeight * 0.7f, titlePaint);
+        for (int column = 0; column < COLUMNS; column++) {
+            canvas.drawText(WEEKDAYS[column], left + (column + 0.5f) * cellWidth,
+                    top + titleHeight + weekdayHeight * 0.75f, weekdayPaint);
+        }
+        
+        float gridTop = top + titleHeight + weekdayHeight;
+        float bandWidth = (cellWidth - 2 * cellPadding) / 3f;
+        int days = month.lengthOfMonth();
+        for (int day = 1; day <= days; day++) {
+            int index = firstColumn + day - 1;
+            float x = left + (index % COLUMNS) * cellWidth;
+            float y = gridTop + (index / COLUMNS) * cellHeight;
+            cell.set(x + cellPadding, y + cellPadding, x + cellWidth - cellPadding, y + cellHeight - cellPadding);
+            canvas.drawRoundRect(cell, cornerRadius, cornerRadius, emptyPaint);
+            
+            if (summary != null && summary.hasData(day)) {
+                drawBand(canvas, 0, bandWidth, stepsColor, summary.getSteps(day) / (float) stepsGoal);
+                drawBand(canvas, 1, bandWidth, caloriesColor, summary.getCalories(day) / (float) caloriesGoal);
+                drawBand(canvas, 2, bandWidth, sleepColor, summary.getSleepHours(day) / sleepGoal);
+            }
+            
+            canvas.drawText(DAY_NUMBERS[day], cell.left + cellPadding * 2,
+                    cell.top + dayPaint.getTextSize(), dayPaint);
+            if (day == selectedDay) {
+                canvas.drawRoundRect(cell, cornerRadius, cornerRadius, selectedPaint);
+            }
+        }
+    }
+    
+    // Bande verticale de la case courante, opaque à 100 % de l'objectif
+    private void drawBand(Canvas canvas, int position, float bandWidth, int color, float ratio) {
+        float clamped = Math.max(0f, Math.min(1f, ratio));
+        bandPaint.setColor(color);
+        bandPaint.setAlpha(MIN_ALPHA + Math.round((255 - MIN_ALPHA) * clamped));
+        float bandLeft = cell.left + position * bandWidth;
+        band.set(bandLeft, cell.top, bandLeft + bandWidth, cell.bottom);
+        canvas.drawRect(band, bandPaint);
+    }
+    
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (month == null) {
+            return false;
+        }
+        if (event.getAction() == MotionEvent.ACTION_DOWN) {
+            return true;
+        }
+        if (event.getAction() == MotionEvent.ACTION_UP) {
+            int day = dayAt(event.getX(), event.getY());
+            if (day > 0) {
+                performClick();
+                if (onDayClickListener != null) {
+                    onDayClickListener.onDayClick(month.atDay(day));
+                }
+            }
+            return true;
+        }
+        return super.onTouchEvent(event);
+    }
+    
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+    
+    private int dayAt(float x, float y) {
+        float gridTop = getPaddingTop() + titleHeight + weekdayHeight;
+        if (y < gridTop || cellWidth <= 0 || cellHeight <= 0) {
+            return 0;
+        }
+        int column = (int) ((x - getPaddingLeft()) / cellWidth);
+        int row = (int) ((y - gridTop) / cellHeight);
+        if (column < 0 || column >= COLUMNS || row >= MAX_ROWS) {
+            return 0;
+        }
+        int day = row * COLUMNS + column - firstColumn + 1;
+        return day >= 1 && day <= month.lengthOfMonth() ? day : 0;
+    }
+}
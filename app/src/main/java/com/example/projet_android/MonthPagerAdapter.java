@@ -0,0 +1,177 @@
+package com.example.projet_android;
+
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.projet_android.database.DatabaseManager;
+import com.example.projet_android.models.MonthSummary;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Pages du calendrier : un mois par page, du plus ancien (HISTORY_MONTHS avant)
+ * au mois courant (dernière page). Un mois déjà en cache est affiché immédiatement,
+ * sinon il est lu en une requête et affiché dès qu'il arrive.
+ */
+public class MonthPagerAdapter extends RecyclerView.Adapter<MonthPagerAdapter.ViewHolder> {
+    
+    private static final int HISTORY_MONTHS = 120;
+    // Données du mois modifiées : seul le résumé est relu, la carte affichée reste en place
+    private static final Object PAYLOAD_SUMMARY = new Object();
+    
+    private final DatabaseManager databaseManager;
+    private final String userId;
+    private final Executor mainExecutor;
+    private final YearMonth lastMonth;
+    private final MonthHeatmapView.OnDayClickListener onDayClickListener;
+    
+    private int stepsGoal;
+    private int caloriesGoal;
+    private float sleepGoal;
+    private LocalDate selectedDate;
+    
+    public MonthPagerAdapter(DatabaseManager databaseManager, String userId, Executor mainExecutor,
+                             YearMonth lastMonth, MonthHeatmapView.OnDayClickListener onDayClickListener) {
+        this.databaseManager = databaseManager;
+        this.userId = userId;
+        this.mainExecutor = mainExecutor;
+        this.lastMonth = lastMonth;
+        this.onDayClickListener = onDayClickListener;
+    }
+    
+    public void setGoals(int stepsGoal, int caloriesGoal, float sleepGoal) {
+        this.stepsGoal = stepsGoal;
+        this.caloriesGoal = caloriesGoal;
+        this.sleepGoal = sleepGoal;
+        notifyDataSetChanged();
+    }
+    
+    // Seules les pages de l'ancienne et de la nouvelle date sont redessinées
+    public void setSelectedDate(LocalDate date) {
+        LocalDate previous = selectedDate;
+        selectedDate = date;
+        if (previous != null) {
+            notifyPageChanged(YearMonth.from(previous));
+        }
+        if (date != null && (previous == null || !YearMonth.from(previous).equals(YearMonth.from(date)))) {
+            notifyPageChanged(YearMonth.from(date));
+        }
+    }
+    
+    /**
+     * Relit le résumé des mois invalidés après une écriture (seules les pages
+     * affichées sont relues tout de suite, les autres à leur prochain affichage)
+     */
+    public void refreshSummaries(Set<YearMonth> months) {
+        for (YearMonth month : months) {
+            int position = getPosition(month);
+            if (position >= 0) {
+                notifyItemChanged(position, PAYLOAD_SUMMARY);
+            }
+        }
+    }
+    
+    public YearMonth getMonthAt(int position) {
+        return lastMonth.minusMonths(HISTORY_MONTHS - position);
+    }
+    
+    /**
+     * Position de la page du mois, -1 s'il est hors de l'historique affiché
+     */
+    public int getPosition(YearMonth month) {
+        long offset = HISTORY_MONTHS - (lastMonth.getYear() * 12L + lastMonth.getMonthValue()
+                - month.getYear() * 12L - month.getMonthValue());
+        return offset >= 0 && offset <= HISTORY_MONTHS ? (int) offset : -1;
+    }
+    
+    /**
+     * Lit à l'avance le mois de la page position (s'il existe)
+     */
+    public void prefetch(int position) {
+        if (userId != null && position >= 0 && position < getItemCount()) {
+            databaseManager.loadMonthSummary(userId, getMonthAt(position));
+        }
+    }
+    
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        MonthHeatmapView view = new MonthHeatmapView(parent.getContext());
+        view.setLayoutParams(new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        view.setOnDayClickListener(onDayClickListener);
+        return new ViewHolder(view);
+    }
+    
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        YearMonth month = getMonthAt(position);
+        MonthHeatmapView view = holder.heatmapView;
+        view.setMonth(month);
+        view.setGoals(stepsGoal, caloriesGoal, sleepGoal);
+        view.setSelectedDate(selectedDate);
+        bindSummary(view, month, true);
+    }
+    
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        boolean summaryOnly = !payloads.isEmpty();
+        for (Object payload : payloads) {
+            summaryOnly &= payload == PAYLOAD_SUMMARY;
+        }
+        if (summaryOnly) {
+            bindSummary(holder.heatmapView, getMonthAt(position), false);
+        } else {
+            super.onBindViewHolder(holder, position, payloads);
+        }
+    }
+    
+    private void bindSummary(MonthHeatmapView view, YearMonth month, boolean clearWhileLoading) {
+        if (userId == null) {
+            view.setSummary(null);
+            return;
+        }
+        MonthSummary cached = databaseManager.getCachedMonthSummary(userId, month);
+        if (cached != null || clearWhileLoading) {
+            view.setSummary(cached);
+        }
+        if (cached == null) {
+            int generation = databaseManager.getMonthSummaryGeneration(month);
+            databaseManager.loadMonthSummary(userId, month).thenAcceptAsync(summary -> {
+                // La vue a pu être recyclée pour un autre mois entre-temps ; un résultat
+                // lu avant une invalidation ne remplace pas celui de la relecture
+                if (month.equals(view.getMonth())
+                        && generation == databaseManager.getMonthSummaryGeneration(month)) {
+                    view.setSummary(summary);
+                }
+            }, mainExecutor);
+        }
+    }
+    
+    @Override
+    public int getItemCount() {
+        return HISTORY_MONTHS + 1;
+    }
+    
+    private void notifyPageChanged(YearMonth month) {
+        int position = getPosition(month);
+        if (position >= 0) {
+            notifyItemChanged(position);
+        }
+    }
+    
+    public static class ViewHolder extends RecyclerView.ViewHolder {
+        final MonthHeatmapView heatmapView;
+        
+        public ViewHolder(@NonNull MonthHeatmapView itemView) {
+            super(itemView);
+            heatmapView = itemView;
+        }
+    }
+}
@@ -12,9 +12,10 @@ import android.widget.Switch;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import com.example.projet_android.database.DatabaseManager;
 import com.example.projet_android.services.AuthManager;
-import com.example.projet_android.services.NotificationHelper;
 import com.example.projet_android.services.HealthNotificationManager;
+import com.example.projet_android.services.SyncScheduler;
 import com.example.projet_android.utils.PreferencesManager;
 
 public class SettingsActivity extends AppCompatActivity {
@@ -32,7 +33,6 @@ public class SettingsActivity extends AppCompatActivity {
     private Button btnLogout;
     private TextView tvRecommendations;
       private PreferencesManager preferencesManager;
-    private NotificationHelper notificationHelper;
     private HealthNotificationManager healthNotificationManager;
     
     @Override
@@ -40,7 +40,6 @@ public class SettingsActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_settings);
           preferencesManager = new PreferencesManager(this);
-        notificationHelper = new NotificationHelper(this);
         healthNotificationManager = new HealthNotificationManager(this);
         
         initViews();
@@ -188,11 +187,10 @@ public class SettingsActivity extends AppCompatActivity {
             // Sauvegarder les paramètres de notifications
             preferencesManager.setNotificationsEnabled(switchNotifications.isChecked());
             preferencesManager.setWaterRemindersEnabled(switchWaterReminders.isChecked());
-              // Programmer les notifications selon les nouveaux paramètres
+              // Programmer les notifications selon les nouveaux paramètres (rappels d'eau compris)
             if (switchNotifications.isChecked()) {
                 // Activer le système complet de notifications quotidiennes
                 healthNotificationManager.enableDailyNotifications();
-                notificationHelper.scheduleStepsReminder();
                 android.util.Log.d("SettingsActivity", "Notifications quotidiennes activées");
             } else {
                 // Désactiver toutes les notifications quotidiennes
@@ -200,10 +198,6 @@ public class SettingsActivity extends AppCompatActivity {
                 android.util.Log.d("SettingsActivity", "Notifications quotidiennes désactivées");
             }
             
-            if (switchWaterReminders.isChecked()) {
-                notificationHelper.scheduleWaterReminders();
-            }
-            
             Toast.makeText(this, "Paramètres sauvegardés avec succès!", Toast.LENGTH_SHORT).show();
             finish();
             
@@ -278,6 +272,10 @@ public class SettingsActivity extends AppCompatActivity {
         AuthManager authManager = new AuthManager(this);
         authManager.logout();
         
+        // Oublier l'utilisateur dans le cache de la base
+        DatabaseManager.getInstance(this).onUserLoggedOut(preferencesManager.getUserId());
+        SyncScheduler.cancelAll(this);
+        
         // Effacer les préférences utilisateur
         preferencesManager.logout();
         
@@ -23,10 +23,15 @@ public class SplashActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        StartupOrchestrator startup = StartupOrchestrator.getInstance(this);
+        startup.mark(StartupOrchestrator.PHASE_SPLASH_CREATED);
         setContentView(R.layout.activity_splash);
         
         preferencesManager = new PreferencesManager(this);
         
+        // Ouverture de la base et première requête du tableau de bord pendant l'animation
+        startup.prewarmDatabase(preferencesManager.isUserLoggedIn() ? preferencesManager.getUserId() : null);
+        
         initViews();
         startAnimations();
         navigateAfterDelay();
@@ -0,0 +1,204 @@
+package com.example.projet_android;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import com.example.projet_android.database.AppDatabase;
+import com.example.projet_android.database.DatabaseManager;
+import com.example.projet_android.utils.StartupTimings;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Démarrage de l'application : le premier écran ne construit que ce qu'il affiche.
+ * La base est ouverte (migrations comprises) et la requête du tableau de bord exécutée
+ * pendant l'écran de démarrage ; les composants secondaires (Google Fit, notifications,
+ * synchronisation) sont construits en parallèle sur des threads de fond, après la
+ * première image. Les phases du démarrage à froid sont journalisées (tag "Startup")
+ * et comparées au démarrage précédent.
+ */
+public final class StartupOrchestrator {
+    
+    private static final String TAG = "Startup";
+    private static final String PREFS_NAME = "startup_metrics";
+    private static final String KEY_LAST_TOTAL = "last_cold_start_ms";
+    // Au-delà de +20 % par rapport au démarrage précédent, la durée est signalée
+    private static final float REGRESSION_TOLERANCE = 0.2f;
+    // Écran de démarrage créé plus tard : le processus a été lancé par une alarme
+    // ou par SyncWorker, et l'application ouverte ensuite (pas un démarrage à froid)
+    private static final long MAX_SPLASH_DELAY_MS = 5000;
+    private static final int THREAD_COUNT = 2;
+    
+    public static final String PHASE_SPLASH_CREATED = "splash_created";
+    public static final String PHASE_DB_OPEN = "db_open";
+    public static final String PHASE_DASHBOARD_QUERY = "dashboard_query";
+    public static final String PHASE_MAIN_CREATED = "main_created";
+    public static final String PHASE_MAIN_FIRST_FRAME = "main_first_frame";
+    
+    private static volatile StartupOrchestrator INSTANCE;
+    
+    private final Application application;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ThreadPoolExecutor executor;
+    private final StartupTimings timings;
+    
+    private CompletableFuture<DatabaseManager> database;
+    private boolean reported;
+    
+    public static StartupOrchestrator getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (StartupOrchestrator.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new StartupOrchestrator((Application) context.getApplicationContext());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+    
+    private StartupOrchestrator(Application application) {
+        this.application = application;
+        this.timings = new StartupTimings(Process.getStartUptimeMillis());
+        
+        // Threads de priorité basse : ils ne doivent pas ralentir le thread principal.
+        // Inutiles après le démarrage, ils s'arrêtent d'eux-mêmes
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(THREAD_COUNT, THREAD_COUNT, 10, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> new Thread(() -> {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }, "startup-" + threadCount.incrementAndGet()));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+    
+    /**
+     * Enregistre la fin d'une phase (seul le premier appel compte)
+     */
+    public void mark(String phase) {
+        timings.mark(phase, SystemClock.uptimeMillis());
+    }
+    
+    /**
+     * Ouvre la base et exécute la requête du tableau de bord de userId (si non null)
+     * en arrière-plan. Sans effet au second appel.
+     */
+    public synchronized CompletableFuture<DatabaseManager> prewarmDatabase(String userId) {
+        if (database == null) {
+            database = CompletableFuture.supplyAsync(() -> {
+                long start = SystemClock.uptimeMillis();
+                DatabaseManager databaseManager = DatabaseManager.getInstance(application);
+                // Room n'ouvre la connexion (et n'applique les migrations) qu'à la première requête
+                AppDatabase.getDatabase(application).getOpenHelper().getWritableDatabase();
+                long opened = SystemClock.uptimeMillis();
+                timings.span(PHASE_DB_OPEN, start, opened);
+                
+                if (userId != null) {
+                    databaseManager.getTodaysDashboardSync(userId);
+                    timings.span(PHASE_DASHBOARD_QUERY, opened, SystemClock.uptimeMillis());
+                }
+                return databaseManager;
+            }, executor);
+            database.whenComplete((databaseManager, error) -> {
+                if (error != null) {
+                    Log.e(TAG, "Préchargement de la base impossible", error);
+                }
+            });
+        }
+        return database;
+    }
+    
+    /**
+     * Future complétée sur le thread principal après la première image de l'activité
+     */
+    public CompletableFuture<Void> whenFirstFrameDrawn(Activity activity) {
+        CompletableFuture<Void> drawn = new CompletableFuture<>();
+        View decorView = activity.getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+            private boolean called;
+            
+            @Override
+            public void onDraw() {
+                if (called) {
+                    return;
+                }
+                called = true;
+                // Un OnDrawListener ne peut pas être retiré pendant onDraw ; la tâche
+                // passe en tête de file pour s'exécuter juste après cette image
+                mainHandler.postAtFrontOfQueue(() -> {
+                    decorView.getViewTreeObserver().removeOnDrawListener(this);
+                    drawn.complete(null);
+                });
+            }
+        });
+        return drawn;
+    }
+    
+    /**
+     * Construit un composant sur un thread de fond une fois after terminée.
+     * La durée de construction est enregistrée sous le nom phase.
+     */
+    public <T> CompletableFuture<T> initAsync(String phase, CompletableFuture<?> after, Supplier<T> init) {
+        CompletableFuture<T> result = after.thenApplyAsync(ignored -> {
+            long start = SystemClock.uptimeMillis();
+            T component = init.get();
+            timings.span(phase, start, SystemClock.uptimeMillis());
+            return component;
+        }, executor);
+        result.whenComplete((component, error) -> {
+            if (error != null) {
+                Log.e(TAG, "Initialisation de " + phase + " impossible", error);
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Journalise les phases du démarrage à froid et les compare au précédent.
+     * Une seule fois par processus, et seulement si le processus a démarré sur l'écran
+     * de démarrage (pas après une recréation d'activité ou un démarrage par une alarme).
+     * Une mesure ignorée ne remplace pas la référence enregistrée.
+     */
+    public void reportColdStart() {
+        synchronized (this) {
+            if (reported) {
+                return;
+            }
+            reported = true;
+        }
+        long splashCreated = timings.getEnd(PHASE_SPLASH_CREATED);
+        if (splashCreated < 0) {
+            return;
+        }
+        if (splashCreated > MAX_SPLASH_DELAY_MS) {
+            Log.d(TAG, "Processus lancé en arrière-plan (écran de démarrage à " + splashCreated + "ms) : mesure ignorée");
+            return;
+        }
+        
+        long total = timings.getTotal();
+        executor.execute(() -> {
+            SharedPreferences preferences = application.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+            long previousTotal = preferences.getLong(KEY_LAST_TOTAL, 0);
+            String message = "Démarrage à froid " + total + "ms : " + timings.format();
+            if (StartupTimings.isRegression(total, previousTotal, REGRESSION_TOLERANCE)) {
+                Log.w(TAG, message + " (précédent " + previousTotal + "ms)");
+            } else {
+                Log.i(TAG, message);
+            }
+            preferences.edit().putLong(KEY_LAST_TOTAL, total).apply();
+        });
+    }
+}
@@ -11,18 +11,34 @@ import androidx.sqlite.db.SupportSQLiteDatabase;
 import com.example.projet_android.database.dao.ActivityDao;
 import com.example.projet_android.database.dao.FoodLogDao;
 import com.example.projet_android.database.dao.HealthDataDao;
+import com.example.projet_android.database.dao.IntradayArchiveDao;
+import com.example.projet_android.database.dao.IntradaySampleDao;
+import com.example.projet_android.database.dao.NutritionTotalsDao;
+import com.example.projet_android.database.dao.ProductCacheDao;
+import com.example.projet_android.database.dao.RollupDao;
+import com.example.projet_android.database.dao.SyncCursorDao;
+import com.example.projet_android.database.dao.TimelineDao;
 import com.example.projet_android.database.dao.UserDao;
 import com.example.projet_android.database.entities.Activity;
+import com.example.projet_android.database.entities.CachedProduct;
 import com.example.projet_android.database.entities.FoodLog;
 import com.example.projet_android.database.entities.HealthData;
+import com.example.projet_android.database.entities.HealthMonth;
+import com.example.projet_android.database.entities.HealthWeek;
+import com.example.projet_android.database.entities.IntradayArchive;
+import com.example.projet_android.database.entities.IntradaySample;
+import com.example.projet_android.database.entities.NutritionTotals;
+import com.example.projet_android.database.entities.SyncCursor;
 import com.example.projet_android.database.entities.User;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 @Database(
-        entities = {User.class, HealthData.class, FoodLog.class, Activity.class},
-        version = 1,
+        entities = {User.class, HealthData.class, FoodLog.class, Activity.class,
+                NutritionTotals.class, HealthWeek.class, HealthMonth.class, SyncCursor.class,
+                IntradaySample.class, IntradayArchive.class, CachedProduct.class},
+        version = 10,
         exportSchema = false
 )
 public abstract class AppDatabase extends RoomDatabase {
@@ -31,6 +47,13 @@ public abstract class AppDatabase extends RoomDatabase {
     public abstract HealthDataDao healthDataDao();
     public abstract FoodLogDao foodLogDao();
     public abstract ActivityDao activityDao();
+    public abstract NutritionTotalsDao nutritionTotalsDao();
+    public abstract RollupDao rollupDao();
+    public abstract SyncCursorDao syncCursorDao();
+    public abstract IntradaySampleDao intradaySampleDao();
+    public abstract IntradayArchiveDao intradayArchiveDao();
+    public abstract ProductCacheDao productCacheDao();
+    public abstract TimelineDao timelineDao();
     
     private static volatile AppDatabase INSTANCE;
     private static final int NUMBER_OF_THREADS = 4;
@@ -44,6 +67,9 @@ public abstract class AppDatabase extends RoomDatabase {
                     INSTANCE = Room.databaseBuilder(context.getApplicationContext(),
                             AppDatabase.class, "health_tracker_database")
                             .addCallback(sRoomDatabaseCallback)
+                            .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6,
+                                    MIGRATION_6_7, MIGRATION_7_8, MIGRATION_8_9,
+                                    MIGRATION_9_10)
                             .build();
                 }
             }
@@ -55,6 +81,10 @@ public abstract class AppDatabase extends RoomDatabase {
         @Override
         public void onCreate(SupportSQLiteDatabase db) {
             super.onCreate(db);
+            // Les triggers ne sont pas gérés par Room
+            DatabaseTriggers.createNutritionTriggers(db);
+            DatabaseTriggers.createRollupTriggers(db);
+            
             // Si vous voulez ajouter des données initiales, utilisez databaseWriteExecutor
             databaseWriteExecutor.execute(() -> {
                 // Ajouter des données d'exemple si nécessaire
@@ -63,12 +93,159 @@ public abstract class AppDatabase extends RoomDatabase {
             });
         }
     };
-      // Migration example for future versions
+    
+    /**
+     * Version 2 : index composites (userId, date) pour les requêtes journalières
+     * et une seule ligne health_data par utilisateur et par jour.
+     */
     static final Migration MIGRATION_1_2 = new Migration(1, 2) {
         @Override
         public void migrate(SupportSQLiteDatabase database) {
-            // Exemple de migration pour une future version
-            // database.execSQL("ALTER TABLE users ADD COLUMN new_column TEXT");
+            // Garder la ligne la plus récente si plusieurs existent pour le même jour
+            database.execSQL("DELETE FROM health_data WHERE id NOT IN " +
+                    "(SELECT MAX(id) FROM health_data GROUP BY userId, date)");
+            
+            database.execSQL("DROP INDEX IF EXISTS index_health_data_userId");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS index_health_data_userId_date " +
+                    "ON health_data (userId, date)");
+            
+            database.execSQL("DROP INDEX IF EXISTS index_food_logs_userId");
+            database.execSQL("CREATE INDEX IF NOT EXISTS index_food_logs_userId_date_timestamp " +
+                    "ON food_logs (userId, date, timestamp)");
+            
+            database.execSQL("DROP INDEX IF EXISTS index_activities_userId");
+            database.execSQL("CREATE INDEX IF NOT EXISTS index_activities_userId_date_startTime " +
+                    "ON activities (userId, date, startTime)");
+        }
+    };
+    
+    /**
+     * Version 3 : table daily_nutrition maintenue par triggers sur food_logs
+     */
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS daily_nutrition (" +
+                    "userId TEXT NOT NULL, date TEXT NOT NULL, " +
+                    "calories REAL NOT NULL, protein REAL NOT NULL, carbs REAL NOT NULL, " +
+                    "fat REAL NOT NULL, itemCount INTEGER NOT NULL, " +
+                    "PRIMARY KEY(userId, date), " +
+                    "FOREIGN KEY(userId) REFERENCES users(userId) ON UPDATE NO ACTION ON DELETE CASCADE)");
+            
+            DatabaseTriggers.rebuildNutritionTotals(database);
+            DatabaseTriggers.createNutritionTriggers(database);
+        }
+    };
+    
+    /**
+     * Version 4 : colonne epochDay (jours depuis 1970-01-01) pour les requêtes par plage.
+     * Comparer des entiers est plus rapide que comparer des chaînes "yyyy-MM-dd",
+     * et l'index (userId, epochDay) est plus compact.
+     */
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            for (String table : new String[] {"health_data", "food_logs", "activities"}) {
+                database.execSQL("ALTER TABLE " + table +
+                        " ADD COLUMN epochDay INTEGER NOT NULL DEFAULT 0");
+                // julianday('1970-01-01') = 2440587.5 ; NULL si la date est invalide
+                database.execSQL("UPDATE " + table + " SET epochDay = " +
+                        "COALESCE(CAST(julianday(date) - 2440587.5 AS INTEGER), 0)");
+                database.execSQL("CREATE INDEX IF NOT EXISTS index_" + table + "_userId_epochDay " +
+                        "ON " + table + " (userId, epochDay)");
+            }
+        }
+    };
+    
+    /**
+     * Version 5 : triggers daily_nutrition corrigés (INSERT OR REPLACE sur food_logs
+     * remettait les totaux du jour à zéro) puis recalcul des totaux
+     */
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            DatabaseTriggers.createNutritionTriggers(database);
+            DatabaseTriggers.rebuildNutritionTotals(database);
+        }
+    };
+    
+    /**
+     * Version 6 : agrégats hebdomadaires et mensuels (health_week, health_month)
+     * maintenus par triggers sur health_data et activities
+     */
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            for (String table : new String[] {"health_week", "health_month"}) {
+                database.execSQL("CREATE TABLE IF NOT EXISTS " + table + " (" +
+                        "userId TEXT NOT NULL, bucketStart INTEGER NOT NULL, bucketEnd INTEGER NOT NULL, " +
+                        "dayCount INTEGER NOT NULL, stepsSum INTEGER NOT NULL, " +
+                        "stepsMin INTEGER, stepsMax INTEGER, sleepSum REAL NOT NULL, " +
+                        "sleepMin REAL, sleepMax REAL, activityCount INTEGER NOT NULL, " +
+                        "activityCaloriesSum INTEGER NOT NULL, activityMinutesSum INTEGER NOT NULL, " +
+                        "PRIMARY KEY(userId, bucketStart), " +
+                        "FOREIGN KEY(userId) REFERENCES users(userId) ON UPDATE NO ACTION ON DELETE CASCADE)");
+            }
+            
+            DatabaseTriggers.rebuildRollups(database);
+            DatabaseTriggers.createRollupTriggers(database);
+        }
+    };
+    
+    /**
+     * Version 7 : curseurs de synchronisation Google Fit (sync_cursors).
+     * Sans curseur, la première synchronisation relit les derniers jours en entier.
+     */
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS sync_cursors (" +
+                    "userId TEXT NOT NULL, metric TEXT NOT NULL, " +
+                    "syncedUntil INTEGER NOT NULL, updatedAt INTEGER NOT NULL, " +
+                    "PRIMARY KEY(userId, metric), " +
+                    "FOREIGN KEY(userId) REFERENCES users(userId) ON UPDATE NO ACTION ON DELETE CASCADE)");
+        }
+    };
+    
+    /**
+     * Version 8 : mesures intrajournalières au pas de 15 minutes (intraday_samples)
+     */
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS intraday_samples (" +
+                    "userId TEXT NOT NULL, metric INTEGER NOT NULL, epochMinute INTEGER NOT NULL, " +
+                    "value REAL NOT NULL, " +
+                    "PRIMARY KEY(userId, metric, epochMinute), " +
+                    "FOREIGN KEY(userId) REFERENCES users(userId) ON UPDATE NO ACTION ON DELETE CASCADE)");
+        }
+    };
+    
+    /**
+     * Version 9 : archives compactes des jours fermés (intraday_archive, voir IntradayCodec)
+     */
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS intraday_archive (" +
+                    "userId TEXT NOT NULL, metric INTEGER NOT NULL, epochDay INTEGER NOT NULL, " +
+                    "sampleCount INTEGER NOT NULL, data BLOB NOT NULL, " +
+                    "PRIMARY KEY(userId, metric, epochDay), " +
+                    "FOREIGN KEY(userId) REFERENCES users(userId) ON UPDATE NO ACTION ON DELETE CASCADE)");
+        }
+    };
+    
+    /**
+     * Version 10 : cache local des produits OpenFoodFacts (product_cache)
+     */
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS product_cache (" +
+                    "barcode TEXT NOT NULL, found INTEGER NOT NULL, name TEXT, brand TEXT, " +
+                    "imageUrl TEXT, calories INTEGER NOT NULL, protein REAL NOT NULL, " +
+                    "carbs REAL NOT NULL, fat REAL NOT NULL, fetchedAt INTEGER NOT NULL, " +
+                    "PRIMARY KEY(barcode))");
         }
     };
     
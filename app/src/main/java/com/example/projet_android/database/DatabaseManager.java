@@ -5,35 +5,69 @@ import android.content.Context;
 import android.util.Log;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
+import androidx.paging.PagingData;
 
 import com.example.projet_android.database.repositories.ActivityRepository;
 import com.example.projet_android.database.repositories.FoodLogRepository;
 import com.example.projet_android.database.repositories.HealthDataRepository;
+import com.example.projet_android.database.repositories.IntradayRepository;
+import com.example.projet_android.database.repositories.MonthSummaryRepository;
+import com.example.projet_android.database.repositories.ProductCacheRepository;
+import com.example.projet_android.database.repositories.SyncCursorRepository;
+import com.example.projet_android.database.repositories.TimelineRepository;
 import com.example.projet_android.database.repositories.UserRepository;
 import com.example.projet_android.database.entities.Activity;
+import com.example.projet_android.database.entities.CachedProduct;
+import com.example.projet_android.database.entities.DailyDashboard;
+import com.example.projet_android.database.entities.DailyValue;
 import com.example.projet_android.database.entities.FoodLog;
 import com.example.projet_android.database.entities.HealthData;
+import com.example.projet_android.database.entities.IntradayBucket;
+import com.example.projet_android.database.entities.IntradaySample;
+import com.example.projet_android.database.entities.NutritionTotals;
+import com.example.projet_android.database.entities.TimelineEntry;
 import com.example.projet_android.database.entities.User;
+import com.example.projet_android.models.FitnessDelta;
+import com.example.projet_android.models.MonthSummary;
+import com.example.projet_android.utils.DayKeys;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.YearMonth;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class DatabaseManager {
     
+    // Au-delà, la maintenance (archivage, purge) attend la synchronisation suivante
+    private static final int MAINTENANCE_MAX_PENDING_WRITES = 128;
+    
     private static DatabaseManager instance;
     private UserRepository userRepository;
     private HealthDataRepository healthDataRepository;
     private FoodLogRepository foodLogRepository;
     private ActivityRepository activityRepository;
-    private SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
+    private SyncCursorRepository syncCursorRepository;
+    private IntradayRepository intradayRepository;
+    private ProductCacheRepository productCacheRepository;
+    private TimelineRepository timelineRepository;
+    private MonthSummaryRepository monthSummaryRepository;
+    private DatabaseWriteQueue writeQueue;
     
     private DatabaseManager(Application application) {
+        DayKeys.init(application);
         userRepository = new UserRepository(application);
+        userRepository.warmKnownUsers();
         healthDataRepository = new HealthDataRepository(application);
         foodLogRepository = new FoodLogRepository(application);
         activityRepository = new ActivityRepository(application);
+        syncCursorRepository = new SyncCursorRepository(application);
+        intradayRepository = new IntradayRepository(application);
+        productCacheRepository = new ProductCacheRepository(application);
+        timelineRepository = new TimelineRepository(application);
+        monthSummaryRepository = new MonthSummaryRepository(application);
+        writeQueue = DatabaseWriteQueue.getInstance(application);
     }
     
     public static synchronized DatabaseManager getInstance(Application application) {
@@ -88,6 +122,7 @@ public class DatabaseManager {
     // ================== HEALTH DATA METHODS ==================
     
     public void insertHealthData(HealthData healthData) {
+        monthSummaryRepository.markDirty(healthData.date);
         healthDataRepository.insertHealthData(healthData);
     }
     
@@ -100,31 +135,177 @@ public class DatabaseManager {
     }
     
     public LiveData<HealthData> getTodaysHealthData(String userId) {
-        String today = dateFormat.format(new Date());
+        String today = DayKeys.today();
         return healthDataRepository.getHealthDataForDate(userId, today);
     }
+    
+    /**
+     * Ligne du jour, lue après les écritures déjà en file (hors du thread principal)
+     */
+    public CompletableFuture<HealthData> loadTodaysHealthData(String userId) {
+        String today = DayKeys.today();
+        return writeQueue.submit(() -> { })
+                .thenApplyAsync(done -> healthDataRepository.getHealthDataForDateSync(userId, today),
+                        AppDatabase.databaseWriteExecutor);
+    }
+    
+    /**
+     * Valeurs quotidiennes d'une métrique (DailyValue.METRIC_*) sur [startDay, endDay],
+     * triées par jour. À appeler hors du thread principal.
+     */
+    public List<DailyValue> getDailySeriesSync(String userId, int metric, long startDay, long endDay) {
+        return healthDataRepository.getDailySeriesSync(userId, metric, startDay, endDay);
+    }
+    
+    /**
+     * Premier jour enregistré (epochDay), null si aucune donnée
+     */
+    public Long getFirstEpochDaySync(String userId) {
+        return healthDataRepository.getFirstEpochDaySync(userId);
+    }
+    
+    public LiveData<DailyDashboard> getTodaysDashboard(String userId) {
+        String today = DayKeys.today();
+        return healthDataRepository.getDailyDashboard(userId, today);
+    }
+    
+    public LiveData<DailyDashboard> getDailyDashboard(String userId, String date) {
+        return healthDataRepository.getDailyDashboard(userId, date);
+    }
+    
+    /**
+     * Tableau de bord du jour en lecture synchrone (thread de fond uniquement).
+     * Utilisé au démarrage pour ouvrir la base et charger ses pages avant l'écran principal.
+     */
+    public DailyDashboard getTodaysDashboardSync(String userId) {
+        return healthDataRepository.getDailyDashboardSync(userId, DayKeys.today());
+    }
       public void updateTodaysSteps(String userId, int steps, int calories, float distance) {
-        String today = dateFormat.format(new Date());
+        String today = DayKeys.today();
         // S'assurer que l'utilisateur existe avant d'insérer des données
-        ensureUserExists(userId);
-        healthDataRepository.createOrUpdateTodaysData(userId, steps, calories, distance);
+        runWithUser(userId, () -> healthDataRepository.createOrUpdateTodaysData(userId, steps, calories, distance));
+    }
+    
+    // ================== CALENDAR METHODS ==================
+    
+    /**
+     * Repas, activités et résumé d'une journée, paginés (écran calendrier)
+     */
+    public LiveData<PagingData<TimelineEntry>> getDayTimeline(String userId, String date) {
+        return timelineRepository.getDayTimeline(userId, date);
+    }
+    
+    /**
+     * Résumé mensuel déjà en cache, null sinon (lecture instantanée, thread principal)
+     */
+    public MonthSummary getCachedMonthSummary(String userId, YearMonth month) {
+        return monthSummaryRepository.getCached(userId, month);
+    }
+    
+    /**
+     * Résumé mensuel, lu en une requête hors du thread principal s'il n'est pas en cache
+     */
+    public CompletableFuture<MonthSummary> loadMonthSummary(String userId, YearMonth month) {
+        return monthSummaryRepository.load(userId, month);
+    }
+    
+    /**
+     * Mois dont le résumé en cache est périmé (écriture dans health_data), thread principal
+     */
+    public LiveData<Set<YearMonth>> getMonthSummaryInvalidations() {
+        return monthSummaryRepository.getInvalidations();
+    }
+    
+    /**
+     * Version du résumé du mois : un résultat de loadMonthSummary() obtenu sous une
+     * version antérieure est périmé
+     */
+    public int getMonthSummaryGeneration(YearMonth month) {
+        return monthSummaryRepository.getGeneration(month);
+    }
+    
+    // ================== INTRADAY METHODS ==================
+    
+    /**
+     * Courbe d'une journée en créneaux de bucketMinutes (60 : graphique horaire).
+     * metric : IntradaySample.METRIC_*
+     */
+    public LiveData<List<IntradayBucket>> getIntradayBuckets(String userId, int metric, String date,
+                                                             int bucketMinutes) {
+        return intradayRepository.getDownsampledForDate(userId, metric, date, bucketMinutes);
+    }
+    
+    public List<IntradaySample> getIntradaySamplesSync(String userId, int metric, String date) {
+        return intradayRepository.getSamplesForDateSync(userId, metric, date);
+    }
+    
+    /**
+     * Archive les mesures intrajournalières des jours fermés (voir IntradayRepository).
+     * Différé si la file d'écriture est encombrée.
+     */
+    public void archiveIntradaySamples(String userId) {
+        if (isWriteQueueBusy()) {
+            Log.d("DatabaseManager", "File d'écriture encombrée, archivage différé");
+            return;
+        }
+        intradayRepository.archiveClosedDays(userId);
+    }
+    
+    // ================== SYNC CURSOR METHODS ==================
+    
+    /**
+     * Curseurs de synchronisation Google Fit (à appeler hors du thread principal)
+     */
+    public Map<String, Long> getSyncCursorsSync(String userId) {
+        return syncCursorRepository.getCursorsSync(userId);
+    }
+    
+    /**
+     * Fusionne une synchronisation Google Fit en une seule transaction : les intervalles lus
+     * (dans l'ordre chronologique), l'avancée de leurs curseurs, les mesures intrajournalières
+     * et les mesures du jour.
+     * heartRate <= 0 ou sleepHours < 0 : valeur existante conservée.
+     * La future retourne la ligne du jour après écriture.
+     */
+    public CompletableFuture<HealthData> applyFitnessSync(String userId, List<FitnessDelta> deltas,
+                                                          List<IntradaySample> samples,
+                                                          int heartRate, float sleepHours) {
+        String today = DayKeys.today();
+        HealthData[] todaysData = new HealthData[1];
+        // Jours rattrapés : leurs mois du calendrier sont invalidés avec le mois courant
+        for (FitnessDelta delta : deltas) {
+            monthSummaryRepository.markDirty(delta.getDate());
+        }
+        return writeQueue.submit(() -> {
+            userRepository.ensureUserExistsSync(userId);
+            intradayRepository.insertSamples(samples);
+            for (FitnessDelta delta : deltas) {
+                if (delta.isWholeDay()) {
+                    healthDataRepository.updateActivityData(userId, delta.getDate(), delta.getSteps(),
+                            delta.getCalories(), delta.getDistanceKm());
+                } else {
+                    healthDataRepository.addActivityDelta(userId, delta.getDate(), delta.getSteps(),
+                            delta.getCalories(), delta.getDistanceKm());
+                }
+                syncCursorRepository.advanceCursors(userId, delta.getMetrics(), delta.getSyncedUntil());
+            }
+            healthDataRepository.updateVitals(userId, today, heartRate, sleepHours);
+            todaysData[0] = healthDataRepository.getHealthDataForDateSync(userId, today);
+        }).thenApply(done -> todaysData[0]);
     }
       public void updateTodaysSleep(String userId, float sleepHours) {
-        String today = dateFormat.format(new Date());
-        ensureUserExists(userId);
-        healthDataRepository.updateSleepData(userId, today, sleepHours);
+        String today = DayKeys.today();
+        runWithUser(userId, () -> healthDataRepository.updateSleepData(userId, today, sleepHours));
     }
     
     public void updateTodaysWater(String userId, int waterGlasses) {
-        String today = dateFormat.format(new Date());
-        ensureUserExists(userId);
-        healthDataRepository.updateWaterIntake(userId, today, waterGlasses);
+        String today = DayKeys.today();
+        runWithUser(userId, () -> healthDataRepository.updateWaterIntake(userId, today, waterGlasses));
     }
     
     public void updateTodaysHeartRate(String userId, int heartRate) {
-        String today = dateFormat.format(new Date());
-        ensureUserExists(userId);
-        healthDataRepository.updateHeartRate(userId, today, heartRate);
+        String today = DayKeys.today();
+        runWithUser(userId, () -> healthDataRepository.updateHeartRate(userId, today, heartRate));
     }
     
     public LiveData<List<HealthData>> getRecentHealthData(String userId, int days) {
@@ -142,43 +323,83 @@ public class DatabaseManager {
     }
     
     public LiveData<List<FoodLog>> getTodaysFoodLogs(String userId) {
-        String today = dateFormat.format(new Date());
+        String today = DayKeys.today();
         return foodLogRepository.getFoodLogsForDate(userId, today);
     }
       public void addFoodItem(String userId, String foodName, String mealType, 
                            int calories, float protein, float carbs, float fat, float quantity) {
-        String today = dateFormat.format(new Date());
-        ensureUserExists(userId);
-        foodLogRepository.addFoodItem(userId, today, foodName, mealType, calories, protein, carbs, fat, quantity);
+        String today = DayKeys.today();
+        runWithUser(userId, () -> foodLogRepository.addFoodItem(userId, today, foodName, mealType, calories, protein, carbs, fat, quantity));
     }
     
     public void addScannedFood(String userId, String foodName, String brand, String barcode, 
                               String imageUrl, String mealType, int calories, float protein, 
                               float carbs, float fat, float quantity) {
-        String today = dateFormat.format(new Date());
-        ensureUserExists(userId);
-        foodLogRepository.addScannedFood(userId, today, foodName, brand, barcode, imageUrl, 
-                                       mealType, calories, protein, carbs, fat, quantity);
+        String today = DayKeys.today();
+        runWithUser(userId, () -> foodLogRepository.addScannedFood(userId, today, foodName, brand, barcode,
+                imageUrl, mealType, calories, protein, carbs, fat, quantity));
+    }
+    
+    public LiveData<NutritionTotals> getTodaysNutritionTotals(String userId) {
+        String today = DayKeys.today();
+        return foodLogRepository.getNutritionTotalsForDate(userId, today);
+    }
+    
+    public LiveData<NutritionTotals> getNutritionTotalsForDate(String userId, String date) {
+        return foodLogRepository.getNutritionTotalsForDate(userId, date);
     }
     
     public LiveData<Float> getTodaysTotalCalories(String userId) {
-        String today = dateFormat.format(new Date());
-        return foodLogRepository.getTotalCaloriesForDate(userId, today);
+        return Transformations.map(getTodaysNutritionTotals(userId),
+                totals -> totals != null ? totals.calories : 0f);
     }
     
     public LiveData<Float> getTodaysTotalProtein(String userId) {
-        String today = dateFormat.format(new Date());
-        return foodLogRepository.getTotalProteinForDate(userId, today);
+        return Transformations.map(getTodaysNutritionTotals(userId),
+                totals -> totals != null ? totals.protein : 0f);
     }
     
     public LiveData<Float> getTodaysTotalCarbs(String userId) {
-        String today = dateFormat.format(new Date());
-        return foodLogRepository.getTotalCarbsForDate(userId, today);
+        return Transformations.map(getTodaysNutritionTotals(userId),
+                totals -> totals != null ? totals.carbs : 0f);
     }
     
     public LiveData<Float> getTodaysTotalFat(String userId) {
-        String today = dateFormat.format(new Date());
-        return foodLogRepository.getTotalFatForDate(userId, today);
+        return Transformations.map(getTodaysNutritionTotals(userId),
+                totals -> totals != null ? totals.fat : 0f);
+    }
+    
+    // Dernier aliment consommé avec ce code-barres (hors du thread principal)
+    public FoodLog getLastFoodByBarcodeSync(String userId, String barcode) {
+        return foodLogRepository.getLastFoodByBarcode(userId, barcode);
+    }
+    
+    // ================== PRODUCT CACHE METHODS ==================
+    
+    /**
+     * Produit en cache, frais ou périmé (voir ProductCacheRepository.isFresh),
+     * null s'il faut interroger OpenFoodFacts. Hors du thread principal.
+     */
+    public CachedProduct getCachedProductSync(String barcode) {
+        return productCacheRepository.getProductSync(barcode);
+    }
+    
+    public void cacheProduct(CachedProduct product) {
+        productCacheRepository.putProduct(product);
+    }
+    
+    public void cacheProductNotFound(String barcode) {
+        productCacheRepository.putNotFound(barcode);
+    }
+    
+    public void pruneProductCache() {
+        if (!isWriteQueueBusy()) {
+            productCacheRepository.pruneExpired();
+        }
+    }
+    
+    private boolean isWriteQueueBusy() {
+        return writeQueue.getPendingCount() > MAINTENANCE_MAX_PENDING_WRITES;
     }
     
     // ================== ACTIVITY METHODS ==================
@@ -196,59 +417,50 @@ public class DatabaseManager {
     }
     
     public LiveData<List<Activity>> getTodaysActivities(String userId) {
-        String today = dateFormat.format(new Date());
+        String today = DayKeys.today();
         return activityRepository.getActivitiesForDate(userId, today);
     }
       public void addActivity(String userId, String activityType, String description,
                            int duration, int caloriesBurned, float distance, int averageHeartRate) {
-        String today = dateFormat.format(new Date());
-        ensureUserExists(userId);
-        activityRepository.addActivity(userId, today, activityType, description, 
-                                     duration, caloriesBurned, distance, averageHeartRate);
+        String today = DayKeys.today();
+        runWithUser(userId, () -> activityRepository.addActivity(userId, today, activityType, description,
+                duration, caloriesBurned, distance, averageHeartRate));
     }
     
     public LiveData<Integer> getTodaysTotalCaloriesBurned(String userId) {
-        String today = dateFormat.format(new Date());
+        String today = DayKeys.today();
         return activityRepository.getTotalCaloriesBurnedForDate(userId, today);
     }
     
     public LiveData<Integer> getTodaysTotalDuration(String userId) {
-        String today = dateFormat.format(new Date());
+        String today = DayKeys.today();
         return activityRepository.getTotalDurationForDate(userId, today);
     }
     
     public LiveData<Float> getTodaysTotalDistance(String userId) {
-        String today = dateFormat.format(new Date());
+        String today = DayKeys.today();
         return activityRepository.getTotalDistanceForDate(userId, today);
     }
     
     // ================== UTILITY METHODS ==================
     
     public String getTodayDate() {
-        return dateFormat.format(new Date());
+        return DayKeys.today();
     }
     
     public void syncNutritionData(String userId) {
         // Méthode pour synchroniser les données nutritionnelles avec les health data
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        // (lecture et écriture dans la même transaction de la file d'écriture)
+        runWithUser(userId, () -> {
             String today = getTodayDate();
-            List<FoodLog> todaysFoods = foodLogRepository.getFoodLogsForDateSync(userId, today);
-            
-            float totalCalories = 0;
-            float totalProtein = 0;
-            float totalCarbs = 0;
-            float totalFat = 0;
-            
-            for (FoodLog food : todaysFoods) {
-                float multiplier = food.quantity / 100f; // Les valeurs sont pour 100g
-                totalCalories += food.calories * multiplier;
-                totalProtein += food.protein * multiplier;
-                totalCarbs += food.carbs * multiplier;
-                totalFat += food.fat * multiplier;
+            NutritionTotals totals = foodLogRepository.getNutritionTotalsForDateSync(userId, today);
+            if (totals == null) {
+                totals = new NutritionTotals();
             }
-              healthDataRepository.updateNutritionData(userId, today, (int) totalCalories, 
-                                                   totalProtein, totalCarbs, totalFat);
-        });    }
+            healthDataRepository.updateNutritionData(userId, today, (int) totals.calories,
+                                                   totals.protein, totals.carbs, totals.fat);
+        });
+    }
     
     // ================== UTILITY METHODS ==================
     
@@ -256,29 +468,40 @@ public class DatabaseManager {
      * Ensure that a user exists in the database before inserting related data
      */
     public void ensureUserExists(String userId) {
-        if (userId == null || userId.isEmpty()) {
+        if (userId == null || userId.isEmpty() || userRepository.isKnownUser(userId)) {
             return;
         }
-          // Quick cache verification if possible
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
             try {
-                User existingUser = userRepository.getUserSync(userId);
-                if (existingUser == null) {
-                    // Create a basic user
-                    User newUser = new User();
-                    newUser.userId = userId;
-                    newUser.email = ""; // Will be updated later
-                    newUser.displayName = "User"; // Default name
-                    newUser.authProvider = "demo";
-                    
-                    userRepository.insertUser(newUser);
-                    Log.d("DatabaseManager", "User created: " + userId);
-                }            } catch (Exception e) {
+                userRepository.ensureUserExistsSync(userId);
+            } catch (Exception e) {
                 Log.e("DatabaseManager", "Error creating user: " + e.getMessage());
             }
         });
     }
     
+    /**
+     * Exécute une écriture dépendante de l'utilisateur : la création éventuelle de
+     * l'utilisateur et l'écriture sont validées dans la même transaction
+     */
+    private void runWithUser(String userId, Runnable write) {
+        if (userId == null || userId.isEmpty()) {
+            write.run();
+            return;
+        }
+        writeQueue.execute(() -> {
+            userRepository.ensureUserExistsSync(userId);
+            write.run();
+        });
+    }
+    
+    /**
+     * A appeler à la déconnexion pour ne pas garder l'utilisateur en cache
+     */
+    public void onUserLoggedOut(String userId) {
+        userRepository.forgetKnownUser(userId);
+    }
+    
     /**
      * Check if a user exists in the database
      */
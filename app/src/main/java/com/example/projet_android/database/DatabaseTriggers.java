@@ -0,0 +1,187 @@
+package com.example.projet_android.database;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Triggers SQLite qui maintiennent les tables d'agrégats.
+ * Créés à la création de la base (AppDatabase) et dans les migrations.
+ */
+public final class DatabaseTriggers {
+    
+    private DatabaseTriggers() {
+    }
+    
+    // ================== TOTAUX NUTRITIONNELS (daily_nutrition) ==================
+    
+    // Pas de clause OR IGNORE/OR REPLACE dans les triggers : SQLite la remplace par celle
+    // de l'instruction qui déclenche le trigger (Room insère en INSERT OR REPLACE)
+    private static final String ADD_NEW_FOOD =
+            "INSERT INTO daily_nutrition (userId, date, calories, protein, carbs, fat, itemCount) " +
+            "SELECT NEW.userId, NEW.date, 0, 0, 0, 0, 0 WHERE NEW.date IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM daily_nutrition WHERE userId = NEW.userId AND date = NEW.date); " +
+            "UPDATE daily_nutrition SET " +
+            "calories = calories + NEW.calories * NEW.quantity / 100.0, " +
+            "protein = protein + NEW.protein * NEW.quantity / 100.0, " +
+            "carbs = carbs + NEW.carbs * NEW.quantity / 100.0, " +
+            "fat = fat + NEW.fat * NEW.quantity / 100.0, " +
+            "itemCount = itemCount + 1 " +
+            "WHERE userId = NEW.userId AND date = NEW.date; ";
+    
+    // La ligne est supprimée quand le dernier aliment du jour disparaît,
+    // ce qui évite d'accumuler des erreurs d'arrondi
+    private static final String REMOVE_OLD_FOOD =
+            "UPDATE daily_nutrition SET " +
+            "calories = calories - OLD.calories * OLD.quantity / 100.0, " +
+            "protein = protein - OLD.protein * OLD.quantity / 100.0, " +
+            "carbs = carbs - OLD.carbs * OLD.quantity / 100.0, " +
+            "fat = fat - OLD.fat * OLD.quantity / 100.0, " +
+            "itemCount = itemCount - 1 " +
+            "WHERE userId = OLD.userId AND date = OLD.date; " +
+            "DELETE FROM daily_nutrition " +
+            "WHERE userId = OLD.userId AND date = OLD.date AND itemCount <= 0; ";
+    
+    // INSERT OR REPLACE d'un aliment existant : la suppression implicite ne déclenche
+    // pas le trigger DELETE (recursive_triggers désactivé), on retire donc l'ancienne ligne ici
+    private static final String REMOVE_REPLACED_FOOD =
+            "UPDATE daily_nutrition SET " +
+            "calories = calories - (SELECT calories * quantity / 100.0 FROM food_logs WHERE id = NEW.id), " +
+            "protein = protein - (SELECT protein * quantity / 100.0 FROM food_logs WHERE id = NEW.id), " +
+            "carbs = carbs - (SELECT carbs * quantity / 100.0 FROM food_logs WHERE id = NEW.id), " +
+            "fat = fat - (SELECT fat * quantity / 100.0 FROM food_logs WHERE id = NEW.id), " +
+            "itemCount = itemCount - 1 " +
+            "WHERE userId = (SELECT userId FROM food_logs WHERE id = NEW.id) " +
+            "AND date = (SELECT date FROM food_logs WHERE id = NEW.id); " +
+            "DELETE FROM daily_nutrition WHERE itemCount <= 0 " +
+            "AND userId = (SELECT userId FROM food_logs WHERE id = NEW.id); ";
+    
+    /**
+     * Recalcule complètement daily_nutrition à partir de food_logs
+     */
+    public static void rebuildNutritionTotals(SupportSQLiteDatabase db) {
+        db.execSQL("DELETE FROM daily_nutrition");
+        db.execSQL("INSERT INTO daily_nutrition (userId, date, calories, protein, carbs, fat, itemCount) " +
+                "SELECT userId, date, " +
+                "SUM(calories * quantity / 100.0), SUM(protein * quantity / 100.0), " +
+                "SUM(carbs * quantity / 100.0), SUM(fat * quantity / 100.0), COUNT(*) " +
+                "FROM food_logs WHERE date IS NOT NULL GROUP BY userId, date");
+    }
+    
+    /**
+     * (Re)crée les triggers de daily_nutrition ; remplace une éventuelle version précédente
+     */
+    public static void createNutritionTriggers(SupportSQLiteDatabase db) {
+        db.execSQL("DROP TRIGGER IF EXISTS food_logs_nutrition_replace");
+        db.execSQL("DROP TRIGGER IF EXISTS food_logs_nutrition_insert");
+        db.execSQL("DROP TRIGGER IF EXISTS food_logs_nutrition_delete");
+        db.execSQL("DROP TRIGGER IF EXISTS food_logs_nutrition_update");
+        
+        db.execSQL("CREATE TRIGGER food_logs_nutrition_replace " +
+                "BEFORE INSERT ON food_logs " +
+                "WHEN EXISTS (SELECT 1 FROM food_logs WHERE id = NEW.id) " +
+                "BEGIN " + REMOVE_REPLACED_FOOD + "END");
+        
+        db.execSQL("CREATE TRIGGER food_logs_nutrition_insert " +
+                "AFTER INSERT ON food_logs BEGIN " + ADD_NEW_FOOD + "END");
+        
+        db.execSQL("CREATE TRIGGER food_logs_nutrition_delete " +
+                "AFTER DELETE ON food_logs BEGIN " + REMOVE_OLD_FOOD + "END");
+        
+        db.execSQL("CREATE TRIGGER food_logs_nutrition_update " +
+                "AFTER UPDATE OF userId, date, calories, protein, carbs, fat, quantity ON food_logs " +
+                "BEGIN " + REMOVE_OLD_FOOD + ADD_NEW_FOOD + "END");
+    }
+    
+    // ================== AGRÉGATS HEBDOMADAIRES / MENSUELS (health_week, health_month) ==================
+    
+    // Premier et dernier jour de la semaine (lundi-dimanche) / du mois contenant un epochDay.
+    // julianday('1970-01-01') = 2440587.5 et le 1970-01-01 était un jeudi.
+    private static String weekStart(String day) {
+        return "(" + day + " - ((" + day + " + 3) % 7))";
+    }
+    
+    private static String weekEnd(String day) {
+        return "(" + weekStart(day) + " + 6)";
+    }
+    
+    private static String monthStart(String day) {
+        return "CAST(julianday(date(" + day + " + 2440587.5, 'start of month')) - 2440587.5 AS INTEGER)";
+    }
+    
+    private static String monthEnd(String day) {
+        return "CAST(julianday(date(" + day + " + 2440587.5, 'start of month', '+1 month', '-1 day')) " +
+                "- 2440587.5 AS INTEGER)";
+    }
+    
+    /**
+     * Insère les agrégats des périodes listées par "keys" (colonnes u, bs, be) à partir
+     * des lignes health_data et activities. Une période contient au plus 31 jours,
+     * le coût ne dépend donc pas de la longueur de l'historique.
+     */
+    private static String insertBuckets(String table, String keys) {
+        return "INSERT INTO " + table + " (userId, bucketStart, bucketEnd, dayCount, stepsSum, stepsMin, " +
+                "stepsMax, sleepSum, sleepMin, sleepMax, activityCount, activityCaloriesSum, activityMinutesSum) " +
+                "SELECT k.u, k.bs, k.be, COUNT(h.id), COALESCE(SUM(h.steps), 0), MIN(h.steps), MAX(h.steps), " +
+                "COALESCE(SUM(h.sleepHours), 0), MIN(h.sleepHours), MAX(h.sleepHours), " +
+                "(SELECT COUNT(*) FROM activities WHERE userId = k.u AND epochDay BETWEEN k.bs AND k.be), " +
+                "(SELECT COALESCE(SUM(caloriesBurned), 0) FROM activities " +
+                "WHERE userId = k.u AND epochDay BETWEEN k.bs AND k.be), " +
+                "(SELECT COALESCE(SUM(duration), 0) FROM activities " +
+                "WHERE userId = k.u AND epochDay BETWEEN k.bs AND k.be) " +
+                "FROM (" + keys + ") AS k " +
+                "LEFT JOIN health_data AS h ON h.userId = k.u AND h.epochDay BETWEEN k.bs AND k.be " +
+                // Pendant la suppression en cascade d'un utilisateur, ne rien recréer
+                "WHERE EXISTS (SELECT 1 FROM users WHERE userId = k.u) " +
+                "GROUP BY k.u, k.bs, k.be " +
+                "HAVING COUNT(h.id) > 0 OR EXISTS (SELECT 1 FROM activities " +
+                "WHERE userId = k.u AND epochDay BETWEEN k.bs AND k.be)";
+    }
+    
+    // Recalcul de la semaine et du mois de la ligne NEW/OLD d'un trigger.
+    // Pas de OR REPLACE (voir ADD_NEW_FOOD) : suppression puis insertion.
+    private static String recomputeRow(String row) {
+        String day = row + ".epochDay";
+        return "DELETE FROM health_week WHERE userId = " + row + ".userId " +
+                "AND bucketStart = " + weekStart(day) + "; " +
+                insertBuckets("health_week", "SELECT " + row + ".userId AS u, " +
+                        weekStart(day) + " AS bs, " + weekEnd(day) + " AS be") + "; " +
+                "DELETE FROM health_month WHERE userId = " + row + ".userId " +
+                "AND bucketStart = " + monthStart(day) + "; " +
+                insertBuckets("health_month", "SELECT " + row + ".userId AS u, " +
+                        monthStart(day) + " AS bs, " + monthEnd(day) + " AS be") + "; ";
+    }
+    
+    /**
+     * Recalcule complètement health_week et health_month
+     */
+    public static void rebuildRollups(SupportSQLiteDatabase db) {
+        String days = "SELECT userId, epochDay FROM health_data " +
+                "UNION SELECT userId, epochDay FROM activities";
+        db.execSQL("DELETE FROM health_week");
+        db.execSQL(insertBuckets("health_week", "SELECT DISTINCT userId AS u, " +
+                weekStart("epochDay") + " AS bs, " + weekEnd("epochDay") + " AS be FROM (" + days + ")"));
+        db.execSQL("DELETE FROM health_month");
+        db.execSQL(insertBuckets("health_month", "SELECT DISTINCT userId AS u, " +
+                monthStart("epochDay") + " AS bs, " + monthEnd("epochDay") + " AS be FROM (" + days + ")"));
+    }
+    
+    public static void createRollupTriggers(SupportSQLiteDatabase db) {
+        // health_data : seules les colonnes agrégées déclenchent un recalcul
+        createRollupTriggers(db, "health_data", "userId, epochDay, steps, sleepHours");
+        createRollupTriggers(db, "activities", "userId, epochDay, caloriesBurned, duration");
+    }
+    
+    private static void createRollupTriggers(SupportSQLiteDatabase db, String table, String columns) {
+        db.execSQL("DROP TRIGGER IF EXISTS " + table + "_rollup_insert");
+        db.execSQL("DROP TRIGGER IF EXISTS " + table + "_rollup_delete");
+        db.execSQL("DROP TRIGGER IF EXISTS " + table + "_rollup_update");
+        
+        db.execSQL("CREATE TRIGGER " + table + "_rollup_insert AFTER INSERT ON " + table +
+                " BEGIN " + recomputeRow("NEW") + "END");
+        
+        db.execSQL("CREATE TRIGGER " + table + "_rollup_delete AFTER DELETE ON " + table +
+                " BEGIN " + recomputeRow("OLD") + "END");
+        
+        db.execSQL("CREATE TRIGGER " + table + "_rollup_update AFTER UPDATE OF " + columns +
+                " ON " + table + " BEGIN " + recomputeRow("OLD") + recomputeRow("NEW") + "END");
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.projet_android.database;
+
+import android.content.Context;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * File d'écriture unique pour la base de données.
+ * SQLite sérialise de toute façon les écritures : un seul thread écrivain regroupe
+ * les écritures arrivées dans une courte fenêtre et les valide dans une seule
+ * transaction (un seul fsync au lieu d'un par insertion).
+ * L'ordre FIFO est conservé, donc l'ordre des écritures d'un même utilisateur aussi.
+ */
+public class DatabaseWriteQueue implements Executor {
+    
+    private static final String TAG = "DatabaseWriteQueue";
+    
+    // Fenêtre de regroupement après la première écriture d'un lot
+    private static final long BATCH_WINDOW_MS = 15;
+    private static final int MAX_BATCH_SIZE = 64;
+    // Au-delà, execute() bloque l'appelant (contre-pression) ; depuis le thread
+    // principal, l'écriture est refusée au lieu de bloquer l'interface
+    private static final int QUEUE_CAPACITY = 512;
+    
+    private static volatile DatabaseWriteQueue INSTANCE;
+    
+    private final Context appContext;
+    private final BlockingQueue<WriteTask> pending = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writerThread;
+    
+    // Futures du lot en cours, accédées uniquement par le thread écrivain
+    private final List<CompletableFuture<Void>> currentBatchFutures = new ArrayList<>();
+    
+    private static class WriteTask {
+        final Runnable operation;
+        final CompletableFuture<Void> done;
+        
+        WriteTask(Runnable operation, CompletableFuture<Void> done) {
+            this.operation = operation;
+            this.done = done;
+        }
+    }
+    
+    public static DatabaseWriteQueue getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (DatabaseWriteQueue.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new DatabaseWriteQueue(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+    
+    private DatabaseWriteQueue(Context context) {
+        this.appContext = context.getApplicationContext();
+        this.writerThread = new Thread(this::drainLoop, "db-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+    
+    /**
+     * Ajoute une écriture à la file. Bloque si la file est pleine, sauf sur le thread
+     * principal : l'écriture est alors refusée (journalisée, future en échec).
+     * Appelée depuis le thread écrivain (écriture imbriquée), l'opération
+     * s'exécute immédiatement dans la transaction en cours.
+     */
+    @Override
+    public void execute(Runnable operation) {
+        enqueue(operation, null);
+    }
+    
+    /**
+     * Comme execute(), mais la future est complétée une fois la transaction validée.
+     */
+    public CompletableFuture<Void> submit(Runnable operation) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        enqueue(operation, done);
+        return done;
+    }
+    
+    /**
+     * Variante non bloquante : retourne false si la file est pleine.
+     * Pour les écritures facultatives (cache, maintenance).
+     */
+    public boolean tryExecute(Runnable operation) {
+        if (Thread.currentThread() == writerThread) {
+            operation.run();
+            return true;
+        }
+        return pending.offer(new WriteTask(operation, null));
+    }
+    
+    /**
+     * Nombre d'écritures en attente (pour surveiller la contre-pression)
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+    
+    /**
+     * Attend que toutes les écritures déjà soumises soient validées.
+     */
+    public boolean flush(long timeoutMs) {
+        try {
+            submit(() -> { }).get(timeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+    
+    private void enqueue(Runnable operation, CompletableFuture<Void> done) {
+        if (Thread.currentThread() == writerThread) {
+            operation.run();
+            if (done != null) {
+                currentBatchFutures.add(done);
+            }
+            return;
+        }
+        
+        WriteTask task = new WriteTask(operation, done);
+        if (Looper.getMainLooper().isCurrentThread()) {
+            if (!pending.offer(task)) {
+                Log.e(TAG, "File d'écriture pleine (" + QUEUE_CAPACITY + "), écriture refusée");
+                if (done != null) {
+                    done.completeExceptionally(new RejectedExecutionException("File d'écriture pleine"));
+                }
+            }
+            return;
+        }
+        try {
+            pending.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Log.w(TAG, "Écriture abandonnée (thread interrompu)");
+            if (done != null) {
+                done.completeExceptionally(e);
+            }
+        }
+    }
+    
+    private void drainLoop() {
+        List<WriteTask> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(pending.take());
+                
+                long deadline = SystemClock.uptimeMillis() + BATCH_WINDOW_MS;
+                while (batch.size() < MAX_BATCH_SIZE) {
+                    long remaining = deadline - SystemClock.uptimeMillis();
+                    WriteTask next = remaining > 0
+                            ? pending.poll(remaining, TimeUnit.MILLISECONDS)
+                            : pending.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                
+                runBatch(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Throwable t) {
+                Log.e(TAG, "Erreur inattendue du thread d'écriture: " + t.getMessage());
+                completeNested(t);
+                for (WriteTask task : batch) {
+                    complete(task, t);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void runBatch(List<WriteTask> batch) {
+        AppDatabase db = AppDatabase.getDatabase(appContext);
+        
+        try {
+            db.runInTransaction(() -> {
+                for (WriteTask task : batch) {
+                    task.operation.run();
+                }
+            });
+            completeNested(null);
+            for (WriteTask task : batch) {
+                complete(task, null);
+            }
+        } catch (RuntimeException batchError) {
+            // Le lot a été annulé : rejouer chaque écriture dans sa propre transaction
+            // pour qu'une écriture invalide ne fasse pas perdre les autres
+            Log.w(TAG, "Lot de " + batch.size() + " écritures annulé: " + batchError.getMessage());
+            // Les écritures imbriquées du lot annulé ne sont pas rejouées telles quelles :
+            // leurs futures échouent (le rejeu en crée de nouvelles)
+            completeNested(batchError);
+            
+            for (WriteTask task : batch) {
+                try {
+                    db.runInTransaction(task.operation);
+                    completeNested(null);
+                    complete(task, null);
+                } catch (RuntimeException taskError) {
+                    Log.e(TAG, "Écriture échouée: " + taskError.getMessage());
+                    completeNested(taskError);
+                    complete(task, taskError);
+                }
+            }
+        }
+    }
+    
+    private void completeNested(Throwable error) {
+        for (CompletableFuture<Void> future : currentBatchFutures) {
+            if (error == null) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(error);
+            }
+        }
+        currentBatchFutures.clear();
+    }
+    
+    private static void complete(WriteTask task, Throwable error) {
+        if (task.done == null) {
+            return;
+        }
+        if (error == null) {
+            task.done.complete(null);
+        } else {
+            task.done.completeExceptionally(error);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.projet_android.database;
+
+import com.example.projet_android.database.entities.IntradaySample;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+/**
+ * Encodage compact des mesures intrajournalières archivées (une journée d'une métrique).
+ * Format en colonnes, entiers en varint (7 bits par octet) :
+ *   version, nombre d'échantillons, échelle, taille de la colonne des minutes,
+ *   colonne des minutes : première minute puis écarts avec la précédente,
+ *   colonne des valeurs : écarts (zigzag) des valeurs en virgule fixe (valeur * échelle).
+ * Au pas de 15 minutes, un échantillon tient en 2 à 4 octets au lieu d'une ligne SQLite.
+ */
+public final class IntradayCodec {
+    
+    static final int VERSION = 1;
+    
+    private IntradayCodec() {
+    }
+    
+    /**
+     * Précision conservée à l'archivage : pas entiers, centième de kcal, dixième de BPM
+     */
+    public static int scaleFor(int metric) {
+        switch (metric) {
+            case IntradaySample.METRIC_CALORIES:
+                return 100;
+            case IntradaySample.METRIC_HEART_RATE:
+                return 10;
+            default:
+                return 1;
+        }
+    }
+    
+    /**
+     * minutes doit être trié par ordre croissant, sans doublon
+     */
+    public static byte[] encode(long[] minutes, float[] values, int count, int scale) {
+        if (count == 0) {
+            throw new IllegalArgumentException("Aucun échantillon à encoder");
+        }
+        
+        ByteArrayOutputStream minuteColumn = new ByteArrayOutputStream(count * 2);
+        ByteArrayOutputStream valueColumn = new ByteArrayOutputStream(count * 2);
+        long previousMinute = 0;
+        long previousValue = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && minutes[i] <= previousMinute) {
+                throw new IllegalArgumentException("Minutes non triées à l'index " + i);
+            }
+            writeVarint(minuteColumn, minutes[i] - previousMinute);
+            previousMinute = minutes[i];
+            
+            long fixed = Math.round((double) values[i] * scale);
+            writeVarint(valueColumn, zigzag(fixed - previousValue));
+            previousValue = fixed;
+        }
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + minuteColumn.size() + valueColumn.size());
+        writeVarint(out, VERSION);
+        writeVarint(out, count);
+        writeVarint(out, scale);
+        writeVarint(out, minuteColumn.size());
+        out.write(minuteColumn.toByteArray(), 0, minuteColumn.size());
+        out.write(valueColumn.toByteArray(), 0, valueColumn.size());
+        return out.toByteArray();
+    }
+    
+    public static byte[] encode(List<IntradaySample> samples, int scale) {
+        int count = samples.size();
+        long[] minutes = new long[count];
+        float[] values = new float[count];
+        for (int i = 0; i < count; i++) {
+            minutes[i] = samples.get(i).epochMinute;
+            values[i] = samples.get(i).value;
+        }
+        return encode(minutes, values, count, scale);
+    }
+    
+    /**
+     * Lecture en flux : les échantillons sont décodés un par un, sans tableau intermédiaire
+     */
+    public static Reader reader(byte[] blob) {
+        return new Reader(blob);
+    }
+    
+    public static final class Reader {
+        private final byte[] blob;
+        private final int count;
+        private final int scale;
+        // Position de lecture partagée par readVarint (évite une allocation par échantillon)
+        private final int[] pos = {0};
+        private int minutePos;
+        private int valuePos;
+        private int index = -1;
+        private long minute;
+        private long fixedValue;
+        
+        private Reader(byte[] blob) {
+            this.blob = blob;
+            int version = (int) readVarint(blob, pos);
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Version d'archive inconnue: " + version);
+            }
+            this.count = (int) readVarint(blob, pos);
+            this.scale = (int) readVarint(blob, pos);
+            int minuteColumnSize = (int) readVarint(blob, pos);
+            this.minutePos = pos[0];
+            this.valuePos = pos[0] + minuteColumnSize;
+        }
+        
+        public int count() {
+            return count;
+        }
+        
+        /**
+         * Passe à l'échantillon suivant, false à la fin de l'archive
+         */
+        public boolean next() {
+            if (index + 1 >= count) {
+                return false;
+            }
+            index++;
+            
+            pos[0] = minutePos;
+            minute += readVarint(blob, pos);
+            minutePos = pos[0];
+            
+            pos[0] = valuePos;
+            fixedValue += unzigzag(readVarint(blob, pos));
+            valuePos = pos[0];
+            return true;
+        }
+        
+        public long minute() {
+            return minute;
+        }
+        
+        public float value() {
+            return (float) fixedValue / scale;
+        }
+    }
+    
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+    
+    private static long readVarint(byte[] blob, int[] pos) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            if (pos[0] >= blob.length || shift > 63) {
+                throw new IllegalArgumentException("Archive tronquée");
+            }
+            byte b = blob[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+    
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.projet_android.database;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.util.Log;
+
+import com.example.projet_android.database.entities.CachedProduct;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Catalogue de produits hors ligne (produits OpenFoodFacts les plus courants),
+ * projeté en mémoire et interrogé par recherche dichotomique sur le code-barres.
+ *
+ * Format (big-endian) :
+ *   en-tête   : magic "OFFC", version, nombre de produits, taille du bloc de chaînes (4 × int)
+ *   clés      : codes-barres triés, un long par produit (colonne compacte pour la recherche)
+ *   produits  : calories (int), protéines, glucides, lipides (float), nom, marque (int)
+ *               nom et marque sont des positions dans le bloc de chaînes, -1 si absent
+ *   chaînes   : longueur (unsigned short) + octets UTF-8, marques dédupliquées
+ *
+ * Le fichier n'est jamais chargé en entier : seules les pages touchées par la
+ * recherche (une vingtaine de clés) sont lues par le système.
+ */
+public final class OfflineCatalog {
+    
+    private static final String TAG = "OfflineCatalog";
+    
+    public static final String FILE_NAME = "offline_catalog.bin";
+    
+    static final int MAGIC = 0x4F464643; // "OFFC"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int KEY_SIZE = 8;
+    static final int RECORD_SIZE = 24;
+    
+    // Un long signé contient 18 chiffres sans débordement (EAN-13, UPC, GTIN-14)
+    private static final int MAX_BARCODE_DIGITS = 18;
+    
+    private static OfflineCatalog instance;
+    private static boolean loaded;
+    
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int recordsOffset;
+    private final int stringsOffset;
+    
+    /**
+     * Catalogue de l'application, ou null s'il n'est pas installé.
+     * Un catalogue téléchargé (filesDir) remplace celui livré dans les assets.
+     * À appeler hors du thread principal (première ouverture).
+     */
+    public static synchronized OfflineCatalog get(Context context) {
+        if (!loaded) {
+            loaded = true;
+            instance = load(context.getApplicationContext());
+        }
+        return instance;
+    }
+    
+    private static OfflineCatalog load(Context context) {
+        File downloaded = new File(context.getFilesDir(), FILE_NAME);
+        try {
+            if (downloaded.isFile()) {
+                return open(downloaded);
+            }
+            // Asset non compressé (noCompress dans build.gradle) : projetable directement depuis l'APK
+            try (AssetFileDescriptor afd = context.getAssets().openFd(FILE_NAME);
+                 FileInputStream in = afd.createInputStream()) {
+                return new OfflineCatalog(in.getChannel().map(
+                        FileChannel.MapMode.READ_ONLY, afd.getStartOffset(), afd.getLength()));
+            }
+        } catch (FileNotFoundException e) {
+            Log.d(TAG, "Aucun catalogue hors ligne installé");
+        } catch (IOException e) {
+            Log.e(TAG, "Catalogue hors ligne illisible: " + e.getMessage());
+        }
+        return null;
+    }
+    
+    public static OfflineCatalog open(File file) throws IOException {
+        try (FileInputStream in = new FileInputStream(file)) {
+            FileChannel channel = in.getChannel();
+            // La projection reste valide après la fermeture du canal
+            return new OfflineCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+    
+    private OfflineCatalog(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Catalogue hors ligne invalide");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Version de catalogue non supportée: " + buffer.getInt(4));
+        }
+        
+        this.count = buffer.getInt(8);
+        int stringsLength = buffer.getInt(12);
+        long expected = HEADER_SIZE + (long) count * (KEY_SIZE + RECORD_SIZE) + stringsLength;
+        if (count < 0 || stringsLength < 0 || expected != buffer.capacity()) {
+            throw new IOException("Catalogue hors ligne tronqué");
+        }
+        
+        this.recordsOffset = HEADER_SIZE + count * KEY_SIZE;
+        this.stringsOffset = recordsOffset + count * RECORD_SIZE;
+    }
+    
+    public int size() {
+        return count;
+    }
+    
+    /**
+     * Produit du catalogue (found = true, fetchedAt = 0 : à revalider en ligne),
+     * ou null si le code-barres est absent ou non numérique.
+     */
+    public CachedProduct lookup(String barcode) {
+        int index = indexOf(parseBarcode(barcode));
+        if (index < 0) {
+            return null;
+        }
+        
+        int record = recordsOffset + index * RECORD_SIZE;
+        CachedProduct product = new CachedProduct();
+        product.barcode = barcode;
+        product.found = true;
+        product.calories = buffer.getInt(record);
+        product.protein = buffer.getFloat(record + 4);
+        product.carbs = buffer.getFloat(record + 8);
+        product.fat = buffer.getFloat(record + 12);
+        product.name = readString(buffer.getInt(record + 16));
+        product.brand = readString(buffer.getInt(record + 20));
+        product.imageUrl = "";
+        return product;
+    }
+    
+    // Recherche dichotomique par lectures absolues : pas d'allocation, thread-safe
+    int indexOf(long key) {
+        if (key < 0) {
+            return -1;
+        }
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = buffer.getLong(HEADER_SIZE + mid * KEY_SIZE);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+    
+    private String readString(int offset) {
+        if (offset < 0) {
+            return "";
+        }
+        int position = stringsOffset + offset;
+        int length = buffer.getShort(position) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(position + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Code-barres numérique -> clé du catalogue, -1 s'il ne peut pas y figurer.
+     * Les zéros de tête sont ignorés (un UPC-A et son EAN-13 "0…" ont la même clé).
+     */
+    static long parseBarcode(String barcode) {
+        if (barcode == null || barcode.isEmpty() || barcode.length() > MAX_BARCODE_DIGITS) {
+            return -1;
+        }
+        long key = 0;
+        for (int i = 0; i < barcode.length(); i++) {
+            char c = barcode.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            key = key * 10 + (c - '0');
+        }
+        return key;
+    }
+    
+    /**
+     * Construit un fichier catalogue (outil de génération et tests).
+     * Un même code-barres ajouté deux fois : la dernière entrée l'emporte.
+     */
+    public static final class Builder {
+        
+        private final TreeMap<Long, CachedProduct> products = new TreeMap<>();
+        
+        public Builder add(CachedProduct product) {
+            long key = parseBarcode(product.barcode);
+            if (key < 0) {
+                throw new IllegalArgumentException("Code-barres non numérique: " + product.barcode);
+            }
+            products.put(key, product);
+            return this;
+        }
+        
+        public void writeTo(File file) throws IOException {
+            ByteArrayOutputStream strings = new ByteArrayOutputStream();
+            DataOutputStream stringsOut = new DataOutputStream(strings);
+            Map<String, Integer> sharedStrings = new HashMap<>();
+            int[] nameOffsets = new int[products.size()];
+            int[] brandOffsets = new int[products.size()];
+            
+            int i = 0;
+            for (CachedProduct product : products.values()) {
+                nameOffsets[i] = writeString(stringsOut, strings, product.name, null);
+                brandOffsets[i] = writeString(stringsOut, strings, product.brand, sharedStrings);
+                i++;
+            }
+            
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(file)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(products.size());
+                out.writeInt(strings.size());
+                for (long key : products.keySet()) {
+                    out.writeLong(key);
+                }
+                i = 0;
+                for (CachedProduct product : products.values()) {
+                    out.writeInt(product.calories);
+                    out.writeFloat(product.protein);
+                    out.writeFloat(product.carbs);
+                    out.writeFloat(product.fat);
+                    out.writeInt(nameOffsets[i]);
+                    out.writeInt(brandOffsets[i]);
+                    i++;
+                }
+                strings.writeTo(out);
+            }
+        }
+        
+        // shared non null : chaîne dédupliquée (les marques se répètent beaucoup)
+        private static int writeString(DataOutputStream out, ByteArrayOutputStream strings,
+                                       String value, Map<String, Integer> shared) throws IOException {
+            if (value == null || value.isEmpty()) {
+                return -1;
+            }
+            if (shared != null && shared.containsKey(value)) {
+                return shared.get(value);
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) {
+                throw new IllegalArgumentException("Chaîne trop longue pour le catalogue");
+            }
+            int offset = strings.size();
+            out.writeShort(bytes.length);
+            out.write(bytes);
+            if (shared != null) {
+                shared.put(value, offset);
+            }
+            return offset;
+        }
+    }
+}
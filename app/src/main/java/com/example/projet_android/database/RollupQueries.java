@@ -0,0 +1,144 @@
+package com.example.projet_android.database;
+
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Construit les requêtes de statistiques sur une plage de jours.
+ * La plage est découpée en mois complets (health_month), puis semaines complètes
+ * (health_week), puis au plus 6 jours à chaque extrémité lus dans health_data /
+ * activities : le nombre de lignes lues ne dépend pas de la longueur de la plage.
+ */
+public final class RollupQueries {
+    
+    private static final String ROLLUP_COLUMNS =
+            "dayCount, stepsSum, stepsMin, stepsMax, sleepSum, sleepMin, sleepMax, " +
+            "activityCount, activityCaloriesSum, activityMinutesSum";
+    
+    private RollupQueries() {
+    }
+    
+    /**
+     * Statistiques de [startDay, endDay] (epochDay, bornes incluses) pour RollupDao.getRangeStats
+     */
+    public static SupportSQLiteQuery rangeStats(String userId, long startDay, long endDay) {
+        List<long[]> monthRanges = new ArrayList<>();
+        List<long[]> weekRanges = new ArrayList<>();
+        List<long[]> dayRanges = new ArrayList<>();
+        
+        if (startDay <= endDay) {
+            LocalDate start = LocalDate.ofEpochDay(startDay);
+            LocalDate end = LocalDate.ofEpochDay(endDay);
+            
+            // Mois entièrement compris dans la plage
+            LocalDate firstMonth = start.getDayOfMonth() == 1
+                    ? start : start.with(TemporalAdjusters.firstDayOfNextMonth());
+            LocalDate lastMonthEnd = end.equals(end.with(TemporalAdjusters.lastDayOfMonth()))
+                    ? end : end.withDayOfMonth(1).minusDays(1);
+            
+            if (!firstMonth.isAfter(lastMonthEnd)) {
+                monthRanges.add(new long[] {firstMonth.toEpochDay(),
+                        lastMonthEnd.withDayOfMonth(1).toEpochDay()});
+                splitWeeks(startDay, firstMonth.toEpochDay() - 1, weekRanges, dayRanges);
+                splitWeeks(lastMonthEnd.toEpochDay() + 1, endDay, weekRanges, dayRanges);
+            } else {
+                splitWeeks(startDay, endDay, weekRanges, dayRanges);
+            }
+        }
+        
+        List<Object> args = new ArrayList<>();
+        List<String> parts = new ArrayList<>();
+        
+        if (!monthRanges.isEmpty()) {
+            parts.add("SELECT " + ROLLUP_COLUMNS + " FROM health_month WHERE userId = ? AND " +
+                    rangeCondition("bucketStart", monthRanges, userId, args));
+        }
+        if (!weekRanges.isEmpty()) {
+            parts.add("SELECT " + ROLLUP_COLUMNS + " FROM health_week WHERE userId = ? AND " +
+                    rangeCondition("bucketStart", weekRanges, userId, args));
+        }
+        if (!dayRanges.isEmpty()) {
+            parts.add("SELECT COUNT(*) AS dayCount, COALESCE(SUM(steps), 0) AS stepsSum, " +
+                    "MIN(steps) AS stepsMin, MAX(steps) AS stepsMax, " +
+                    "COALESCE(SUM(sleepHours), 0) AS sleepSum, " +
+                    "MIN(sleepHours) AS sleepMin, MAX(sleepHours) AS sleepMax, " +
+                    "0 AS activityCount, 0 AS activityCaloriesSum, 0 AS activityMinutesSum " +
+                    "FROM health_data WHERE userId = ? AND " +
+                    rangeCondition("epochDay", dayRanges, userId, args));
+            parts.add("SELECT 0, 0, NULL, NULL, 0, NULL, NULL, COUNT(*), " +
+                    "COALESCE(SUM(caloriesBurned), 0), COALESCE(SUM(duration), 0) " +
+                    "FROM activities WHERE userId = ? AND " +
+                    rangeCondition("epochDay", dayRanges, userId, args));
+        }
+        if (parts.isEmpty()) {
+            // Plage vide
+            parts.add("SELECT 0 AS dayCount, 0 AS stepsSum, NULL AS stepsMin, NULL AS stepsMax, " +
+                    "0 AS sleepSum, NULL AS sleepMin, NULL AS sleepMax, " +
+                    "0 AS activityCount, 0 AS activityCaloriesSum, 0 AS activityMinutesSum");
+        }
+        
+        String sql = "SELECT COALESCE(SUM(dayCount), 0) AS dayCount, " +
+                "COALESCE(SUM(stepsSum), 0) AS stepsSum, " +
+                "MIN(stepsMin) AS stepsMin, MAX(stepsMax) AS stepsMax, " +
+                "COALESCE(SUM(sleepSum), 0) AS sleepSum, " +
+                "MIN(sleepMin) AS sleepMin, MAX(sleepMax) AS sleepMax, " +
+                "COALESCE(SUM(activityCount), 0) AS activityCount, " +
+                "COALESCE(SUM(activityCaloriesSum), 0) AS activityCaloriesSum, " +
+                "COALESCE(SUM(activityMinutesSum), 0) AS activityMinutesSum " +
+                "FROM (" + String.join(" UNION ALL ", parts) + ")";
+        
+        return new SimpleSQLiteQuery(sql, args.toArray());
+    }
+    
+    /**
+     * Découpe [from, to] en semaines complètes (lundi-dimanche) et jours restants
+     */
+    private static void splitWeeks(long from, long to, List<long[]> weekRanges, List<long[]> dayRanges) {
+        if (from > to) {
+            return;
+        }
+        long firstWeek = from + Math.floorMod(7 - weekOffset(from), 7);
+        long lastWeek = to - weekOffset(to);
+        if (lastWeek + 6 > to) {
+            lastWeek -= 7;
+        }
+        
+        if (firstWeek > lastWeek) {
+            dayRanges.add(new long[] {from, to});
+            return;
+        }
+        weekRanges.add(new long[] {firstWeek, lastWeek});
+        if (from < firstWeek) {
+            dayRanges.add(new long[] {from, firstWeek - 1});
+        }
+        if (lastWeek + 7 <= to) {
+            dayRanges.add(new long[] {lastWeek + 7, to});
+        }
+    }
+    
+    /**
+     * Nombre de jours depuis le lundi précédent (le 1970-01-01 était un jeudi)
+     */
+    static long weekOffset(long epochDay) {
+        return Math.floorMod(epochDay + 3, 7);
+    }
+    
+    private static String rangeCondition(String column, List<long[]> ranges, String userId, List<Object> args) {
+        args.add(userId);
+        StringBuilder condition = new StringBuilder("(");
+        for (int i = 0; i < ranges.size(); i++) {
+            if (i > 0) {
+                condition.append(" OR ");
+            }
+            condition.append(column).append(" BETWEEN ? AND ?");
+            args.add(ranges.get(i)[0]);
+            args.add(ranges.get(i)[1]);
+        }
+        return condition.append(")").toString();
+    }
+}
@@ -33,8 +33,8 @@ public interface ActivityDao {
     @Query("SELECT * FROM activities WHERE userId = :userId AND date = :date ORDER BY startTime DESC")
     List<Activity> getActivitiesForDateSync(String userId, String date);
     
-    @Query("SELECT * FROM activities WHERE userId = :userId AND date BETWEEN :startDate AND :endDate ORDER BY startTime DESC")
-    LiveData<List<Activity>> getActivitiesBetweenDates(String userId, String startDate, String endDate);
+    @Query("SELECT * FROM activities WHERE userId = :userId AND epochDay BETWEEN :startDay AND :endDay ORDER BY startTime DESC")
+    LiveData<List<Activity>> getActivitiesBetweenDates(String userId, long startDay, long endDay);
     
     @Query("SELECT * FROM activities WHERE userId = :userId ORDER BY startTime DESC LIMIT :limit")
     LiveData<List<Activity>> getRecentActivities(String userId, int limit);
@@ -54,11 +54,11 @@ public interface ActivityDao {
     @Query("SELECT AVG(averageHeartRate) as avgHeartRate FROM activities WHERE userId = :userId AND date = :date AND averageHeartRate > 0")
     LiveData<Float> getAverageHeartRateForDate(String userId, String date);
     
-    @Query("SELECT SUM(caloriesBurned) as totalCalories FROM activities WHERE userId = :userId AND date BETWEEN :startDate AND :endDate")
-    LiveData<Integer> getTotalCaloriesBurnedBetweenDates(String userId, String startDate, String endDate);
+    @Query("SELECT SUM(caloriesBurned) as totalCalories FROM activities WHERE userId = :userId AND epochDay BETWEEN :startDay AND :endDay")
+    LiveData<Integer> getTotalCaloriesBurnedBetweenDates(String userId, long startDay, long endDay);
     
-    @Query("SELECT SUM(duration) as totalDuration FROM activities WHERE userId = :userId AND date BETWEEN :startDate AND :endDate")
-    LiveData<Integer> getTotalDurationBetweenDates(String userId, String startDate, String endDate);
+    @Query("SELECT SUM(duration) as totalDuration FROM activities WHERE userId = :userId AND epochDay BETWEEN :startDay AND :endDay")
+    LiveData<Integer> getTotalDurationBetweenDates(String userId, long startDay, long endDay);
     
     @Query("SELECT DISTINCT activityType FROM activities WHERE userId = :userId ORDER BY activityType ASC")
     LiveData<List<String>> getFavoriteActivityTypes(String userId);
@@ -36,8 +36,8 @@ public interface FoodLogDao {
     @Query("SELECT * FROM food_logs WHERE userId = :userId AND date = :date AND mealType = :mealType ORDER BY timestamp DESC")
     LiveData<List<FoodLog>> getFoodLogsForMeal(String userId, String date, String mealType);
     
-    @Query("SELECT * FROM food_logs WHERE userId = :userId AND date BETWEEN :startDate AND :endDate ORDER BY date DESC, timestamp DESC")
-    LiveData<List<FoodLog>> getFoodLogsBetweenDates(String userId, String startDate, String endDate);
+    @Query("SELECT * FROM food_logs WHERE userId = :userId AND epochDay BETWEEN :startDay AND :endDay ORDER BY epochDay DESC, timestamp DESC")
+    LiveData<List<FoodLog>> getFoodLogsBetweenDates(String userId, long startDay, long endDay);
     
     @Query("SELECT * FROM food_logs WHERE userId = :userId ORDER BY timestamp DESC LIMIT :limit")
     LiveData<List<FoodLog>> getRecentFoodLogs(String userId, int limit);
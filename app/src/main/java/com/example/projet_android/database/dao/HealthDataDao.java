@@ -6,8 +6,12 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
+import com.example.projet_android.database.entities.DailyDashboard;
+import com.example.projet_android.database.entities.DailyValue;
+import com.example.projet_android.database.entities.DayTotals;
 import com.example.projet_android.database.entities.HealthData;
 
 import java.util.List;
@@ -18,6 +22,10 @@ public interface HealthDataDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     long insertHealthData(HealthData healthData);
     
+    // Ne fait rien si la ligne (userId, date) existe déjà (index unique)
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long insertHealthDataIfAbsent(HealthData healthData);
+    
     @Update
     void updateHealthData(HealthData healthData);
     
@@ -33,8 +41,26 @@ public interface HealthDataDao {
     @Query("SELECT * FROM health_data WHERE userId = :userId AND date = :date LIMIT 1")
     HealthData getHealthDataForDateSync(String userId, String date);
     
-    @Query("SELECT * FROM health_data WHERE userId = :userId AND date BETWEEN :startDate AND :endDate ORDER BY date ASC")
-    LiveData<List<HealthData>> getHealthDataBetweenDates(String userId, String startDate, String endDate);
+    @Query("SELECT * FROM health_data WHERE userId = :userId AND epochDay BETWEEN :startDay AND :endDay ORDER BY epochDay ASC")
+    LiveData<List<HealthData>> getHealthDataBetweenDates(String userId, long startDay, long endDay);
+    
+    // Série d'une métrique pour les graphiques ; fréquence cardiaque 0 = pas de mesure
+    @Query("SELECT epochDay, CASE :metric " +
+           "WHEN " + DailyValue.METRIC_STEPS + " THEN steps " +
+           "WHEN " + DailyValue.METRIC_CALORIES + " THEN calories " +
+           "WHEN " + DailyValue.METRIC_SLEEP + " THEN sleepHours " +
+           "ELSE heartRate END AS value " +
+           "FROM health_data WHERE userId = :userId AND epochDay BETWEEN :startDay AND :endDay " +
+           "AND (:metric != " + DailyValue.METRIC_HEART_RATE + " OR heartRate > 0) ORDER BY epochDay ASC")
+    List<DailyValue> getDailySeriesSync(String userId, int metric, long startDay, long endDay);
+    
+    // Calendrier mensuel : une seule lecture par mois (index userId, epochDay)
+    @Query("SELECT epochDay, steps, calories, sleepHours FROM health_data " +
+           "WHERE userId = :userId AND epochDay BETWEEN :startDay AND :endDay")
+    List<DayTotals> getDayTotalsSync(String userId, long startDay, long endDay);
+    
+    @Query("SELECT MIN(epochDay) FROM health_data WHERE userId = :userId")
+    Long getFirstEpochDaySync(String userId);
     
     @Query("SELECT * FROM health_data WHERE userId = :userId ORDER BY timestamp DESC LIMIT :limit")
     LiveData<List<HealthData>> getRecentHealthData(String userId, int limit);
@@ -42,6 +68,18 @@ public interface HealthDataDao {
     @Query("UPDATE health_data SET steps = :steps, calories = :calories, distance = :distance WHERE userId = :userId AND date = :date")
     void updateActivityData(String userId, String date, int steps, int calories, float distance);
     
+    // Synchronisation incrémentale : ajoute l'intervalle lu depuis le dernier curseur
+    @Query("UPDATE health_data SET steps = steps + :steps, calories = calories + :calories, " +
+           "distance = distance + :distance WHERE userId = :userId AND date = :date")
+    void addActivityDelta(String userId, String date, int steps, int calories, float distance);
+    
+    // heartRate <= 0 ou sleepHours < 0 : pas de mesure, la valeur existante est conservée
+    @Query("UPDATE health_data SET " +
+           "heartRate = CASE WHEN :heartRate > 0 THEN :heartRate ELSE heartRate END, " +
+           "sleepHours = CASE WHEN :sleepHours >= 0 THEN :sleepHours ELSE sleepHours END " +
+           "WHERE userId = :userId AND date = :date")
+    void updateVitals(String userId, String date, int heartRate, float sleepHours);
+    
     @Query("UPDATE health_data SET sleepHours = :sleepHours WHERE userId = :userId AND date = :date")
     void updateSleepData(String userId, String date, float sleepHours);
     
@@ -55,12 +93,81 @@ public interface HealthDataDao {
            "totalCarbs = :carbs, totalFat = :fat WHERE userId = :userId AND date = :date")
     void updateNutritionData(String userId, String date, int calories, float protein, float carbs, float fat);
     
-    @Query("SELECT AVG(steps) as avgSteps FROM health_data WHERE userId = :userId AND date >= :startDate")
-    LiveData<Float> getAverageSteps(String userId, String startDate);
-    
-    @Query("SELECT SUM(steps) as totalSteps FROM health_data WHERE userId = :userId AND date BETWEEN :startDate AND :endDate")
-    LiveData<Integer> getTotalStepsBetweenDates(String userId, String startDate, String endDate);
-    
-    @Query("SELECT AVG(sleepHours) as avgSleep FROM health_data WHERE userId = :userId AND date >= :startDate")
-    LiveData<Float> getAverageSleep(String userId, String startDate);
+    @Query("SELECT AVG(steps) as avgSteps FROM health_data WHERE userId = :userId AND epochDay >= :startDay")
+    LiveData<Float> getAverageSteps(String userId, long startDay);
+    
+    @Query("SELECT SUM(steps) as totalSteps FROM health_data WHERE userId = :userId AND epochDay BETWEEN :startDay AND :endDay")
+    LiveData<Integer> getTotalStepsBetweenDates(String userId, long startDay, long endDay);
+    
+    @Query("SELECT AVG(sleepHours) as avgSleep FROM health_data WHERE userId = :userId AND epochDay >= :startDay")
+    LiveData<Float> getAverageSleep(String userId, long startDay);
+    
+    // Tableau de bord : une seule requête (et un seul observer) pour les trois tables
+    String DASHBOARD = "SELECT :userId AS userId, :date AS date, " +
+            "h.id IS NOT NULL AS hasHealthData, " +
+            "COALESCE(h.steps, 0) AS steps, COALESCE(h.calories, 0) AS calories, " +
+            "COALESCE(h.distance, 0) AS distance, COALESCE(h.heartRate, 0) AS heartRate, " +
+            "COALESCE(h.sleepHours, 0) AS sleepHours, COALESCE(h.waterGlasses, 0) AS waterGlasses, " +
+            "COALESCE(n.calories, 0) AS caloriesConsumed, COALESCE(n.protein, 0) AS protein, " +
+            "COALESCE(n.carbs, 0) AS carbs, COALESCE(n.fat, 0) AS fat, " +
+            "COALESCE(n.itemCount, 0) AS foodItemCount, " +
+            "a.activityCount, a.activityCaloriesBurned, a.activityMinutes " +
+            "FROM (SELECT COUNT(*) AS activityCount, " +
+            "COALESCE(SUM(caloriesBurned), 0) AS activityCaloriesBurned, " +
+            "COALESCE(SUM(duration), 0) AS activityMinutes " +
+            "FROM activities WHERE userId = :userId AND date = :date) AS a " +
+            "LEFT JOIN health_data AS h ON h.userId = :userId AND h.date = :date " +
+            "LEFT JOIN daily_nutrition AS n ON n.userId = :userId AND n.date = :date";
+    
+    @Query(DASHBOARD)
+    LiveData<DailyDashboard> getDailyDashboard(String userId, String date);
+    
+    // Même requête, exécutée pendant l'écran de démarrage pour ouvrir la base à l'avance
+    @Query(DASHBOARD)
+    DailyDashboard getDailyDashboardSync(String userId, String date);
+    
+    // Upserts : INSERT OR IGNORE puis UPDATE dans une même transaction.
+    // (INSERT ... ON CONFLICT DO UPDATE n'existe qu'à partir de SQLite 3.24 / API 30)
+    
+    @Transaction
+    default void upsertActivityData(String userId, String date, int steps, int calories, float distance) {
+        insertHealthDataIfAbsent(new HealthData(userId, date));
+        updateActivityData(userId, date, steps, calories, distance);
+    }
+    
+    @Transaction
+    default void upsertActivityDelta(String userId, String date, int steps, int calories, float distance) {
+        insertHealthDataIfAbsent(new HealthData(userId, date));
+        addActivityDelta(userId, date, steps, calories, distance);
+    }
+    
+    @Transaction
+    default void upsertVitals(String userId, String date, int heartRate, float sleepHours) {
+        insertHealthDataIfAbsent(new HealthData(userId, date));
+        updateVitals(userId, date, heartRate, sleepHours);
+    }
+    
+    @Transaction
+    default void upsertSleepData(String userId, String date, float sleepHours) {
+        insertHealthDataIfAbsent(new HealthData(userId, date));
+        updateSleepData(userId, date, sleepHours);
+    }
+    
+    @Transaction
+    default void upsertHeartRate(String userId, String date, int heartRate) {
+        insertHealthDataIfAbsent(new HealthData(userId, date));
+        updateHeartRate(userId, date, heartRate);
+    }
+    
+    @Transaction
+    default void upsertWaterIntake(String userId, String date, int waterGlasses) {
+        insertHealthDataIfAbsent(new HealthData(userId, date));
+        updateWaterIntake(userId, date, waterGlasses);
+    }
+    
+    @Transaction
+    default void upsertNutritionData(String userId, String date, int calories, float protein, float carbs, float fat) {
+        insertHealthDataIfAbsent(new HealthData(userId, date));
+        updateNutritionData(userId, date, calories, protein, carbs, fat);
+    }
 }
@@ -0,0 +1,24 @@
+package com.example.projet_android.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.projet_android.database.entities.IntradayArchive;
+
+import java.util.List;
+
+@Dao
+public interface IntradayArchiveDao {
+    
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertArchive(IntradayArchive archive);
+    
+    @Query("SELECT * FROM intraday_archive WHERE userId = :userId AND metric = :metric AND epochDay = :epochDay LIMIT 1")
+    IntradayArchive getArchiveSync(String userId, int metric, long epochDay);
+    
+    @Query("SELECT * FROM intraday_archive WHERE userId = :userId AND metric = :metric " +
+           "AND epochDay BETWEEN :startDay AND :endDay ORDER BY epochDay ASC")
+    List<IntradayArchive> getArchivesSync(String userId, int metric, long startDay, long endDay);
+}
@@ -0,0 +1,51 @@
+package com.example.projet_android.database.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.projet_android.database.entities.IntradayBucket;
+import com.example.projet_android.database.entities.IntradaySample;
+
+import java.util.List;
+
+@Dao
+public interface IntradaySampleDao {
+    
+    // Ré-échantillonnage en créneaux de :bucketMinutes, alignés sur l'heure locale
+    // (:offsetMinutes = décalage du fuseau, pour que les créneaux d'une heure ou d'un jour
+    // commencent à l'heure ronde locale). Plage [startMinute, endMinute[.
+    String DOWNSAMPLE = "SELECT ((epochMinute + :offsetMinutes) / :bucketMinutes) * :bucketMinutes - :offsetMinutes AS bucketStart, " +
+            "SUM(value) AS total, AVG(value) AS average, MIN(value) AS minValue, MAX(value) AS maxValue, " +
+            "COUNT(*) AS sampleCount " +
+            "FROM intraday_samples WHERE userId = :userId AND metric = :metric " +
+            "AND epochMinute >= :startMinute AND epochMinute < :endMinute " +
+            "GROUP BY bucketStart ORDER BY bucketStart ASC";
+    
+    // Une seule requête préparée pour tout le lot ; un créneau relu remplace l'ancien
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertSamples(List<IntradaySample> samples);
+    
+    @Query("SELECT * FROM intraday_samples WHERE userId = :userId AND metric = :metric " +
+           "AND epochMinute >= :startMinute AND epochMinute < :endMinute ORDER BY epochMinute ASC")
+    List<IntradaySample> getSamplesSync(String userId, int metric, long startMinute, long endMinute);
+    
+    // Jours (UTC) encore en lignes avant la limite d'archivage
+    @Query("SELECT DISTINCT epochMinute / 1440 FROM intraday_samples " +
+           "WHERE userId = :userId AND metric = :metric AND epochMinute < :beforeMinute")
+    List<Long> getDaysBeforeSync(String userId, int metric, long beforeMinute);
+    
+    @Query("DELETE FROM intraday_samples WHERE userId = :userId AND metric = :metric " +
+           "AND epochMinute >= :startMinute AND epochMinute < :endMinute")
+    void deleteSamples(String userId, int metric, long startMinute, long endMinute);
+    
+    @Query(DOWNSAMPLE)
+    LiveData<List<IntradayBucket>> getDownsampled(String userId, int metric, long startMinute, long endMinute,
+                                                  int bucketMinutes, int offsetMinutes);
+    
+    @Query(DOWNSAMPLE)
+    List<IntradayBucket> getDownsampledSync(String userId, int metric, long startMinute, long endMinute,
+                                            int bucketMinutes, int offsetMinutes);
+}
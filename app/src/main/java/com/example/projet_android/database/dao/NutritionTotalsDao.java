@@ -0,0 +1,17 @@
+package com.example.projet_android.database.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import com.example.projet_android.database.entities.NutritionTotals;
+
+@Dao
+public interface NutritionTotalsDao {
+    
+    @Query("SELECT * FROM daily_nutrition WHERE userId = :userId AND date = :date LIMIT 1")
+    LiveData<NutritionTotals> getNutritionTotals(String userId, String date);
+    
+    @Query("SELECT * FROM daily_nutrition WHERE userId = :userId AND date = :date LIMIT 1")
+    NutritionTotals getNutritionTotalsSync(String userId, String date);
+}
@@ -0,0 +1,21 @@
+package com.example.projet_android.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.projet_android.database.entities.CachedProduct;
+
+@Dao
+public interface ProductCacheDao {
+    
+    @Query("SELECT * FROM product_cache WHERE barcode = :barcode LIMIT 1")
+    CachedProduct getProductSync(String barcode);
+    
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertProduct(CachedProduct product);
+    
+    @Query("DELETE FROM product_cache WHERE fetchedAt < :before")
+    void deleteFetchedBefore(long before);
+}
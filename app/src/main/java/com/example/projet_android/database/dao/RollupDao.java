@@ -0,0 +1,32 @@
+package com.example.projet_android.database.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Query;
+import androidx.room.RawQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+import com.example.projet_android.database.entities.Activity;
+import com.example.projet_android.database.entities.HealthData;
+import com.example.projet_android.database.entities.HealthMonth;
+import com.example.projet_android.database.entities.HealthWeek;
+import com.example.projet_android.database.entities.RangeStats;
+
+import java.util.List;
+
+@Dao
+public interface RollupDao {
+    
+    // Requête construite par RollupQueries.rangeStats()
+    @RawQuery(observedEntities = {HealthMonth.class, HealthWeek.class, HealthData.class, Activity.class})
+    LiveData<RangeStats> getRangeStats(SupportSQLiteQuery query);
+    
+    @RawQuery
+    RangeStats getRangeStatsSync(SupportSQLiteQuery query);
+    
+    @Query("SELECT * FROM health_week WHERE userId = :userId AND bucketStart BETWEEN :startDay AND :endDay ORDER BY bucketStart ASC")
+    LiveData<List<HealthWeek>> getWeeks(String userId, long startDay, long endDay);
+    
+    @Query("SELECT * FROM health_month WHERE userId = :userId AND bucketStart BETWEEN :startDay AND :endDay ORDER BY bucketStart ASC")
+    LiveData<List<HealthMonth>> getMonths(String userId, long startDay, long endDay);
+}
@@ -0,0 +1,21 @@
+package com.example.projet_android.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.projet_android.database.entities.SyncCursor;
+
+import java.util.List;
+
+@Dao
+public interface SyncCursorDao {
+    
+    @Query("SELECT * FROM sync_cursors WHERE userId = :userId")
+    List<SyncCursor> getCursorsSync(String userId);
+    
+    // Pas de trigger sur sync_cursors : REPLACE suffit comme upsert
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertCursors(List<SyncCursor> cursors);
+}
@@ -0,0 +1,27 @@
+package com.example.projet_android.database.dao;
+
+import androidx.paging.PagingSource;
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import com.example.projet_android.database.entities.TimelineEntry;
+
+@Dao
+public interface TimelineDao {
+    
+    // Chaque branche est servie par l'index (userId, date, ...) de sa table.
+    // Le résumé (time = 0) précède les repas et activités triés par heure.
+    @Query("SELECT " + TimelineEntry.KIND_SUMMARY + " AS kind, id AS itemId, 0 AS time, " +
+           "NULL AS label, NULL AS detail, calories, sleepHours AS amount, steps, heartRate " +
+           "FROM health_data WHERE userId = :userId AND date = :date " +
+           "UNION ALL " +
+           "SELECT " + TimelineEntry.KIND_FOOD + ", id, timestamp, foodName, mealType, " +
+           "calories, quantity, 0, 0 " +
+           "FROM food_logs WHERE userId = :userId AND date = :date " +
+           "UNION ALL " +
+           "SELECT " + TimelineEntry.KIND_ACTIVITY + ", id, startTime, activityType, description, " +
+           "caloriesBurned, duration, 0, averageHeartRate " +
+           "FROM activities WHERE userId = :userId AND date = :date " +
+           "ORDER BY time ASC, kind ASC, itemId ASC")
+    PagingSource<Integer, TimelineEntry> getDayTimeline(String userId, String date);
+}
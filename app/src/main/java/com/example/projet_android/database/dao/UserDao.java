@@ -10,12 +10,17 @@ import androidx.room.Update;
 
 import com.example.projet_android.database.entities.User;
 
+import java.util.List;
+
 @Dao
 public interface UserDao {
     
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     long insertUser(User user);
     
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long insertUserIfAbsent(User user);
+    
     @Update
     void updateUser(User user);
     
@@ -28,6 +33,9 @@ public interface UserDao {
     @Query("SELECT * FROM users WHERE userId = :userId LIMIT 1")
     User getUserSync(String userId);
     
+    @Query("SELECT userId FROM users")
+    List<String> getAllUserIds();
+    
     @Query("SELECT * FROM users WHERE email = :email LIMIT 1")
     User getUserByEmail(String email);
     
@@ -1,5 +1,6 @@
 package com.example.projet_android.database.entities;
 
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.PrimaryKey;
 import androidx.room.ForeignKey;
@@ -7,12 +8,15 @@ import androidx.room.Index;
 import androidx.room.Ignore;
 import androidx.annotation.NonNull;
 
+import com.example.projet_android.utils.DayKeys;
+
 @Entity(tableName = "activities",
         foreignKeys = @ForeignKey(entity = User.class,
                                 parentColumns = "userId",
                                 childColumns = "userId",
                                 onDelete = ForeignKey.CASCADE),
-        indices = {@Index("userId")})
+        indices = {@Index({"userId", "date", "startTime"}),
+                   @Index({"userId", "epochDay"})})
 public class Activity {
     
     @PrimaryKey(autoGenerate = true)
@@ -21,6 +25,9 @@ public class Activity {
     @NonNull
     public String userId;
     public String date; // Format YYYY-MM-DD
+    // Même jour en nombre de jours depuis 1970-01-01 (requêtes par plage)
+    @ColumnInfo(defaultValue = "0")
+    public long epochDay;
     public long startTime;
     public long endTime;
     
@@ -42,6 +49,7 @@ public class Activity {
         this();
         this.userId = userId;
         this.date = date;
+        this.epochDay = DayKeys.toEpochDay(date);
         this.activityType = activityType;
     }
 }
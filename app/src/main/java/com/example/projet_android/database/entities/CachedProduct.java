@@ -0,0 +1,34 @@
+package com.example.projet_android.database.entities;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Produit OpenFoodFacts déjà recherché, partagé entre les utilisateurs.
+ * found = false : code-barres inconnu de l'API (cache négatif).
+ * La fraîcheur est évaluée à la lecture à partir de fetchedAt (voir ProductCacheRepository).
+ */
+@Entity(tableName = "product_cache")
+public class CachedProduct {
+    
+    @PrimaryKey
+    @NonNull
+    public String barcode;
+    public boolean found;
+    
+    // Valeurs normalisées (celles de FoodItem), pour 100g
+    public String name;
+    public String brand;
+    public String imageUrl;
+    public int calories;
+    public float protein;
+    public float carbs;
+    public float fat;
+    
+    public long fetchedAt;
+    
+    public CachedProduct() {
+        this.barcode = "";
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.projet_android.database.entities;
+
+import java.util.Objects;
+
+/**
+ * Résumé d'une journée pour le tableau de bord (pas une table Room).
+ * Rempli par une seule requête sur health_data, daily_nutrition et activities
+ * (voir HealthDataDao.getDailyDashboard).
+ * equals()/hashCode() permettent d'ignorer les émissions identiques.
+ */
+public class DailyDashboard {
+    
+    public String userId;
+    public String date; // Format YYYY-MM-DD
+    
+    // Faux tant qu'aucune ligne health_data n'existe pour ce jour
+    public boolean hasHealthData;
+    
+    // Données de santé (health_data)
+    public int steps;
+    public int calories;
+    public float distance;
+    public int heartRate;
+    public float sleepHours;
+    public int waterGlasses;
+    
+    // Nutrition (daily_nutrition)
+    public float caloriesConsumed;
+    public float protein;
+    public float carbs;
+    public float fat;
+    public int foodItemCount;
+    
+    // Activités (activities)
+    public int activityCount;
+    public int activityCaloriesBurned;
+    public int activityMinutes;
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DailyDashboard that = (DailyDashboard) o;
+        return hasHealthData == that.hasHealthData
+                && steps == that.steps
+                && calories == that.calories
+                && Float.compare(distance, that.distance) == 0
+                && heartRate == that.heartRate
+                && Float.compare(sleepHours, that.sleepHours) == 0
+                && waterGlasses == that.waterGlasses
+                && Float.compare(caloriesConsumed, that.caloriesConsumed) == 0
+                && Float.compare(protein, that.protein) == 0
+                && Float.compare(carbs, that.carbs) == 0
+                && Float.compare(fat, that.fat) == 0
+                && foodItemCount == that.foodItemCount
+                && activityCount == that.activityCount
+                && activityCaloriesBurned == that.activityCaloriesBurned
+                && activityMinutes == that.activityMinutes
+                && Objects.equals(userId, that.userId)
+                && Objects.equals(date, that.date);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, date, hasHealthData, steps, calories, distance, heartRate,
+                sleepHours, waterGlasses, caloriesConsumed, protein, carbs, fat, foodItemCount,
+                activityCount, activityCaloriesBurned, activityMinutes);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.projet_android.database.entities;
+
+/**
+ * Valeur quotidienne d'une seule métrique de health_data (pas une table Room),
+ * pour les graphiques : seules deux colonnes sont lues par jour.
+ */
+public class DailyValue {
+    
+    public static final int METRIC_STEPS = 1;
+    public static final int METRIC_CALORIES = 2;
+    public static final int METRIC_SLEEP = 3;
+    public static final int METRIC_HEART_RATE = 4;
+    
+    public long epochDay;
+    public float value;
+}
@@ -0,0 +1,12 @@
+package com.example.projet_android.database.entities;
+
+/**
+ * Totaux d'une journée utilisés par le calendrier mensuel (pas une table Room)
+ */
+public class DayTotals {
+    
+    public long epochDay;
+    public int steps;
+    public int calories;
+    public float sleepHours;
+}
@@ -1,5 +1,6 @@
 package com.example.projet_android.database.entities;
 
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.PrimaryKey;
 import androidx.room.ForeignKey;
@@ -7,12 +8,15 @@ import androidx.room.Index;
 import androidx.room.Ignore;
 import androidx.annotation.NonNull;
 
+import com.example.projet_android.utils.DayKeys;
+
 @Entity(tableName = "food_logs",
         foreignKeys = @ForeignKey(entity = User.class,
                                 parentColumns = "userId",
                                 childColumns = "userId",
                                 onDelete = ForeignKey.CASCADE),
-        indices = {@Index("userId")})
+        indices = {@Index({"userId", "date", "timestamp"}),
+                   @Index({"userId", "epochDay"})})
 public class FoodLog {
     
     @PrimaryKey(autoGenerate = true)
@@ -21,6 +25,9 @@ public class FoodLog {
     @NonNull
     public String userId;
     public String date; // Format YYYY-MM-DD
+    // Même jour en nombre de jours depuis 1970-01-01 (requêtes par plage)
+    @ColumnInfo(defaultValue = "0")
+    public long epochDay;
     public long timestamp;
     
     // Informations sur l'aliment
@@ -47,6 +54,7 @@ public class FoodLog {
         this();
         this.userId = userId;
         this.date = date;
+        this.epochDay = DayKeys.toEpochDay(date);
         this.foodName = foodName;
     }
 }
@@ -1,5 +1,6 @@
 package com.example.projet_android.database.entities;
 
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.PrimaryKey;
 import androidx.room.ForeignKey;
@@ -7,12 +8,15 @@ import androidx.room.Index;
 import androidx.room.Ignore;
 import androidx.annotation.NonNull;
 
+import com.example.projet_android.utils.DayKeys;
+
 @Entity(tableName = "health_data",
         foreignKeys = @ForeignKey(entity = User.class,
                                 parentColumns = "userId",
                                 childColumns = "userId",
                                 onDelete = ForeignKey.CASCADE),
-        indices = {@Index("userId")})
+        indices = {@Index(value = {"userId", "date"}, unique = true),
+                   @Index({"userId", "epochDay"})})
 public class HealthData {
     
     @PrimaryKey(autoGenerate = true)
@@ -21,6 +25,9 @@ public class HealthData {
     @NonNull
     public String userId;
     public String date; // Format YYYY-MM-DD
+    // Même jour en nombre de jours depuis 1970-01-01 (requêtes par plage)
+    @ColumnInfo(defaultValue = "0")
+    public long epochDay;
     public long timestamp;
     
     // Données d'activité
@@ -47,5 +54,6 @@ public class HealthData {
         this();
         this.userId = userId;
         this.date = date;
+        this.epochDay = DayKeys.toEpochDay(date);
     }
 }
@@ -0,0 +1,36 @@
+package com.example.projet_android.database.entities;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Colonnes communes des tables d'agrégats health_week et health_month.
+ * Une ligne résume une période (semaine du lundi au dimanche, ou mois civil)
+ * à partir de health_data et activities. Maintenues par des triggers SQLite
+ * (voir DatabaseTriggers), ne pas écrire dans ces tables directement.
+ */
+public abstract class HealthRollup {
+    
+    @NonNull
+    public String userId;
+    // Premier et dernier jour de la période (epochDay, bornes incluses)
+    public long bucketStart;
+    public long bucketEnd;
+    
+    // Lignes health_data de la période
+    public int dayCount;
+    public long stepsSum;
+    public Integer stepsMin; // null si aucune ligne health_data
+    public Integer stepsMax;
+    public double sleepSum;
+    public Float sleepMin;
+    public Float sleepMax;
+    
+    // Activités de la période
+    public int activityCount;
+    public long activityCaloriesSum;
+    public long activityMinutesSum;
+    
+    public HealthRollup() {
+        this.userId = "";
+    }
+}
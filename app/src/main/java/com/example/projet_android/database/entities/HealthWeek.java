@@ -0,0 +1,16 @@
+package com.example.projet_android.database.entities;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+
+/**
+ * Agrégats par semaine (lundi à dimanche), voir HealthRollup
+ */
+@Entity(tableName = "health_week",
+        primaryKeys = {"userId", "bucketStart"},
+        foreignKeys = @ForeignKey(entity = User.class,
+                                parentColumns = "userId",
+                                childColumns = "userId",
+                                onDelete = ForeignKey.CASCADE))
+public class HealthWeek extends HealthRollup {
+}
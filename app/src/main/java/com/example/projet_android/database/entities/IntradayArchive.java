@@ -0,0 +1,43 @@
+package com.example.projet_android.database.entities;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Ignore;
+
+/**
+ * Mesures intrajournalières d'une journée passée (jour UTC), encodées par IntradayCodec.
+ * Les jours récents restent en lignes dans intraday_samples ; IntradayRepository
+ * y déplace les jours fermés.
+ */
+@Entity(tableName = "intraday_archive",
+        primaryKeys = {"userId", "metric", "epochDay"},
+        foreignKeys = @ForeignKey(entity = User.class,
+                                parentColumns = "userId",
+                                childColumns = "userId",
+                                onDelete = ForeignKey.CASCADE))
+public class IntradayArchive {
+    
+    @NonNull
+    public String userId;
+    public int metric; // IntradaySample.METRIC_*
+    public long epochDay; // epochMinute / 1440
+    
+    public int sampleCount;
+    @NonNull
+    public byte[] data;
+    
+    public IntradayArchive() {
+        this.userId = "";
+        this.data = new byte[0];
+    }
+    
+    @Ignore
+    public IntradayArchive(@NonNull String userId, int metric, long epochDay, int sampleCount, @NonNull byte[] data) {
+        this.userId = userId;
+        this.metric = metric;
+        this.epochDay = epochDay;
+        this.sampleCount = sampleCount;
+        this.data = data;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.projet_android.database.entities;
+
+/**
+ * Créneau ré-échantillonné d'intraday_samples (pas une table Room).
+ * total pour les métriques additives, average pour la fréquence cardiaque.
+ */
+public class IntradayBucket {
+    
+    public long bucketStart; // Minutes depuis l'epoch (UTC)
+    public float total;
+    public float average;
+    public float minValue;
+    public float maxValue;
+    public int sampleCount;
+}
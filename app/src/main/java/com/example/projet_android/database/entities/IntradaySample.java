@@ -0,0 +1,46 @@
+package com.example.projet_android.database.entities;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Ignore;
+
+/**
+ * Mesure Google Fit à l'intérieur d'une journée, au pas de RESOLUTION_MINUTES.
+ * Une ligne par (utilisateur, métrique, créneau) : relire un créneau le remplace.
+ */
+@Entity(tableName = "intraday_samples",
+        primaryKeys = {"userId", "metric", "epochMinute"},
+        foreignKeys = @ForeignKey(entity = User.class,
+                                parentColumns = "userId",
+                                childColumns = "userId",
+                                onDelete = ForeignKey.CASCADE))
+public class IntradaySample {
+    
+    public static final int RESOLUTION_MINUTES = 15;
+    
+    // Codes des métriques (entiers : plus compacts qu'un texte dans la clé primaire)
+    public static final int METRIC_STEPS = 1;
+    public static final int METRIC_HEART_RATE = 2;
+    public static final int METRIC_CALORIES = 3;
+    
+    @NonNull
+    public String userId;
+    public int metric;
+    public long epochMinute; // Début du créneau, en minutes depuis l'epoch (UTC)
+    
+    // Somme sur le créneau (pas, calories) ou moyenne (fréquence cardiaque)
+    public float value;
+    
+    public IntradaySample() {
+        this.userId = "";
+    }
+    
+    @Ignore
+    public IntradaySample(@NonNull String userId, int metric, long epochMinute, float value) {
+        this.userId = userId;
+        this.metric = metric;
+        this.epochMinute = epochMinute;
+        this.value = value;
+    }
+}
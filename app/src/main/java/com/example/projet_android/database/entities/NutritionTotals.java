@@ -0,0 +1,38 @@
+package com.example.projet_android.database.entities;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.annotation.NonNull;
+
+/**
+ * Totaux nutritionnels d'un utilisateur pour une journée.
+ * Maintenus par des triggers SQLite sur food_logs (voir DatabaseTriggers),
+ * ne pas écrire dans cette table directement.
+ */
+@Entity(tableName = "daily_nutrition",
+        primaryKeys = {"userId", "date"},
+        foreignKeys = @ForeignKey(entity = User.class,
+                                parentColumns = "userId",
+                                childColumns = "userId",
+                                onDelete = ForeignKey.CASCADE))
+public class NutritionTotals {
+    
+    @NonNull
+    public String userId;
+    @NonNull
+    public String date; // Format YYYY-MM-DD
+    
+    // Somme de (valeur pour 100g * quantité / 100) des aliments du jour
+    public float calories;
+    public float protein;
+    public float carbs;
+    public float fat;
+    
+    // Nombre d'aliments enregistrés ce jour-là
+    public int itemCount;
+    
+    public NutritionTotals() {
+        this.userId = "";
+        this.date = "";
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.projet_android.database.entities;
+
+/**
+ * Statistiques d'un utilisateur sur une plage de jours (pas une table Room).
+ * Calculées en combinant les agrégats mensuels, hebdomadaires et les jours
+ * restants aux extrémités (voir RollupQueries).
+ */
+public class RangeStats {
+    
+    public int dayCount;
+    public long stepsSum;
+    public Integer stepsMin;
+    public Integer stepsMax;
+    public double sleepSum;
+    public Float sleepMin;
+    public Float sleepMax;
+    
+    public int activityCount;
+    public long activityCaloriesSum;
+    public long activityMinutesSum;
+    
+    // Mêmes résultats que AVG()/SUM() en SQL : null quand la plage est vide
+    
+    public Float getAverageSteps() {
+        return dayCount > 0 ? (float) stepsSum / dayCount : null;
+    }
+    
+    public Integer getTotalSteps() {
+        return dayCount > 0 ? (int) stepsSum : null;
+    }
+    
+    public Float getAverageSleep() {
+        return dayCount > 0 ? (float) (sleepSum / dayCount) : null;
+    }
+    
+    public Integer getTotalCaloriesBurned() {
+        return activityCount > 0 ? (int) activityCaloriesSum : null;
+    }
+    
+    public Integer getTotalActivityMinutes() {
+        return activityCount > 0 ? (int) activityMinutesSum : null;
+    }
+}
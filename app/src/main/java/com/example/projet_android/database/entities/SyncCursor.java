@@ -0,0 +1,46 @@
+package com.example.projet_android.database.entities;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Ignore;
+
+/**
+ * Point de reprise de la synchronisation Google Fit, par utilisateur et par métrique.
+ * Les données de la métrique ont été lues et fusionnées jusqu'à syncedUntil (exclu) :
+ * la synchronisation suivante ne lit que l'intervalle [syncedUntil, maintenant].
+ */
+@Entity(tableName = "sync_cursors",
+        primaryKeys = {"userId", "metric"},
+        foreignKeys = @ForeignKey(entity = User.class,
+                                parentColumns = "userId",
+                                childColumns = "userId",
+                                onDelete = ForeignKey.CASCADE))
+public class SyncCursor {
+    
+    // Métriques additives : un intervalle lu s'ajoute au total du jour
+    public static final String METRIC_STEPS = "steps";
+    public static final String METRIC_CALORIES = "calories";
+    public static final String METRIC_DISTANCE = "distance";
+    
+    @NonNull
+    public String userId;
+    @NonNull
+    public String metric;
+    
+    public long syncedUntil; // Millisecondes epoch
+    public long updatedAt;
+    
+    public SyncCursor() {
+        this.userId = "";
+        this.metric = "";
+    }
+    
+    @Ignore
+    public SyncCursor(@NonNull String userId, @NonNull String metric, long syncedUntil) {
+        this.userId = userId;
+        this.metric = metric;
+        this.syncedUntil = syncedUntil;
+        this.updatedAt = System.currentTimeMillis();
+    }
+}
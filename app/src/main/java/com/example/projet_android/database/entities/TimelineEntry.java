@@ -0,0 +1,56 @@
+package com.example.projet_android.database.entities;
+
+import java.util.Objects;
+
+/**
+ * Élément de la chronologie d'une journée (pas une table Room) : résumé health_data,
+ * repas (food_logs) ou activité (activities), lus par une seule requête
+ * (voir TimelineDao.getDayTimeline).
+ * (kind, itemId) identifie l'élément d'un rechargement à l'autre ;
+ * equals()/hashCode() servent au calcul des différences de la liste.
+ */
+public class TimelineEntry {
+    
+    public static final int KIND_SUMMARY = 0;
+    public static final int KIND_FOOD = 1;
+    public static final int KIND_ACTIVITY = 2;
+    
+    public int kind;
+    public long itemId;
+    public long time; // Heure du repas / début de l'activité (0 pour le résumé)
+    
+    // Repas : nom et type de repas ; activité : type et description
+    public String label;
+    public String detail;
+    
+    public int calories; // Consommées (repas) ou brûlées (résumé, activité)
+    public float amount; // Quantité en g (repas), durée en min (activité), sommeil en h (résumé)
+    public int steps; // Résumé uniquement
+    public int heartRate; // Résumé et activité, 0 si absent
+    
+    public long getStableId() {
+        // Les id des trois tables se chevauchent : le type occupe les bits de poids fort
+        return ((long) kind << 56) | itemId;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TimelineEntry that = (TimelineEntry) o;
+        return kind == that.kind
+                && itemId == that.itemId
+                && time == that.time
+                && calories == that.calories
+                && Float.compare(amount, that.amount) == 0
+                && steps == that.steps
+                && heartRate == that.heartRate
+                && Objects.equals(label, that.label)
+                && Objects.equals(detail, that.detail);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, itemId, time, label, detail, calories, amount, steps, heartRate);
+    }
+}
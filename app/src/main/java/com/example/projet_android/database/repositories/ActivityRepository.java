@@ -3,37 +3,51 @@ package com.example.projet_android.database.repositories;
 import android.app.Application;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
 
 import com.example.projet_android.database.AppDatabase;
+import com.example.projet_android.database.DatabaseWriteQueue;
+import com.example.projet_android.database.RollupQueries;
 import com.example.projet_android.database.dao.ActivityDao;
+import com.example.projet_android.database.dao.RollupDao;
 import com.example.projet_android.database.entities.Activity;
+import com.example.projet_android.database.entities.RangeStats;
+import com.example.projet_android.utils.DayKeys;
 
 import java.util.List;
 
 public class ActivityRepository {
     
     private ActivityDao activityDao;
+    private RollupDao rollupDao;
+    private DatabaseWriteQueue writeQueue;
     
     public ActivityRepository(Application application) {
         AppDatabase db = AppDatabase.getDatabase(application);
         activityDao = db.activityDao();
+        rollupDao = db.rollupDao();
+        writeQueue = DatabaseWriteQueue.getInstance(application);
     }
     
     // Méthodes d'insertion et mise à jour
     public void insertActivity(Activity activity) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
+            // date peut avoir été modifiée après la construction
+            activity.epochDay = DayKeys.toEpochDay(activity.date);
             activityDao.insertActivity(activity);
         });
     }
     
     public void updateActivity(Activity activity) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
+            // date peut avoir été modifiée après la construction
+            activity.epochDay = DayKeys.toEpochDay(activity.date);
             activityDao.updateActivity(activity);
         });
     }
     
     public void deleteActivity(Activity activity) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
             activityDao.deleteActivity(activity);
         });
     }
@@ -52,7 +66,7 @@ public class ActivityRepository {
     }
     
     public LiveData<List<Activity>> getActivitiesBetweenDates(String userId, String startDate, String endDate) {
-        return activityDao.getActivitiesBetweenDates(userId, startDate, endDate);
+        return activityDao.getActivitiesBetweenDates(userId, DayKeys.toEpochDay(startDate), DayKeys.toEpochDay(endDate));
     }
     
     public LiveData<List<Activity>> getRecentActivities(String userId, int limit) {
@@ -81,11 +95,18 @@ public class ActivityRepository {
     }
     
     public LiveData<Integer> getTotalCaloriesBurnedBetweenDates(String userId, String startDate, String endDate) {
-        return activityDao.getTotalCaloriesBurnedBetweenDates(userId, startDate, endDate);
+        return Transformations.map(getRangeStats(userId, startDate, endDate),
+                RangeStats::getTotalCaloriesBurned);
     }
     
     public LiveData<Integer> getTotalDurationBetweenDates(String userId, String startDate, String endDate) {
-        return activityDao.getTotalDurationBetweenDates(userId, startDate, endDate);
+        return Transformations.map(getRangeStats(userId, startDate, endDate),
+                RangeStats::getTotalActivityMinutes);
+    }
+    
+    private LiveData<RangeStats> getRangeStats(String userId, String startDate, String endDate) {
+        return rollupDao.getRangeStats(RollupQueries.rangeStats(userId,
+                DayKeys.toEpochDay(startDate), DayKeys.toEpochDay(endDate)));
     }
     
     // Méthodes utilitaires
@@ -94,7 +115,7 @@ public class ActivityRepository {
     }
     
     public void deleteActivitiesForDate(String userId, String date) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
             activityDao.deleteActivitiesForDate(userId, date);
         });
     }
@@ -102,7 +123,7 @@ public class ActivityRepository {
     // Méthode pour ajouter une activité rapidement
     public void addActivity(String userId, String date, String activityType, String description,
                            int duration, int caloriesBurned, float distance, int averageHeartRate) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
             Activity activity = new Activity(userId, date, activityType);
             activity.description = description;
             activity.duration = duration;
@@ -121,7 +142,7 @@ public class ActivityRepository {
         activity.startTime = System.currentTimeMillis();
         
         final long[] activityId = {0};
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
             activityId[0] = activityDao.insertActivity(activity);
         });
         
@@ -130,7 +151,7 @@ public class ActivityRepository {
     
     // Méthode pour terminer une activité en temps réel
     public void endActivity(long activityId, int caloriesBurned, float distance, int averageHeartRate) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
             // Cette méthode nécessiterait une requête par ID
             // Pour simplifier, on peut utiliser une mise à jour basée sur l'heure de fin
         });
@@ -5,35 +5,47 @@ import android.app.Application;
 import androidx.lifecycle.LiveData;
 
 import com.example.projet_android.database.AppDatabase;
+import com.example.projet_android.database.DatabaseWriteQueue;
 import com.example.projet_android.database.dao.FoodLogDao;
+import com.example.projet_android.database.dao.NutritionTotalsDao;
 import com.example.projet_android.database.entities.FoodLog;
+import com.example.projet_android.database.entities.NutritionTotals;
+import com.example.projet_android.utils.DayKeys;
 
 import java.util.List;
 
 public class FoodLogRepository {
     
     private FoodLogDao foodLogDao;
+    private NutritionTotalsDao nutritionTotalsDao;
+    private DatabaseWriteQueue writeQueue;
     
     public FoodLogRepository(Application application) {
         AppDatabase db = AppDatabase.getDatabase(application);
         foodLogDao = db.foodLogDao();
+        nutritionTotalsDao = db.nutritionTotalsDao();
+        writeQueue = DatabaseWriteQueue.getInstance(application);
     }
     
     // Méthodes d'insertion et mise à jour
     public void insertFoodLog(FoodLog foodLog) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
+            // date peut avoir été modifiée après la construction
+            foodLog.epochDay = DayKeys.toEpochDay(foodLog.date);
             foodLogDao.insertFoodLog(foodLog);
         });
     }
     
     public void updateFoodLog(FoodLog foodLog) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
+            // date peut avoir été modifiée après la construction
+            foodLog.epochDay = DayKeys.toEpochDay(foodLog.date);
             foodLogDao.updateFoodLog(foodLog);
         });
     }
     
     public void deleteFoodLog(FoodLog foodLog) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
             foodLogDao.deleteFoodLog(foodLog);
         });
     }
@@ -56,7 +68,7 @@ public class FoodLogRepository {
     }
     
     public LiveData<List<FoodLog>> getFoodLogsBetweenDates(String userId, String startDate, String endDate) {
-        return foodLogDao.getFoodLogsBetweenDates(userId, startDate, endDate);
+        return foodLogDao.getFoodLogsBetweenDates(userId, DayKeys.toEpochDay(startDate), DayKeys.toEpochDay(endDate));
     }
     
     public LiveData<List<FoodLog>> getRecentFoodLogs(String userId, int limit) {
@@ -80,13 +92,22 @@ public class FoodLogRepository {
         return foodLogDao.getTotalFatForDate(userId, date);
     }
     
+    // Totaux du jour maintenus par triggers (une lecture par clé au lieu de quatre SUM)
+    public LiveData<NutritionTotals> getNutritionTotalsForDate(String userId, String date) {
+        return nutritionTotalsDao.getNutritionTotals(userId, date);
+    }
+    
+    public NutritionTotals getNutritionTotalsForDateSync(String userId, String date) {
+        return nutritionTotalsDao.getNutritionTotalsSync(userId, date);
+    }
+    
     // Méthodes utilitaires
     public FoodLog getLastFoodByBarcode(String userId, String barcode) {
         return foodLogDao.getLastFoodByBarcode(userId, barcode);
     }
     
     public void deleteFoodLogsForDate(String userId, String date) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
             foodLogDao.deleteFoodLogsForDate(userId, date);
         });
     }
@@ -98,7 +119,7 @@ public class FoodLogRepository {
     // Méthode pour ajouter un aliment rapidement
     public void addFoodItem(String userId, String date, String foodName, String mealType, 
                            int calories, float protein, float carbs, float fat, float quantity) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
             FoodLog foodLog = new FoodLog(userId, date, foodName);
             foodLog.mealType = mealType;
             foodLog.calories = calories;
@@ -114,7 +135,7 @@ public class FoodLogRepository {
     public void addScannedFood(String userId, String date, String foodName, String brand, 
                               String barcode, String imageUrl, String mealType,
                               int calories, float protein, float carbs, float fat, float quantity) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
             FoodLog foodLog = new FoodLog(userId, date, foodName);
             foodLog.brand = brand;
             foodLog.barcode = barcode;
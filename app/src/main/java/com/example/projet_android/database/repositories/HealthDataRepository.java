@@ -3,41 +3,53 @@ package com.example.projet_android.database.repositories;
 import android.app.Application;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
 
 import com.example.projet_android.database.AppDatabase;
+import com.example.projet_android.database.DatabaseWriteQueue;
+import com.example.projet_android.database.RollupQueries;
 import com.example.projet_android.database.dao.HealthDataDao;
+import com.example.projet_android.database.dao.RollupDao;
+import com.example.projet_android.database.entities.DailyDashboard;
+import com.example.projet_android.database.entities.DailyValue;
 import com.example.projet_android.database.entities.HealthData;
+import com.example.projet_android.database.entities.RangeStats;
+import com.example.projet_android.utils.DayKeys;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 
 public class HealthDataRepository {
     
     private HealthDataDao healthDataDao;
-    private SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
+    private RollupDao rollupDao;
+    private DatabaseWriteQueue writeQueue;
     
     public HealthDataRepository(Application application) {
         AppDatabase db = AppDatabase.getDatabase(application);
         healthDataDao = db.healthDataDao();
+        rollupDao = db.rollupDao();
+        writeQueue = DatabaseWriteQueue.getInstance(application);
     }
     
     // Méthodes d'insertion et mise à jour
     public void insertHealthData(HealthData healthData) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
+            // date peut avoir été modifiée après la construction
+            healthData.epochDay = DayKeys.toEpochDay(healthData.date);
             healthDataDao.insertHealthData(healthData);
         });
     }
     
     public void updateHealthData(HealthData healthData) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
+            // date peut avoir été modifiée après la construction
+            healthData.epochDay = DayKeys.toEpochDay(healthData.date);
             healthDataDao.updateHealthData(healthData);
         });
     }
     
     public void deleteHealthData(HealthData healthData) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
             healthDataDao.deleteHealthData(healthData);
         });
     }
@@ -51,12 +63,28 @@ public class HealthDataRepository {
         return healthDataDao.getHealthDataForDate(userId, date);
     }
     
+    public LiveData<DailyDashboard> getDailyDashboard(String userId, String date) {
+        return healthDataDao.getDailyDashboard(userId, date);
+    }
+    
+    public DailyDashboard getDailyDashboardSync(String userId, String date) {
+        return healthDataDao.getDailyDashboardSync(userId, date);
+    }
+    
     public HealthData getHealthDataForDateSync(String userId, String date) {
         return healthDataDao.getHealthDataForDateSync(userId, date);
     }
     
     public LiveData<List<HealthData>> getHealthDataBetweenDates(String userId, String startDate, String endDate) {
-        return healthDataDao.getHealthDataBetweenDates(userId, startDate, endDate);
+        return healthDataDao.getHealthDataBetweenDates(userId, DayKeys.toEpochDay(startDate), DayKeys.toEpochDay(endDate));
+    }
+    
+    public List<DailyValue> getDailySeriesSync(String userId, int metric, long startDay, long endDay) {
+        return healthDataDao.getDailySeriesSync(userId, metric, startDay, endDay);
+    }
+    
+    public Long getFirstEpochDaySync(String userId) {
+        return healthDataDao.getFirstEpochDaySync(userId);
     }
     
     public LiveData<List<HealthData>> getRecentHealthData(String userId, int limit) {
@@ -65,63 +93,79 @@ public class HealthDataRepository {
     
     // Méthodes de mise à jour spécifiques
     public void updateActivityData(String userId, String date, int steps, int calories, float distance) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
-            healthDataDao.updateActivityData(userId, date, steps, calories, distance);
+        writeQueue.execute(() -> {
+            healthDataDao.upsertActivityData(userId, date, steps, calories, distance);
+        });
+    }
+    
+    public void addActivityDelta(String userId, String date, int steps, int calories, float distance) {
+        writeQueue.execute(() -> {
+            healthDataDao.upsertActivityDelta(userId, date, steps, calories, distance);
+        });
+    }
+    
+    public void updateVitals(String userId, String date, int heartRate, float sleepHours) {
+        writeQueue.execute(() -> {
+            healthDataDao.upsertVitals(userId, date, heartRate, sleepHours);
         });
     }
     
     public void updateSleepData(String userId, String date, float sleepHours) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
-            healthDataDao.updateSleepData(userId, date, sleepHours);
+        writeQueue.execute(() -> {
+            healthDataDao.upsertSleepData(userId, date, sleepHours);
         });
     }
     
     public void updateHeartRate(String userId, String date, int heartRate) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
-            healthDataDao.updateHeartRate(userId, date, heartRate);
+        writeQueue.execute(() -> {
+            healthDataDao.upsertHeartRate(userId, date, heartRate);
         });
     }
     
     public void updateWaterIntake(String userId, String date, int waterGlasses) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
-            healthDataDao.updateWaterIntake(userId, date, waterGlasses);
+        writeQueue.execute(() -> {
+            healthDataDao.upsertWaterIntake(userId, date, waterGlasses);
         });
     }
     
     public void updateNutritionData(String userId, String date, int calories, float protein, float carbs, float fat) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
-            healthDataDao.updateNutritionData(userId, date, calories, protein, carbs, fat);
+        writeQueue.execute(() -> {
+            healthDataDao.upsertNutritionData(userId, date, calories, protein, carbs, fat);
         });
     }
     
     // Méthodes utilitaires pour créer/obtenir les données du jour
     public void createOrUpdateTodaysData(String userId, int steps, int calories, float distance) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
-            String today = dateFormat.format(new Date());
-            HealthData existingData = healthDataDao.getHealthDataForDateSync(userId, today);
-            
-            if (existingData == null) {
-                HealthData newData = new HealthData(userId, today);
-                newData.steps = steps;
-                newData.calories = calories;
-                newData.distance = distance;
-                healthDataDao.insertHealthData(newData);
-            } else {
-                healthDataDao.updateActivityData(userId, today, steps, calories, distance);
-            }
+        writeQueue.execute(() -> {
+            String today = DayKeys.today();
+            healthDataDao.upsertActivityData(userId, today, steps, calories, distance);
         });
     }
     
-    // Méthodes de statistiques
+    // Méthodes de statistiques (agrégats health_week / health_month + jours aux extrémités)
+    public LiveData<RangeStats> getRangeStats(String userId, String startDate, String endDate) {
+        return rollupDao.getRangeStats(RollupQueries.rangeStats(userId,
+                DayKeys.toEpochDay(startDate), DayKeys.toEpochDay(endDate)));
+    }
+    
+    public RangeStats getRangeStatsSync(String userId, String startDate, String endDate) {
+        return rollupDao.getRangeStatsSync(RollupQueries.rangeStats(userId,
+                DayKeys.toEpochDay(startDate), DayKeys.toEpochDay(endDate)));
+    }
+    
+    // "Depuis startDate" : jusqu'à aujourd'hui, il n'y a pas de données dans le futur
     public LiveData<Float> getAverageSteps(String userId, String startDate) {
-        return healthDataDao.getAverageSteps(userId, startDate);
+        return Transformations.map(getRangeStats(userId, startDate, DayKeys.today()),
+                RangeStats::getAverageSteps);
     }
     
     public LiveData<Integer> getTotalStepsBetweenDates(String userId, String startDate, String endDate) {
-        return healthDataDao.getTotalStepsBetweenDates(userId, startDate, endDate);
+        return Transformations.map(getRangeStats(userId, startDate, endDate),
+                RangeStats::getTotalSteps);
     }
     
     public LiveData<Float> getAverageSleep(String userId, String startDate) {
-        return healthDataDao.getAverageSleep(userId, startDate);
+        return Transformations.map(getRangeStats(userId, startDate, DayKeys.today()),
+                RangeStats::getAverageSleep);
     }
 }
@@ -0,0 +1,268 @@
+package com.example.projet_android.database.repositories;
+
+import android.app.Application;
+import android.os.Process;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.room.InvalidationTracker;
+
+import com.example.projet_android.database.AppDatabase;
+import com.example.projet_android.database.DatabaseWriteQueue;
+import com.example.projet_android.database.IntradayCodec;
+import com.example.projet_android.database.dao.IntradayArchiveDao;
+import com.example.projet_android.database.dao.IntradaySampleDao;
+import com.example.projet_android.database.entities.IntradayArchive;
+import com.example.projet_android.database.entities.IntradayBucket;
+import com.example.projet_android.database.entities.IntradaySample;
+import com.example.projet_android.utils.DayKeys;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+public class IntradayRepository {
+    
+    // Jours gardés en lignes (modifiables par une synchronisation) avant archivage
+    public static final int ROW_RETENTION_DAYS = 7;
+    private static final long MINUTES_PER_DAY = 1440;
+    private static final int[] METRICS = {
+            IntradaySample.METRIC_STEPS, IntradaySample.METRIC_HEART_RATE, IntradaySample.METRIC_CALORIES
+    };
+    
+    // Décodage des archives : un thread de fond à part, pour ne pas occuper
+    // les threads de lecture de la base pendant le décodage d'une journée
+    private static final ExecutorService decodeExecutor = Executors.newSingleThreadExecutor(runnable ->
+            new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, "intraday-decode"));
+    
+    private AppDatabase database;
+    private IntradaySampleDao intradaySampleDao;
+    private IntradayArchiveDao intradayArchiveDao;
+    private DatabaseWriteQueue writeQueue;
+    
+    public IntradayRepository(Application application) {
+        AppDatabase db = AppDatabase.getDatabase(application);
+        database = db;
+        intradaySampleDao = db.intradaySampleDao();
+        intradayArchiveDao = db.intradayArchiveDao();
+        writeQueue = DatabaseWriteQueue.getInstance(application);
+    }
+    
+    public void insertSamples(List<IntradaySample> samples) {
+        if (samples.isEmpty()) {
+            return;
+        }
+        writeQueue.execute(() -> {
+            intradaySampleDao.insertSamples(samples);
+        });
+    }
+    
+    /**
+     * Déplace les jours fermés (plus anciens que ROW_RETENTION_DAYS) dans intraday_archive.
+     * Des lignes arrivées après coup pour un jour déjà archivé (rattrapage) sont fusionnées
+     * avec l'archive existante, les lignes l'emportant.
+     */
+    public void archiveClosedDays(String userId) {
+        writeQueue.execute(() -> {
+            long cutoffDay = DayKeys.todayDate().toEpochDay() - ROW_RETENTION_DAYS;
+            for (int metric : METRICS) {
+                for (Long day : intradaySampleDao.getDaysBeforeSync(userId, metric, cutoffDay * MINUTES_PER_DAY)) {
+                    archiveDay(userId, metric, day);
+                }
+            }
+        });
+    }
+    
+    private void archiveDay(String userId, int metric, long day) {
+        long start = day * MINUTES_PER_DAY;
+        long end = start + MINUTES_PER_DAY;
+        List<IntradaySample> rows = intradaySampleDao.getSamplesSync(userId, metric, start, end);
+        if (rows.isEmpty()) {
+            return;
+        }
+        
+        List<IntradaySample> samples = rows;
+        IntradayArchive existing = intradayArchiveDao.getArchiveSync(userId, metric, day);
+        if (existing != null) {
+            TreeMap<Long, Float> merged = new TreeMap<>();
+            decodeInto(existing, start, end, merged);
+            for (IntradaySample row : rows) {
+                merged.put(row.epochMinute, row.value);
+            }
+            samples = toSamples(userId, metric, merged);
+        }
+        
+        intradayArchiveDao.insertArchive(new IntradayArchive(userId, metric, day, samples.size(),
+                IntradayCodec.encode(samples, IntradayCodec.scaleFor(metric))));
+        intradaySampleDao.deleteSamples(userId, metric, start, end);
+    }
+    
+    /**
+     * Mesures d'une journée locale, lignes et archives confondues (hors du thread principal)
+     */
+    public List<IntradaySample> getSamplesForDateSync(String userId, int metric, String date) {
+        long[] range = minuteRange(date);
+        List<IntradaySample> rows = intradaySampleDao.getSamplesSync(userId, metric, range[0], range[1]);
+        // Une journée locale chevauche au plus deux jours UTC
+        List<IntradayArchive> archives = intradayArchiveDao.getArchivesSync(userId, metric,
+                range[0] / MINUTES_PER_DAY, (range[1] - 1) / MINUTES_PER_DAY);
+        if (archives.isEmpty()) {
+            return rows;
+        }
+        
+        TreeMap<Long, Float> merged = new TreeMap<>();
+        for (IntradayArchive archive : archives) {
+            decodeInto(archive, range[0], range[1], merged);
+        }
+        for (IntradaySample row : rows) {
+            merged.put(row.epochMinute, row.value);
+        }
+        return toSamples(userId, metric, merged);
+    }
+    
+    /**
+     * Créneaux de bucketMinutes pour une journée (60 pour un graphique horaire).
+     * Les jours récents sont observés en SQL ; les jours archivés sont décodés en
+     * arrière-plan, à nouveau après chaque écriture dans les tables intraday tant
+     * que le résultat est observé (fusion d'un rattrapage dans l'archive).
+     */
+    public LiveData<List<IntradayBucket>> getDownsampledForDate(String userId, int metric, String date,
+                                                                int bucketMinutes) {
+        if (isInRowRetention(date)) {
+            long[] range = minuteRange(date);
+            return intradaySampleDao.getDownsampled(userId, metric, range[0], range[1],
+                    bucketMinutes, (int) range[2]);
+        }
+        
+        return new ArchivedDayLiveData(() -> getDownsampledForDateSync(userId, metric, date, bucketMinutes));
+    }
+    
+    public List<IntradayBucket> getDownsampledForDateSync(String userId, int metric, String date,
+                                                          int bucketMinutes) {
+        long[] range = minuteRange(date);
+        if (isInRowRetention(date)) {
+            return intradaySampleDao.getDownsampledSync(userId, metric, range[0], range[1],
+                    bucketMinutes, (int) range[2]);
+        }
+        return downsample(getSamplesForDateSync(userId, metric, date), bucketMinutes, range[2]);
+    }
+    
+    /**
+     * Résultat recalculé sur decodeExecutor quand il devient observé puis à chaque
+     * invalidation Room des tables intraday, comme une requête LiveData de Room
+     */
+    private class ArchivedDayLiveData extends LiveData<List<IntradayBucket>> {
+        
+        private final Supplier<List<IntradayBucket>> loader;
+        // Un seul recalcul en attente : des invalidations rapprochées n'en déclenchent qu'un
+        private final AtomicBoolean reloadPending = new AtomicBoolean();
+        private final InvalidationTracker.Observer observer =
+                new InvalidationTracker.Observer("intraday_archive", "intraday_samples") {
+                    @Override
+                    public void onInvalidated(@NonNull Set<String> tables) {
+                        reload();
+                    }
+                };
+        
+        ArchivedDayLiveData(Supplier<List<IntradayBucket>> loader) {
+            this.loader = loader;
+        }
+        
+        @Override
+        protected void onActive() {
+            // addObserver() accède à la base : pas sur le thread principal
+            decodeExecutor.execute(() -> database.getInvalidationTracker().addObserver(observer));
+            reload();
+        }
+        
+        @Override
+        protected void onInactive() {
+            decodeExecutor.execute(() -> database.getInvalidationTracker().removeObserver(observer));
+        }
+        
+        private void reload() {
+            if (reloadPending.compareAndSet(false, true)) {
+                decodeExecutor.execute(() -> {
+                    reloadPending.set(false);
+                    postValue(loader.get());
+                });
+            }
+        }
+    }
+    
+    // Aucun jour UTC chevauchant la journée n'a pu être archivé (un jour de marge pour le fuseau)
+    private static boolean isInRowRetention(String date) {
+        return DayKeys.toEpochDay(date) > DayKeys.todayDate().toEpochDay() - ROW_RETENTION_DAYS;
+    }
+    
+    private static void decodeInto(IntradayArchive archive, long startMinute, long endMinute,
+                                   Map<Long, Float> out) {
+        IntradayCodec.Reader reader = IntradayCodec.reader(archive.data);
+        while (reader.next()) {
+            long minute = reader.minute();
+            if (minute >= endMinute) {
+                break;
+            }
+            if (minute >= startMinute) {
+                out.put(minute, reader.value());
+            }
+        }
+    }
+    
+    private static List<IntradaySample> toSamples(String userId, int metric, TreeMap<Long, Float> values) {
+        List<IntradaySample> samples = new ArrayList<>(values.size());
+        for (Map.Entry<Long, Float> entry : values.entrySet()) {
+            samples.add(new IntradaySample(userId, metric, entry.getKey(), entry.getValue()));
+        }
+        return samples;
+    }
+    
+    // Même regroupement que IntradaySampleDao.DOWNSAMPLE, pour les jours archivés
+    private static List<IntradayBucket> downsample(List<IntradaySample> samples, int bucketMinutes,
+                                                   long offsetMinutes) {
+        List<IntradayBucket> buckets = new ArrayList<>();
+        IntradayBucket current = null;
+        for (IntradaySample sample : samples) {
+            long bucketStart = ((sample.epochMinute + offsetMinutes) / bucketMinutes) * bucketMinutes - offsetMinutes;
+            if (current == null || current.bucketStart != bucketStart) {
+                current = new IntradayBucket();
+                current.bucketStart = bucketStart;
+                current.minValue = sample.value;
+                current.maxValue = sample.value;
+                buckets.add(current);
+            }
+            current.total += sample.value;
+            current.minValue = Math.min(current.minValue, sample.value);
+            current.maxValue = Math.max(current.maxValue, sample.value);
+            current.sampleCount++;
+            current.average = current.total / current.sampleCount;
+        }
+        return buckets;
+    }
+    
+    // {début, fin, décalage du fuseau} de la journée locale, en minutes
+    private static long[] minuteRange(String date) {
+        LocalDate day = DayKeys.parse(date);
+        ZoneId zone = ZoneId.systemDefault();
+        ZonedDateTime start = day.atStartOfDay(zone);
+        ZonedDateTime end = day.plusDays(1).atStartOfDay(zone);
+        return new long[] {
+                TimeUnit.SECONDS.toMinutes(start.toEpochSecond()),
+                TimeUnit.SECONDS.toMinutes(end.toEpochSecond()),
+                TimeUnit.SECONDS.toMinutes(start.getOffset().getTotalSeconds())
+        };
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.projet_android.database.repositories;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.room.InvalidationTracker;
+
+import com.example.projet_android.database.AppDatabase;
+import com.example.projet_android.database.dao.HealthDataDao;
+import com.example.projet_android.models.MonthSummary;
+import com.example.projet_android.utils.DayKeys;
+
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Résumés mensuels du calendrier : une requête par mois, gardés en LRU par
+ * (utilisateur, yyyy-MM). Une écriture dans health_data n'invalide que les mois
+ * touchés : le mois courant (saisies du jour) et ceux signalés par markDirty()
+ * avant l'écriture (jours rattrapés par une synchronisation, date explicite).
+ * Les mois invalidés sont signalés aux écrans qui les affichent (getInvalidations()).
+ */
+public class MonthSummaryRepository {
+    
+    // Deux ans d'historique : quelques Ko par mois
+    private static final int CACHE_MONTHS = 24;
+    
+    private HealthDataDao healthDataDao;
+    private final LruCache<String, MonthSummary> cache = new LruCache<>(CACHE_MONTHS);
+    private final Map<String, CompletableFuture<MonthSummary>> inFlight = new ConcurrentHashMap<>();
+    // Incrémentée à chaque invalidation du mois : un chargement commencé avant est périmé
+    private final Map<YearMonth, Integer> generations = new ConcurrentHashMap<>();
+    // Mois d'écritures en attente (autres que le mois courant)
+    private final Set<YearMonth> dirtyMonths = ConcurrentHashMap.newKeySet();
+    private final MutableLiveData<Set<YearMonth>> invalidations = new MutableLiveData<>();
+    // Mois invalidés pas encore émis : postValue() ne garderait que le dernier ensemble
+    private final Set<YearMonth> pendingInvalidations = new HashSet<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    
+    public MonthSummaryRepository(Application application) {
+        AppDatabase db = AppDatabase.getDatabase(application);
+        healthDataDao = db.healthDataDao();
+        
+        InvalidationTracker.Observer observer = new InvalidationTracker.Observer("health_data") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                Set<YearMonth> months = new HashSet<>();
+                months.add(YearMonth.from(DayKeys.todayDate()));
+                for (YearMonth month : dirtyMonths) {
+                    dirtyMonths.remove(month);
+                    months.add(month);
+                }
+                for (YearMonth month : months) {
+                    invalidate(month);
+                }
+                publish(months);
+            }
+        };
+        // addObserver() accède à la base : pas sur le thread principal
+        AppDatabase.databaseWriteExecutor.execute(() -> db.getInvalidationTracker().addObserver(observer));
+    }
+    
+    /**
+     * Mois invalidés par la dernière écriture : s'ils sont affichés, ils sont à relire
+     */
+    public LiveData<Set<YearMonth>> getInvalidations() {
+        return invalidations;
+    }
+    
+    /**
+     * À appeler avant une écriture de health_data pour une date hors du mois courant
+     */
+    public void markDirty(String date) {
+        dirtyMonths.add(YearMonth.from(DayKeys.parse(date)));
+    }
+    
+    /**
+     * Version du mois : un résultat chargé sous une version antérieure est périmé
+     */
+    public int getGeneration(YearMonth month) {
+        Integer generation = generations.get(month);
+        return generation != null ? generation : 0;
+    }
+    
+    public MonthSummary getCached(String userId, YearMonth month) {
+        return cache.get(key(userId, month));
+    }
+    
+    /**
+     * Résumé du mois, depuis le cache ou lu hors du thread principal.
+     * Les demandes simultanées d'un même mois partagent la même lecture.
+     */
+    public CompletableFuture<MonthSummary> load(String userId, YearMonth month) {
+        String key = key(userId, month);
+        MonthSummary cached = cache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        
+        CompletableFuture<MonthSummary> created = new CompletableFuture<>();
+        CompletableFuture<MonthSummary> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        
+        int generation = getGeneration(month);
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            try {
+                MonthSummary summary = MonthSummary.from(month, healthDataDao.getDayTotalsSync(userId,
+                        month.atDay(1).toEpochDay(), month.atEndOfMonth().toEpochDay()));
+                if (generation == getGeneration(month)) {
+                    cache.put(key, summary);
+                }
+                inFlight.remove(key, created);
+                created.complete(summary);
+            } catch (RuntimeException e) {
+                inFlight.remove(key, created);
+                created.completeExceptionally(e);
+            }
+        });
+        return created;
+    }
+    
+    private void publish(Set<YearMonth> months) {
+        synchronized (pendingInvalidations) {
+            boolean scheduled = !pendingInvalidations.isEmpty();
+            pendingInvalidations.addAll(months);
+            if (scheduled) {
+                return;
+            }
+        }
+        mainHandler.post(() -> {
+            Set<YearMonth> published;
+            synchronized (pendingInvalidations) {
+                published = new HashSet<>(pendingInvalidations);
+                pendingInvalidations.clear();
+            }
+            invalidations.setValue(published);
+        });
+    }
+    
+    private void invalidate(YearMonth month) {
+        generations.merge(month, 1, Integer::sum);
+        String suffix = "/" + month;
+        for (String key : cache.snapshot().keySet()) {
+            if (key.endsWith(suffix)) {
+                cache.remove(key);
+            }
+        }
+        inFlight.keySet().removeIf(key -> key.endsWith(suffix));
+    }
+    
+    private static String key(String userId, YearMonth month) {
+        return userId + "/" + month; // YearMonth.toString() : yyyy-MM
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.projet_android.database.repositories;
+
+import android.app.Application;
+import android.util.Log;
+
+import com.example.projet_android.database.AppDatabase;
+import com.example.projet_android.database.DatabaseWriteQueue;
+import com.example.projet_android.database.dao.ProductCacheDao;
+import com.example.projet_android.database.entities.CachedProduct;
+
+import java.util.concurrent.TimeUnit;
+
+public class ProductCacheRepository {
+    
+    private static final String TAG = "ProductCacheRepository";
+    // Un produit change rarement ; un code inconnu peut être ajouté à OpenFoodFacts
+    public static final long FOUND_TTL_MS = TimeUnit.DAYS.toMillis(30);
+    public static final long NOT_FOUND_TTL_MS = TimeUnit.DAYS.toMillis(1);
+    // Au-delà, une entrée n'est plus servie, même en attendant sa revalidation
+    public static final long MAX_STALE_MS = TimeUnit.DAYS.toMillis(365);
+    
+    private ProductCacheDao productCacheDao;
+    private DatabaseWriteQueue writeQueue;
+    
+    public ProductCacheRepository(Application application) {
+        AppDatabase db = AppDatabase.getDatabase(application);
+        productCacheDao = db.productCacheDao();
+        writeQueue = DatabaseWriteQueue.getInstance(application);
+    }
+    
+    /**
+     * Entrée utilisable (fraîche ou périmée), null si absente ou trop ancienne
+     */
+    public CachedProduct getProductSync(String barcode) {
+        CachedProduct product = productCacheDao.getProductSync(barcode);
+        if (product == null || System.currentTimeMillis() - product.fetchedAt > MAX_STALE_MS) {
+            return null;
+        }
+        return product;
+    }
+    
+    public static boolean isFresh(CachedProduct product) {
+        long ttl = product.found ? FOUND_TTL_MS : NOT_FOUND_TTL_MS;
+        return System.currentTimeMillis() - product.fetchedAt < ttl;
+    }
+    
+    public void putProduct(CachedProduct product) {
+        product.fetchedAt = System.currentTimeMillis();
+        // Facultatif : si la file est pleine, le produit sera simplement redemandé
+        if (!writeQueue.tryExecute(() -> productCacheDao.upsertProduct(product))) {
+            Log.w(TAG, "File d'écriture pleine, produit non mis en cache: " + product.barcode);
+        }
+    }
+    
+    public void putNotFound(String barcode) {
+        CachedProduct product = new CachedProduct();
+        product.barcode = barcode;
+        product.found = false;
+        putProduct(product);
+    }
+    
+    public void pruneExpired() {
+        long before = System.currentTimeMillis() - MAX_STALE_MS;
+        // Refait à la prochaine synchronisation si la file est pleine
+        writeQueue.tryExecute(() -> productCacheDao.deleteFetchedBefore(before));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.projet_android.database.repositories;
+
+import android.app.Application;
+
+import com.example.projet_android.database.AppDatabase;
+import com.example.projet_android.database.DatabaseWriteQueue;
+import com.example.projet_android.database.dao.SyncCursorDao;
+import com.example.projet_android.database.entities.SyncCursor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SyncCursorRepository {
+    
+    private SyncCursorDao syncCursorDao;
+    private DatabaseWriteQueue writeQueue;
+    
+    public SyncCursorRepository(Application application) {
+        AppDatabase db = AppDatabase.getDatabase(application);
+        syncCursorDao = db.syncCursorDao();
+        writeQueue = DatabaseWriteQueue.getInstance(application);
+    }
+    
+    /**
+     * Curseurs de l'utilisateur indexés par métrique (métrique absente : jamais synchronisée)
+     */
+    public Map<String, Long> getCursorsSync(String userId) {
+        Map<String, Long> cursors = new HashMap<>();
+        for (SyncCursor cursor : syncCursorDao.getCursorsSync(userId)) {
+            cursors.put(cursor.metric, cursor.syncedUntil);
+        }
+        return cursors;
+    }
+    
+    // Appelée depuis une écriture de la file : s'exécute dans la même transaction
+    public void advanceCursors(String userId, List<String> metrics, long syncedUntil) {
+        writeQueue.execute(() -> {
+            List<SyncCursor> cursors = new ArrayList<>(metrics.size());
+            for (String metric : metrics) {
+                cursors.add(new SyncCursor(userId, metric, syncedUntil));
+            }
+            syncCursorDao.upsertCursors(cursors);
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.projet_android.database.repositories;
+
+import android.app.Application;
+
+import androidx.lifecycle.LiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+
+import com.example.projet_android.database.AppDatabase;
+import com.example.projet_android.database.dao.TimelineDao;
+import com.example.projet_android.database.entities.TimelineEntry;
+
+public class TimelineRepository {
+    
+    // Une page remplit largement un écran ; la suivante est chargée à mi-page
+    private static final int PAGE_SIZE = 40;
+    private static final int PREFETCH_DISTANCE = 20;
+    
+    private TimelineDao timelineDao;
+    
+    public TimelineRepository(Application application) {
+        AppDatabase db = AppDatabase.getDatabase(application);
+        timelineDao = db.timelineDao();
+    }
+    
+    /**
+     * Chronologie paginée d'une journée, rechargée par Room à chaque écriture
+     * dans health_data, food_logs ou activities
+     */
+    public LiveData<PagingData<TimelineEntry>> getDayTimeline(String userId, String date) {
+        Pager<Integer, TimelineEntry> pager = new Pager<>(
+                new PagingConfig(PAGE_SIZE, PREFETCH_DISTANCE, false),
+                () -> timelineDao.getDayTimeline(userId, date));
+        return PagingLiveData.getLiveData(pager);
+    }
+}
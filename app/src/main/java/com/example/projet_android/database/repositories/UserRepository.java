@@ -1,37 +1,48 @@
 package com.example.projet_android.database.repositories;
 
 import android.app.Application;
+import android.util.Log;
 
 import androidx.lifecycle.LiveData;
 
 import com.example.projet_android.database.AppDatabase;
+import com.example.projet_android.database.DatabaseWriteQueue;
 import com.example.projet_android.database.dao.UserDao;
 import com.example.projet_android.database.entities.User;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class UserRepository {
     
     private UserDao userDao;
+    private DatabaseWriteQueue writeQueue;
+    
+    // Utilisateurs dont la ligne existe déjà en base (évite une requête par écriture)
+    private final Set<String> knownUserIds = ConcurrentHashMap.newKeySet();
     
     public UserRepository(Application application) {
         AppDatabase db = AppDatabase.getDatabase(application);
         userDao = db.userDao();
+        writeQueue = DatabaseWriteQueue.getInstance(application);
     }
     
     // Méthodes synchrones (pour les opérations en arrière-plan)
     public void insertUser(User user) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.submit(() -> {
             userDao.insertUser(user);
-        });
+        }).thenRun(() -> knownUserIds.add(user.userId));
     }
     
     public void updateUser(User user) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
             userDao.updateUser(user);
         });
     }
     
     public void deleteUser(User user) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        knownUserIds.remove(user.userId);
+        writeQueue.execute(() -> {
             userDao.deleteUser(user);
         });
     }
@@ -51,32 +62,84 @@ public class UserRepository {
     
     // Méthodes de mise à jour spécifiques
     public void updateTimestamp(String userId, long timestamp) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
             userDao.updateTimestamp(userId, timestamp);
         });
     }
     
     public void updateGoals(String userId, int stepsGoal, int caloriesGoal, float sleepGoal) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
             userDao.updateGoals(userId, stepsGoal, caloriesGoal, sleepGoal);
         });
     }
     
     public void updateNotificationSettings(String userId, boolean enabled) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
             userDao.updateNotificationSettings(userId, enabled);
         });
     }
     
     public void updateWaterReminderSettings(String userId, boolean enabled) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
             userDao.updateWaterReminderSettings(userId, enabled);
         });
     }
     
     public void updatePhysicalData(String userId, float weight, float height) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        writeQueue.execute(() -> {
             userDao.updatePhysicalData(userId, weight, height);
         });
     }
+    
+    // ================== CACHE DES UTILISATEURS CONNUS ==================
+    
+    /**
+     * Charger en arrière-plan la liste des utilisateurs existants
+     */
+    public void warmKnownUsers() {
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            try {
+                knownUserIds.addAll(userDao.getAllUserIds());
+            } catch (Exception e) {
+                Log.e("UserRepository", "Error loading users: " + e.getMessage());
+            }
+        });
+    }
+    
+    public boolean isKnownUser(String userId) {
+        return knownUserIds.contains(userId);
+    }
+    
+    /**
+     * Créer l'utilisateur s'il n'existe pas encore.
+     * Doit être appelée depuis une écriture de la file : l'insertion fait partie
+     * de la même transaction que l'écriture qui dépend de l'utilisateur.
+     */
+    public void ensureUserExistsSync(String userId) {
+        if (knownUserIds.contains(userId)) {
+            return;
+        }
+        
+        writeQueue.submit(() -> {
+            User newUser = new User();
+            newUser.userId = userId;
+            newUser.email = ""; // Will be updated later
+            newUser.displayName = "User"; // Default name
+            newUser.authProvider = "demo";
+            
+            if (userDao.insertUserIfAbsent(newUser) != -1) {
+                Log.d("UserRepository", "User created: " + userId);
+            }
+        }).thenRun(() -> knownUserIds.add(userId));
+    }
+    
+    public void forgetKnownUser(String userId) {
+        if (userId != null) {
+            knownUserIds.remove(userId);
+        }
+    }
+    
+    public void forgetAllKnownUsers() {
+        knownUserIds.clear();
+    }
 }
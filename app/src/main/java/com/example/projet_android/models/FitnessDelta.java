@@ -0,0 +1,59 @@
+package com.example.projet_android.models;
+
+import java.util.List;
+
+/**
+ * Résultat de la lecture d'un intervalle Google Fit pour une journée.
+ * wholeDay : l'intervalle commence à minuit, les valeurs remplacent celles du jour ;
+ * sinon elles s'ajoutent aux totaux déjà enregistrés.
+ */
+public class FitnessDelta {
+    private final String date;
+    private final boolean wholeDay;
+    private final int steps;
+    private final int calories;
+    private final float distanceKm;
+    private final List<String> metrics;
+    private final long syncedUntil;
+    
+    public FitnessDelta(String date, boolean wholeDay, int steps, int calories, float distanceKm,
+                        List<String> metrics, long syncedUntil) {
+        this.date = date;
+        this.wholeDay = wholeDay;
+        this.steps = steps;
+        this.calories = calories;
+        this.distanceKm = distanceKm;
+        this.metrics = metrics;
+        this.syncedUntil = syncedUntil;
+    }
+    
+    // Getters
+    public String getDate() {
+        return date;
+    }
+    
+    public boolean isWholeDay() {
+        return wholeDay;
+    }
+    
+    public int getSteps() {
+        return steps;
+    }
+    
+    public int getCalories() {
+        return calories;
+    }
+    
+    public float getDistanceKm() {
+        return distanceKm;
+    }
+    
+    // Métriques (SyncCursor.METRIC_*) dont le curseur avance jusqu'à syncedUntil
+    public List<String> getMetrics() {
+        return metrics;
+    }
+    
+    public long getSyncedUntil() {
+        return syncedUntil;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.projet_android.models;
+
+import com.example.projet_android.database.entities.DayTotals;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Totaux quotidiens d'un mois, en tableaux indexés par jour (1 à 31).
+ * Immuable : partagé entre le cache et l'affichage sans copie. Les pourcentages
+ * d'objectif sont calculés au dessin, un changement d'objectif ne périme pas le cache.
+ */
+public class MonthSummary {
+    
+    private final YearMonth month;
+    private final int[] steps;
+    private final int[] calories;
+    private final float[] sleepHours;
+    private final boolean[] hasData;
+    
+    private MonthSummary(YearMonth month) {
+        int days = month.lengthOfMonth() + 1;
+        this.month = month;
+        this.steps = new int[days];
+        this.calories = new int[days];
+        this.sleepHours = new float[days];
+        this.hasData = new boolean[days];
+    }
+    
+    public static MonthSummary from(YearMonth month, List<DayTotals> rows) {
+        MonthSummary summary = new MonthSummary(month);
+        long firstDay = month.atDay(1).toEpochDay();
+        for (DayTotals row : rows) {
+            int day = (int) (row.epochDay - firstDay) + 1;
+            if (day < 1 || day > month.lengthOfMonth()) {
+                continue;
+            }
+            summary.steps[day] = row.steps;
+            summary.calories[day] = row.calories;
+            summary.sleepHours[day] = row.sleepHours;
+            summary.hasData[day] = true;
+        }
+        return summary;
+    }
+    
+    public YearMonth getMonth() {
+        return month;
+    }
+    
+    public boolean hasData(int day) {
+        return hasData[day];
+    }
+    
+    public int getSteps(int day) {
+        return steps[day];
+    }
+    
+    public int getCalories(int day) {
+        return calories[day];
+    }
+    
+    public float getSleepHours(int day) {
+        return sleepHours[day];
+    }
+}
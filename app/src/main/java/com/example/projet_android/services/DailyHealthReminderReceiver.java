@@ -22,12 +22,18 @@ public class DailyHealthReminderReceiver extends BroadcastReceiver {
 
     @Override
     public void onReceive(Context context, Intent intent) {
-        String action = intent.getAction();
+        // Matin et soir partagent la même alarme : le créneau est dans l'extra
+        String action = intent.getStringExtra(ReminderScheduler.EXTRA_ACTION);
+        if (action == null) {
+            // Anciennes alarmes (une par créneau) : le créneau était l'action de l'intent
+            action = intent.getAction();
+        }
         Log.d(TAG, "Notification déclenchée: " + action);
+        ReminderScheduler.onAlarmFired(context, ReminderSchedule.Channel.DAILY);
 
-        if ("MORNING_REMINDER".equals(action)) {
+        if (ReminderSchedule.ACTION_MORNING.equals(action)) {
             showMorningReminder(context);
-        } else if ("EVENING_REMINDER".equals(action)) {
+        } else if (ReminderSchedule.ACTION_EVENING.equals(action)) {
             showEveningReminder(context);
         }
     }
@@ -3,18 +3,21 @@ package com.example.projet_android.services;
 import android.content.Context;
 import android.util.Log;
 
-import androidx.lifecycle.LiveData;
-import androidx.lifecycle.Observer;
+import androidx.core.content.ContextCompat;
 
 import com.example.projet_android.database.DatabaseManager;
 import com.example.projet_android.database.entities.HealthData;
 import com.example.projet_android.utils.PreferencesManager;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class DataSyncService {
     
     private static final String TAG = "DataSyncService";
+    // Au-delà, autoSync() demande une synchronisation
+    private static final long AUTO_SYNC_INTERVAL_MS = 30 * 60 * 1000;
     private Context context;
     private DatabaseManager databaseManager;
     private PreferencesManager preferencesManager;
@@ -34,17 +37,59 @@ public class DataSyncService {
         this.googleFitManager = new GoogleFitManager(context);
     }
     
-    // Synchronisation complète des données
-    public void syncAllData(SyncListener listener) {
+    // Synchronisation complète des données (sans coordination : voir SyncCoordinator).
+    // La future se termine une fois les données du jour en base (null si aucune ligne)
+    public CompletableFuture<HealthData> syncAllData() {
         String userId = preferencesManager.getUserId();
         if (userId == null) {
-            listener.onSyncError("Utilisateur non connecté");
-            return;
+            return notLoggedIn();
         }
         
+        return syncFitness().thenCompose(ignored -> {
+            // Synchroniser les données nutritionnelles
+            databaseManager.syncNutritionData(userId);
+            // Compacter les mesures intrajournalières des jours fermés
+            databaseManager.archiveIntradaySamples(userId);
+            databaseManager.pruneProductCache();
+            return databaseManager.loadTodaysHealthData(userId);
+        }).whenComplete((healthData, error) -> {
+            if (error == null) {
+                markLastSync();
+            }
+        });
+    }
+    
+    // Les variantes avec listener passent par SyncCoordinator : une seule synchronisation
+    // à la fois, et pas de nouvelle lecture Google Fit si la précédente est récente
+    public void syncAllData(SyncListener listener) {
         listener.onSyncStarted();
-        
-        // Synchroniser les données de fitness
+        notifyOnMainThread(SyncCoordinator.getInstance(context).sync(), listener);
+    }
+    
+    // La lecture Google Fit étant incrémentale, la synchronisation rapide est la même
+    public void quickSync(SyncListener listener) {
+        syncAllData(listener);
+    }
+    
+    // Sans tenir compte de la fraîcheur (ex. juste après la connexion Google)
+    public void syncNow(SyncListener listener) {
+        listener.onSyncStarted();
+        notifyOnMainThread(SyncCoordinator.getInstance(context).syncNow(), listener);
+    }
+    
+    // Google Fit (ou données simulées) : terminée quand les écritures sont en file
+    private CompletableFuture<Void> syncFitness() {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        try {
+            startFitnessSync(done);
+        } catch (RuntimeException e) {
+            // Échec avant la lecture (client Google Fit, compte) : la future échoue aussi
+            done.completeExceptionally(e);
+        }
+        return done;
+    }
+    
+    private void startFitnessSync(CompletableFuture<Void> done) {
         googleFitManager.syncAllFitnessData(new GoogleFitManager.FitnessDataListener() {
             @Override
             public void onStepsReceived(int steps) {
@@ -59,85 +104,36 @@ public class DataSyncService {
             @Override
             public void onSleepReceived(float sleepHours) {
                 Log.d(TAG, "Données de sommeil synchronisées: " + sleepHours);
-                
-                // Synchroniser les données nutritionnelles
-                databaseManager.syncNutritionData(userId);
-                
-                // Récupérer les données mises à jour
-                LiveData<HealthData> todaysData = databaseManager.getTodaysHealthData(userId);
-                todaysData.observeForever(new Observer<HealthData>() {
-                    @Override
-                    public void onChanged(HealthData healthData) {
-                        if (healthData != null) {
-                            listener.onDataUpdated(healthData);
-                            listener.onSyncCompleted();
-                        }
-                        todaysData.removeObserver(this);
-                    }
-                });
+                done.complete(null);
             }
             
             @Override
             public void onError(String error) {
                 Log.e(TAG, "Erreur de synchronisation: " + error);
-                listener.onSyncError(error);
+                done.completeExceptionally(new IllegalStateException(error));
             }
         });
     }
     
-    // Synchronisation rapide (seulement les pas et calories)
-    public void quickSync(SyncListener listener) {
-        String userId = preferencesManager.getUserId();
-        if (userId == null) {
-            listener.onSyncError("Utilisateur non connecté");
-            return;
-        }
-        
-        listener.onSyncStarted();
-        
-        googleFitManager.readTodaySteps(new GoogleFitManager.FitnessDataListener() {
-            @Override
-            public void onStepsReceived(int steps) {
-                googleFitManager.readTodayCalories(new GoogleFitManager.FitnessDataListener() {
-                    @Override
-                    public void onCaloriesReceived(int calories) {
-                        float distance = steps * 0.0007f; // Distance approximative
-                        databaseManager.updateTodaysSteps(userId, steps, calories, distance);
-                        
-                        // Récupérer les données mises à jour
-                        LiveData<HealthData> todaysData = databaseManager.getTodaysHealthData(userId);
-                        todaysData.observeForever(new Observer<HealthData>() {
-                            @Override
-                            public void onChanged(HealthData healthData) {
-                                if (healthData != null) {
-                                    listener.onDataUpdated(healthData);
-                                    listener.onSyncCompleted();
-                                }
-                                todaysData.removeObserver(this);
-                            }
-                        });
-                    }
-                    
-                    @Override
-                    public void onStepsReceived(int steps) {}
-                    @Override
-                    public void onSleepReceived(float sleepHours) {}
-                    @Override
-                    public void onError(String error) {
-                        listener.onSyncError(error);
-                    }
-                });
+    private void notifyOnMainThread(CompletableFuture<HealthData> sync, SyncListener listener) {
+        sync.whenCompleteAsync((healthData, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                listener.onSyncError(cause.getMessage());
+                return;
             }
-            
-            @Override
-            public void onCaloriesReceived(int calories) {}
-            @Override
-            public void onSleepReceived(float sleepHours) {}
-            @Override
-            public void onError(String error) {
-                listener.onSyncError(error);
+            if (healthData != null) {
+                listener.onDataUpdated(healthData);
             }
-        });
+            listener.onSyncCompleted();
+        }, ContextCompat.getMainExecutor(context));
+    }
+    
+    private static CompletableFuture<HealthData> notLoggedIn() {
+        CompletableFuture<HealthData> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("Utilisateur non connecté"));
+        return failed;
     }
     
     // Mise à jour manuelle des données de sommeil
@@ -167,18 +163,16 @@ public class DataSyncService {
     // Méthode pour vérifier si une synchronisation automatique est nécessaire
     public boolean needsSync() {
         long lastSync = preferencesManager.getLastSyncTime();
-        long currentTime = System.currentTimeMillis();
-        long timeDifference = currentTime - lastSync;
-        
-        // Synchroniser si plus de 30 minutes depuis la dernière sync
-        return timeDifference > (30 * 60 * 1000);
+        return System.currentTimeMillis() - lastSync > AUTO_SYNC_INTERVAL_MS;
     }
     
     // Marquer la dernière synchronisation
     public void markLastSync() {
         preferencesManager.setLastSyncTime(System.currentTimeMillis());
     }
-      // Synchronisation automatique en arrière-plan
+    
+    // Synchronisation automatique : confiée à WorkManager, qui la dédoublonne,
+    // attend le réseau et la relance en cas d'échec
     public void autoSync() {
         String userId = preferencesManager.getUserId();
         if (userId == null || userId.isEmpty()) {
@@ -187,28 +181,7 @@ public class DataSyncService {
         }
         
         if (needsSync()) {
-            quickSync(new SyncListener() {
-                @Override
-                public void onSyncStarted() {
-                    Log.d(TAG, "Synchronisation automatique démarrée");
-                }
-                
-                @Override
-                public void onSyncCompleted() {
-                    markLastSync();
-                    Log.d(TAG, "Synchronisation automatique terminée");
-                }
-                
-                @Override
-                public void onSyncError(String error) {
-                    Log.e(TAG, "Erreur de synchronisation automatique: " + error);
-                }
-                
-                @Override
-                public void onDataUpdated(HealthData healthData) {
-                    Log.d(TAG, "Données mises à jour automatiquement");
-                }
-            });
+            SyncScheduler.requestSync(context);
         }
     }
 }
@@ -0,0 +1,87 @@
+package com.example.projet_android.services;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Découpe ce qu'il reste à lire sur Google Fit en intervalles d'au plus une journée,
+ * à partir des curseurs de synchronisation de chaque métrique.
+ * Dans la journée, seules les minutes depuis le curseur sont lues (ajoutées aux totaux).
+ * Une fois la journée du curseur terminée, elle est relue une fois en entier (les valeurs
+ * remplacent celles du jour) : les mesures qu'une montre a envoyées après coup dans un
+ * intervalle déjà lu sont ainsi rattrapées à la première synchronisation après minuit.
+ * Les métriques qui ont le même point de départ partagent les mêmes requêtes.
+ */
+final class FitSyncPlan {
+    
+    // Requêtes par synchronisation : le reste du rattrapage continue à la suivante
+    static final int MAX_CHUNKS_PER_SYNC = 7;
+    // Sans curseur (première synchronisation), jours relus en entier, aujourd'hui compris
+    static final int INITIAL_BACKFILL_DAYS = MAX_CHUNKS_PER_SYNC - 1;
+    // Au-delà, les jours manqués ne sont plus rattrapés
+    static final int MAX_BACKFILL_DAYS = 30;
+    
+    static final class Chunk {
+        final LocalDate day;
+        final long start;
+        final long end;
+        final boolean wholeDay; // start est minuit : la journée est relue en entier
+        final List<String> metrics;
+        
+        Chunk(LocalDate day, long start, long end, boolean wholeDay, List<String> metrics) {
+            this.day = day;
+            this.start = start;
+            this.end = end;
+            this.wholeDay = wholeDay;
+            this.metrics = metrics;
+        }
+    }
+    
+    private FitSyncPlan() {
+    }
+    
+    /**
+     * Intervalles à lire, dans l'ordre chronologique pour chaque groupe de métriques
+     * (l'ordre d'écriture garantit que les curseurs ne reculent jamais).
+     */
+    static List<Chunk> plan(Map<String, Long> cursors, List<String> metrics, long now, ZoneId zone) {
+        LocalDate today = Instant.ofEpochMilli(now).atZone(zone).toLocalDate();
+        long initialStart = startOfDay(today.minusDays(INITIAL_BACKFILL_DAYS), zone);
+        long oldestStart = startOfDay(today.minusDays(MAX_BACKFILL_DAYS), zone);
+        
+        Map<Long, List<String>> groups = new LinkedHashMap<>();
+        for (String metric : metrics) {
+            Long cursor = cursors.get(metric);
+            long from = cursor != null ? Math.max(resumeFrom(cursor, today, zone), oldestStart) : initialStart;
+            groups.computeIfAbsent(from, key -> new ArrayList<>()).add(metric);
+        }
+        
+        List<Chunk> chunks = new ArrayList<>();
+        for (Map.Entry<Long, List<String>> group : groups.entrySet()) {
+            long start = group.getKey();
+            while (start < now && chunks.size() < MAX_CHUNKS_PER_SYNC) {
+                LocalDate day = Instant.ofEpochMilli(start).atZone(zone).toLocalDate();
+                long dayStart = startOfDay(day, zone);
+                long end = Math.min(startOfDay(day.plusDays(1), zone), now);
+                chunks.add(new Chunk(day, start, end, start == dayStart, group.getValue()));
+                start = end;
+            }
+        }
+        return chunks;
+    }
+    
+    // Curseur d'une journée terminée : la journée entière est relue, sinon reprise au curseur
+    private static long resumeFrom(long cursor, LocalDate today, ZoneId zone) {
+        LocalDate cursorDay = Instant.ofEpochMilli(cursor).atZone(zone).toLocalDate();
+        return cursorDay.isBefore(today) ? startOfDay(cursorDay, zone) : cursor;
+    }
+    
+    private static long startOfDay(LocalDate day, ZoneId zone) {
+        return day.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+}
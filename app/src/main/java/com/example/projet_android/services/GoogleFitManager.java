@@ -11,24 +11,34 @@ import com.google.android.gms.auth.api.signin.GoogleSignInClient;
 import com.google.android.gms.auth.api.signin.GoogleSignInOptions;
 import com.google.android.gms.fitness.Fitness;
 import com.google.android.gms.fitness.FitnessOptions;
+import com.google.android.gms.fitness.HistoryClient;
 import com.google.android.gms.fitness.data.DataPoint;
 import com.google.android.gms.fitness.data.DataSet;
 import com.google.android.gms.fitness.data.DataType;
 import com.google.android.gms.fitness.data.Field;
+import com.google.android.gms.fitness.data.SleepStages;
 import com.google.android.gms.fitness.request.DataReadRequest;
 import com.google.android.gms.fitness.result.DataReadResponse;
-import com.google.android.gms.tasks.OnCompleteListener;
-import com.google.android.gms.tasks.OnFailureListener;
-import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 
-import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
 
+import com.example.projet_android.database.AppDatabase;
 import com.example.projet_android.database.DatabaseManager;
+import com.example.projet_android.database.entities.IntradaySample;
+import com.example.projet_android.database.entities.SyncCursor;
+import com.example.projet_android.models.FitnessDelta;
+import com.example.projet_android.utils.DayKeys;
 import com.example.projet_android.utils.PreferencesManager;
 
-import java.util.Calendar;
-import java.util.Date;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import com.google.android.gms.fitness.data.Bucket;
 
@@ -36,6 +46,12 @@ public class GoogleFitManager {
     
     private static final String TAG = "GoogleFitManager";
     private static final int GOOGLE_FIT_PERMISSIONS_REQUEST_CODE = 1000;
+    // Métriques additives synchronisées par curseur
+    private static final List<String> ADDITIVE_METRICS = Arrays.asList(
+            SyncCursor.METRIC_STEPS, SyncCursor.METRIC_CALORIES, SyncCursor.METRIC_DISTANCE);
+    private static final long INTRADAY_BUCKET_MS = TimeUnit.MINUTES.toMillis(IntradaySample.RESOLUTION_MINUTES);
+    // Fenêtre de lecture du sommeil avant minuit (nuit précédente)
+    private static final long SLEEP_LOOKBACK_MS = TimeUnit.HOURS.toMillis(6);
     public static final int GOOGLE_SIGN_IN_REQUEST_CODE = 1001;
     
     private Context context;
@@ -75,6 +91,8 @@ public class GoogleFitManager {
                 .addDataType(DataType.TYPE_SLEEP_SEGMENT, FitnessOptions.ACCESS_READ)
                 .addDataType(DataType.TYPE_HEART_RATE_BPM, FitnessOptions.ACCESS_READ)
                 .addDataType(DataType.TYPE_DISTANCE_DELTA, FitnessOptions.ACCESS_READ)
+                .addDataType(DataType.AGGREGATE_DISTANCE_DELTA, FitnessOptions.ACCESS_READ)
+                .addDataType(DataType.AGGREGATE_HEART_RATE_SUMMARY, FitnessOptions.ACCESS_READ)
                 .build();
     }
     
@@ -154,236 +172,264 @@ public class GoogleFitManager {
             Log.e(TAG, "Erreur de connexion Google: " + e.getMessage());
             listener.onSignInFailed(e.getMessage());
         }
-    }    public void readTodaySteps(FitnessDataListener listener) {
-        // Si en mode démo ou pas de connexion Google, utiliser les données simulées
-        if (isDemoMode() || !isSignedIn() || !hasPermissions()) {
-            if (!hasLoggedAuthError) {
-                Log.i(TAG, "Mode démo ou pas de connexion Google Fit - utilisation de données simulées");
-                hasLoggedAuthError = true;
-            }
+    }
+    
+    // Méthode pour synchroniser toutes les données de fitness, de façon incrémentale :
+    // pas, calories et distance ne sont lus que depuis le curseur de chaque métrique
+    // (jours manqués rattrapés par tranches d'une journée, détail par 15 minutes),
+    // fréquence cardiaque et sommeil sur la journée. Toutes les requêtes partent en
+    // parallèle, puis une seule transaction fusionne les résultats et avance les curseurs.
+    public void syncAllFitnessData(FitnessDataListener listener) {
+        String userId = preferencesManager.getUserId();
+        if (userId == null) {
+            Log.w(TAG, "Utilisateur non connecté, utilisation de données simulées");
+            // Utiliser des données simulées même si l'utilisateur n'est pas connecté
             getSimulatedData(listener);
             return;
         }
         
         GoogleSignInAccount account = getGoogleAccount();
-        if (account == null) {
+        if (isDemoMode() || !hasPermissions() || account == null) {
+            // Utiliser des données simulées si pas de permissions
             getSimulatedData(listener);
             return;
         }
         
-        Calendar cal = Calendar.getInstance();
-        Date now = new Date();
-        cal.setTime(now);
-        cal.set(Calendar.HOUR_OF_DAY, 0);
-        cal.set(Calendar.MINUTE, 0);
-        cal.set(Calendar.SECOND, 0);
-        cal.set(Calendar.MILLISECOND, 0);
+        HistoryClient historyClient = Fitness.getHistoryClient(context, account);
+        // Les curseurs sont lus en base : hors du thread principal
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            try {
+                long now = System.currentTimeMillis();
+                ZoneId zone = ZoneId.systemDefault();
+                List<FitSyncPlan.Chunk> chunks = FitSyncPlan.plan(
+                        databaseManager.getSyncCursorsSync(userId), ADDITIVE_METRICS, now, zone);
+                readAndMerge(historyClient, userId, chunks, now, zone, listener);
+            } catch (RuntimeException e) {
+                // Lecture des curseurs ou readData() en échec : le listener doit être appelé
+                Log.e(TAG, "Erreur lors de la préparation de la lecture Google Fit", e);
+                ContextCompat.getMainExecutor(context).execute(() -> listener.onError(e.getMessage()));
+            }
+        });
+    }
+    
+    private void readAndMerge(HistoryClient historyClient, String userId, List<FitSyncPlan.Chunk> chunks,
+                              long now, ZoneId zone, FitnessDataListener listener) {
+        List<Task<DataReadResponse>> chunkTasks = new ArrayList<>(chunks.size());
+        for (FitSyncPlan.Chunk chunk : chunks) {
+            chunkTasks.add(historyClient.readData(new DataReadRequest.Builder()
+                    .aggregate(DataType.TYPE_STEP_COUNT_DELTA, DataType.AGGREGATE_STEP_COUNT_DELTA)
+                    .aggregate(DataType.TYPE_CALORIES_EXPENDED, DataType.AGGREGATE_CALORIES_EXPENDED)
+                    .aggregate(DataType.TYPE_DISTANCE_DELTA, DataType.AGGREGATE_DISTANCE_DELTA)
+                    .bucketByTime(1, TimeUnit.DAYS)
+                    .setTimeRange(chunk.start, chunk.end, TimeUnit.MILLISECONDS)
+                    .build()));
+        }
+        
+        // Une moyenne ne se fusionne pas par différence : fréquence cardiaque relue sur la journée
+        long todayStart = DayKeys.todayDate().atStartOfDay(zone).toInstant().toEpochMilli();
+        DataReadRequest heartRateRequest = new DataReadRequest.Builder()
+                .aggregate(DataType.TYPE_HEART_RATE_BPM, DataType.AGGREGATE_HEART_RATE_SUMMARY)
+                .bucketByTime(1, TimeUnit.DAYS)
+                .setTimeRange(todayStart, now, TimeUnit.MILLISECONDS)
+                .build();
         
-        long startTime = cal.getTimeInMillis();
-        long endTime = now.getTime();
+        // Les segments de sommeil ne s'agrègent pas : lecture brute, nuit précédente incluse
+        DataReadRequest sleepRequest = new DataReadRequest.Builder()
+                .read(DataType.TYPE_SLEEP_SEGMENT)
+                .setTimeRange(todayStart - SLEEP_LOOKBACK_MS, now, TimeUnit.MILLISECONDS)
+                .build();
         
-        // Use bucketByTime(1 day) when requesting aggregation to comply with Google Fit requirements
-        DataReadRequest readRequest = new DataReadRequest.Builder()
+        // Détail intrajournalier des intervalles lus, au pas de 15 minutes. Le début est aligné
+        // sur un créneau : le créneau en cours est relu en entier et remplace l'ancien
+        long intradayStart = now;
+        for (FitSyncPlan.Chunk chunk : chunks) {
+            intradayStart = Math.min(intradayStart, chunk.start);
+        }
+        intradayStart -= intradayStart % INTRADAY_BUCKET_MS;
+        DataReadRequest intradayRequest = new DataReadRequest.Builder()
                 .aggregate(DataType.TYPE_STEP_COUNT_DELTA, DataType.AGGREGATE_STEP_COUNT_DELTA)
-                .bucketByTime(1, TimeUnit.DAYS)
-                .setTimeRange(startTime, endTime, TimeUnit.MILLISECONDS)
+                .aggregate(DataType.TYPE_CALORIES_EXPENDED, DataType.AGGREGATE_CALORIES_EXPENDED)
+                .aggregate(DataType.TYPE_HEART_RATE_BPM, DataType.AGGREGATE_HEART_RATE_SUMMARY)
+                .bucketByTime(IntradaySample.RESOLUTION_MINUTES, TimeUnit.MINUTES)
+                .setTimeRange(intradayStart, now, TimeUnit.MILLISECONDS)
                 .build();
         
-        Fitness.getHistoryClient(context, account)
-                .readData(readRequest)
-                .addOnSuccessListener(new OnSuccessListener<DataReadResponse>() {
-                    @Override
-                    public void onSuccess(DataReadResponse dataReadResponse) {
-                        int totalSteps = 0;
-
-                        // Handle buckets (aggregation) if present
-                        if (dataReadResponse.getBuckets() != null && !dataReadResponse.getBuckets().isEmpty()) {
-                            for (Bucket bucket : dataReadResponse.getBuckets()) {
-                                for (DataSet dataSet : bucket.getDataSets()) {
-                                    for (DataPoint dp : dataSet.getDataPoints()) {
-                                        for (Field field : dp.getDataType().getFields()) {
-                                            try {
-                                                int steps = dp.getValue(field).asInt();
-                                                totalSteps += steps;
-                                            } catch (Exception ex) {
-                                                // ignore parse errors
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        } else {
-                            for (DataSet dataSet : dataReadResponse.getDataSets()) {
-                                for (DataPoint dp : dataSet.getDataPoints()) {
-                                    for (Field field : dp.getDataType().getFields()) {
-                                        try {
-                                            int steps = dp.getValue(field).asInt();
-                                            totalSteps += steps;
-                                        } catch (Exception ex) {
-                                            // ignore parse errors
-                                        }
-                                    }
-                                }
-                            }
-                        }
-
-                        // Sauvegarder dans la base de données
-                        String userId = preferencesManager.getUserId();
-                        if (userId != null) {
-                            databaseManager.updateTodaysSteps(userId, totalSteps, 0, 0);
-                        }
-                        
-                        listener.onStepsReceived(totalSteps);
-                    }
-                })
-                .addOnFailureListener(new OnFailureListener() {
-                    @Override
-                    public void onFailure(@NonNull Exception e) {
-                        Log.e(TAG, "Erreur lors de la lecture des pas: " + e.getMessage());
-                        listener.onError(e.getMessage());
-                    }
-                });
-    }    public void readTodayCalories(FitnessDataListener listener) {
-        // Si en mode démo ou pas de connexion Google, utiliser les données simulées
-        if (isDemoMode() || !isSignedIn() || !hasPermissions()) {
-            getSimulatedData(listener);
-            return;
+        Task<DataReadResponse> heartRateTask = historyClient.readData(heartRateRequest);
+        Task<DataReadResponse> sleepTask = historyClient.readData(sleepRequest);
+        Task<DataReadResponse> intradayTask = historyClient.readData(intradayRequest);
+        
+        List<Task<?>> allTasks = new ArrayList<>(chunkTasks);
+        allTasks.add(heartRateTask);
+        allTasks.add(sleepTask);
+        allTasks.add(intradayTask);
+        
+        // Analyse des réponses (jusqu'à 7 journées et le détail par 15 minutes) hors du thread principal
+        Executor mainExecutor = ContextCompat.getMainExecutor(context);
+        Tasks.whenAllComplete(allTasks).addOnCompleteListener(AppDatabase.databaseWriteExecutor, done -> {
+            try {
+                mergeResults(userId, chunks, chunkTasks, heartRateTask, sleepTask, intradayTask,
+                        mainExecutor, listener);
+            } catch (RuntimeException e) {
+                // Le listener doit toujours être appelé : la synchronisation en cours en dépend
+                Log.e(TAG, "Erreur lors de l'analyse Google Fit", e);
+                mainExecutor.execute(() -> listener.onError(e.getMessage()));
+            }
+        });
+    }
+    
+    private void mergeResults(String userId, List<FitSyncPlan.Chunk> chunks, List<Task<DataReadResponse>> chunkTasks,
+                              Task<DataReadResponse> heartRateTask, Task<DataReadResponse> sleepTask,
+                              Task<DataReadResponse> intradayTask, Executor mainExecutor,
+                              FitnessDataListener listener) {
+        List<FitnessDelta> deltas = new ArrayList<>(chunks.size());
+        // Un intervalle en échec bloque les suivants de ses métriques : le curseur
+        // ne peut pas avancer par-dessus un trou, il sera relu à la prochaine synchro
+        Set<List<String>> blockedMetrics = new HashSet<>();
+        Exception lastError = null;
+        
+        for (int i = 0; i < chunks.size(); i++) {
+            FitSyncPlan.Chunk chunk = chunks.get(i);
+            Task<DataReadResponse> task = chunkTasks.get(i);
+            if (blockedMetrics.contains(chunk.metrics)) {
+                continue;
+            }
+            if (!task.isSuccessful()) {
+                blockedMetrics.add(chunk.metrics);
+                lastError = task.getException();
+                continue;
+            }
+            
+            FitTotals totals = parseAggregates(task.getResult());
+            deltas.add(new FitnessDelta(DayKeys.format(chunk.day), chunk.wholeDay, totals.steps,
+                    Math.round(totals.calories), totals.distanceKm, chunk.metrics, chunk.end));
         }
         
-        GoogleSignInAccount account = getGoogleAccount();
-        if (account == null) {
-            getSimulatedData(listener);
+        if (!chunks.isEmpty() && deltas.isEmpty() && !heartRateTask.isSuccessful()) {
+            Exception e = lastError != null ? lastError : heartRateTask.getException();
+            String message = e != null ? e.getMessage() : "inconnue";
+            Log.e(TAG, "Erreur lors de la lecture Google Fit: " + message);
+            mainExecutor.execute(() -> listener.onError(message));
             return;
         }
         
-        Calendar cal = Calendar.getInstance();
-        Date now = new Date();
-        cal.setTime(now);
-        cal.set(Calendar.HOUR_OF_DAY, 0);
-        cal.set(Calendar.MINUTE, 0);
-        cal.set(Calendar.SECOND, 0);
-        cal.set(Calendar.MILLISECOND, 0);
+        int heartRate = heartRateTask.isSuccessful() ? parseAggregates(heartRateTask.getResult()).heartRate : 0;
+        // -1 : pas de segment de sommeil, la valeur en base est conservée
+        float sleepHours = sleepTask.isSuccessful() ? parseSleepHours(sleepTask.getResult()) : -1f;
+        List<IntradaySample> samples = intradayTask.isSuccessful()
+                ? parseIntraday(userId, intradayTask.getResult())
+                : new ArrayList<>();
         
-        long startTime = cal.getTimeInMillis();
-        long endTime = now.getTime();
-        
-        // Add bucketByTime for aggregation
-        DataReadRequest readRequest = new DataReadRequest.Builder()
-                .aggregate(DataType.TYPE_CALORIES_EXPENDED, DataType.AGGREGATE_CALORIES_EXPENDED)
-                .bucketByTime(1, TimeUnit.DAYS)
-                .setTimeRange(startTime, endTime, TimeUnit.MILLISECONDS)
-                .build();
+        databaseManager.applyFitnessSync(userId, deltas, samples, heartRate, sleepHours)
+                .whenCompleteAsync((today, error) -> {
+                    if (error != null) {
+                        Log.e(TAG, "Erreur lors de l'enregistrement Google Fit: " + error.getMessage());
+                        listener.onError(error.getMessage());
+                        return;
+                    }
+                    listener.onStepsReceived(today != null ? today.steps : 0);
+                    listener.onCaloriesReceived(today != null ? today.calories : 0);
+                    listener.onSleepReceived(today != null ? today.sleepHours : 0f);
+                }, mainExecutor);
+    }
+    
+    private static class FitTotals {
+        int steps;
+        float calories;
+        float distanceKm;
+        int heartRate;
+    }
+    
+    private FitTotals parseAggregates(DataReadResponse response) {
+        FitTotals totals = new FitTotals();
+        float distanceMeters = 0f;
         
-        Fitness.getHistoryClient(context, account)
-                .readData(readRequest)
-                .addOnSuccessListener(new OnSuccessListener<DataReadResponse>() {
-                    @Override
-                    public void onSuccess(DataReadResponse dataReadResponse) {
-                        float totalCalories = 0f;
-
-                        if (dataReadResponse.getBuckets() != null && !dataReadResponse.getBuckets().isEmpty()) {
-                            for (Bucket bucket : dataReadResponse.getBuckets()) {
-                                for (DataSet dataSet : bucket.getDataSets()) {
-                                    for (DataPoint dp : dataSet.getDataPoints()) {
-                                        for (Field field : dp.getDataType().getFields()) {
-                                            try {
-                                                float calories = dp.getValue(field).asFloat();
-                                                totalCalories += calories;
-                                            } catch (Exception ex) {
-                                                // ignore parse errors
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        } else {
-                            for (DataSet dataSet : dataReadResponse.getDataSets()) {
-                                for (DataPoint dp : dataSet.getDataPoints()) {
-                                    for (Field field : dp.getDataType().getFields()) {
-                                        try {
-                                            float calories = dp.getValue(field).asFloat();
-                                            totalCalories += calories;
-                                        } catch (Exception ex) {
-                                            // ignore parse errors
-                                        }
-                                    }
-                                }
-                            }
-                        }
-
-                        // Mettre à jour les calories dans la base de données (optionnel)
-                        String userId = preferencesManager.getUserId();
-                        if (userId != null) {
-                            // Option: update nutrition/calories if desired
+        for (Bucket bucket : response.getBuckets()) {
+            for (DataSet dataSet : bucket.getDataSets()) {
+                DataType type = dataSet.getDataType();
+                for (DataPoint dp : dataSet.getDataPoints()) {
+                    try {
+                        if (type.equals(DataType.AGGREGATE_STEP_COUNT_DELTA)) {
+                            totals.steps += dp.getValue(Field.FIELD_STEPS).asInt();
+                        } else if (type.equals(DataType.AGGREGATE_CALORIES_EXPENDED)) {
+                            totals.calories += dp.getValue(Field.FIELD_CALORIES).asFloat();
+                        } else if (type.equals(DataType.AGGREGATE_DISTANCE_DELTA)) {
+                            distanceMeters += dp.getValue(Field.FIELD_DISTANCE).asFloat();
+                        } else if (type.equals(DataType.AGGREGATE_HEART_RATE_SUMMARY)) {
+                            totals.heartRate = Math.round(dp.getValue(Field.FIELD_AVERAGE).asFloat());
                         }
-                        
-                        listener.onCaloriesReceived((int) totalCalories);
+                    } catch (Exception ex) {
+                        // ignore parse errors
                     }
-                })
-                .addOnFailureListener(new OnFailureListener() {
-                    @Override
-                    public void onFailure(@NonNull Exception e) {
-                        Log.e(TAG, "Erreur lors de la lecture des calories: " + e.getMessage());
-                        listener.onError(e.getMessage());
-                    }
-                });
-    }
-        // Méthode pour synchroniser toutes les données de fitness
-    public void syncAllFitnessData(FitnessDataListener listener) {
-        String userId = preferencesManager.getUserId();
-        if (userId == null) {
-            Log.w(TAG, "Utilisateur non connecté, utilisation de données simulées");
-            // Utiliser des données simulées même si l'utilisateur n'est pas connecté
-            getSimulatedData(listener);
-            return;
+                }
+            }
         }
         
-        if (hasPermissions()) {
-            // Synchroniser avec Google Fit
-            readTodaySteps(new FitnessDataListener() {
-                @Override
-                public void onStepsReceived(int steps) {                    readTodayCalories(new FitnessDataListener() {
-                        @Override
-                        public void onStepsReceived(int steps) {}
-                        
-                        @Override
-                        public void onCaloriesReceived(int calories) {
-                            // Calculer une distance approximative (0.7m par pas en moyenne)
-                            float distance = steps * 0.0007f;
-                            
-                            // Sauvegarder toutes les données
-                            databaseManager.updateTodaysSteps(userId, steps, calories, distance);
-                            
-                            listener.onStepsReceived(steps);
-                            listener.onCaloriesReceived(calories);
+        // Sans capteur de distance, distance approximative (0.7m par pas en moyenne)
+        totals.distanceKm = distanceMeters > 0 ? distanceMeters / 1000f : totals.steps * 0.0007f;
+        return totals;
+    }
+    
+    /**
+     * Un échantillon par créneau et par métrique ; les créneaux vides ne sont pas stockés
+     */
+    private List<IntradaySample> parseIntraday(String userId, DataReadResponse response) {
+        List<IntradaySample> samples = new ArrayList<>();
+        
+        for (Bucket bucket : response.getBuckets()) {
+            long epochMinute = bucket.getStartTime(TimeUnit.MINUTES);
+            for (DataSet dataSet : bucket.getDataSets()) {
+                DataType type = dataSet.getDataType();
+                for (DataPoint dp : dataSet.getDataPoints()) {
+                    try {
+                        int metric;
+                        float value;
+                        if (type.equals(DataType.AGGREGATE_STEP_COUNT_DELTA)) {
+                            metric = IntradaySample.METRIC_STEPS;
+                            value = dp.getValue(Field.FIELD_STEPS).asInt();
+                        } else if (type.equals(DataType.AGGREGATE_CALORIES_EXPENDED)) {
+                            metric = IntradaySample.METRIC_CALORIES;
+                            value = dp.getValue(Field.FIELD_CALORIES).asFloat();
+                        } else if (type.equals(DataType.AGGREGATE_HEART_RATE_SUMMARY)) {
+                            metric = IntradaySample.METRIC_HEART_RATE;
+                            value = dp.getValue(Field.FIELD_AVERAGE).asFloat();
+                        } else {
+                            continue;
                         }
-                        
-                        @Override
-                        public void onSleepReceived(float sleepHours) {}
-                        
-                        @Override
-                        public void onError(String error) {
-                            listener.onError(error);
+                        if (value > 0) {
+                            samples.add(new IntradaySample(userId, metric, epochMinute, value));
                         }
-                    });
+                    } catch (Exception ex) {
+                        // ignore parse errors
+                    }
                 }
-                
-                @Override
-                public void onCaloriesReceived(int calories) {}
-                
-                @Override
-                public void onSleepReceived(float sleepHours) {}
-                
-                @Override
-                public void onError(String error) {
-                    // Si Google Fit échoue, utiliser des données simulées
-                    getSimulatedData(listener);
+            }
+        }
+        return samples;
+    }
+    
+    /**
+     * Durée de sommeil (hors éveil / hors du lit) en heures, -1 si aucun segment.
+     * Chaque source (téléphone, montre) a son DataSet : une nuit enregistrée par
+     * plusieurs sources n'est comptée qu'une fois.
+     */
+    private float parseSleepHours(DataReadResponse response) {
+        SleepSegments asleep = new SleepSegments();
+        boolean hasSegments = false;
+        
+        for (DataSet dataSet : response.getDataSets()) {
+            for (DataPoint dp : dataSet.getDataPoints()) {
+                try {
+                    int stage = dp.getValue(Field.FIELD_SLEEP_SEGMENT_TYPE).asInt();
+                    hasSegments = true;
+                    if (stage != SleepStages.AWAKE && stage != SleepStages.OUT_OF_BED) {
+                        asleep.add(dp.getStartTime(TimeUnit.MILLISECONDS), dp.getEndTime(TimeUnit.MILLISECONDS));
+                    }
+                } catch (Exception ex) {
+                    // ignore parse errors
                 }
-            });
-        } else {
-            // Utiliser des données simulées si pas de permissions
-            getSimulatedData(listener);
+            }
         }
+        return hasSegments ? asleep.totalMillis() / 3_600_000f : -1f;
     }
       // Méthode pour simuler des données en cas d'absence de Google Fit
     public void getSimulatedData(FitnessDataListener listener) {
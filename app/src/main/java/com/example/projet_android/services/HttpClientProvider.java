@@ -0,0 +1,154 @@
+package com.example.projet_android.services;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import okhttp3.logging.HttpLoggingInterceptor;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Client HTTP unique de l'application, partagé par tous les services REST.
+ * Un seul OkHttpClient = un seul pool de connexions (keep-alive, TLS déjà négocié),
+ * un seul cache disque et un seul jeu de threads, au lieu d'un par écran.
+ */
+public class HttpClientProvider {
+    
+    private static final String TAG = "HttpClient";
+    
+    private static final String CACHE_DIR = "http_cache";
+    private static final long CACHE_SIZE_BYTES = 10L * 1024 * 1024;
+    
+    private static final long CONNECT_TIMEOUT_S = 10;
+    private static final long READ_TIMEOUT_S = 15;
+    private static final long WRITE_TIMEOUT_S = 15;
+    private static final long CALL_TIMEOUT_S = 30;
+    
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    
+    // Durée de cache appliquée aux GET dont le serveur n'indique aucune politique
+    private static final int DEFAULT_MAX_AGE_S = 3600;
+    
+    private static final int MAX_RECENT_METRICS = 50;
+    
+    private static volatile HttpClientProvider INSTANCE;
+    
+    public interface MetricsObserver {
+        void onMetrics(HttpMetrics metrics);
+    }
+    
+    private final OkHttpClient client;
+    private final GsonConverterFactory converterFactory = GsonConverterFactory.create();
+    private final Map<String, Retrofit> retrofits = new ConcurrentHashMap<>();
+    private final ArrayDeque<HttpMetrics> recentMetrics = new ArrayDeque<>(MAX_RECENT_METRICS);
+    private volatile MetricsObserver metricsObserver;
+    
+    public static HttpClientProvider getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (HttpClientProvider.class) {
+                if (INSTANCE == null) {
+                    File cacheDir = new File(context.getApplicationContext().getCacheDir(), CACHE_DIR);
+                    INSTANCE = new HttpClientProvider(cacheDir);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+    
+    // Visible pour les tests (répertoire de cache temporaire)
+    HttpClientProvider(File cacheDir) {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .cache(new Cache(cacheDir, CACHE_SIZE_BYTES))
+                .connectTimeout(CONNECT_TIMEOUT_S, TimeUnit.SECONDS)
+                .readTimeout(READ_TIMEOUT_S, TimeUnit.SECONDS)
+                .writeTimeout(WRITE_TIMEOUT_S, TimeUnit.SECONDS)
+                .callTimeout(CALL_TIMEOUT_S, TimeUnit.SECONDS)
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .retryOnConnectionFailure(true)
+                .eventListenerFactory(HttpMetricsListener.factory(this::recordMetrics))
+                .addNetworkInterceptor(HttpClientProvider::applyDefaultCachePolicy);
+        
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+            HttpLoggingInterceptor logging = new HttpLoggingInterceptor(message -> Log.d(TAG, message));
+            logging.setLevel(HttpLoggingInterceptor.Level.BASIC);
+            builder.addInterceptor(logging);
+        }
+        
+        client = builder.build();
+    }
+    
+    public OkHttpClient getClient() {
+        return client;
+    }
+    
+    /**
+     * Service Retrofit pour une URL de base ; l'instance Retrofit est réutilisée
+     * pour tous les services de la même API.
+     */
+    public <T> T create(String baseUrl, Class<T> service) {
+        Retrofit retrofit = retrofits.computeIfAbsent(baseUrl, url -> new Retrofit.Builder()
+                .baseUrl(url)
+                .client(client)
+                // Lecture en flux des types connus, Gson pour tous les autres
+                .addConverterFactory(OpenFoodFactsConverterFactory.INSTANCE)
+                .addConverterFactory(converterFactory)
+                .build());
+        return retrofit.create(service);
+    }
+    
+    public void setMetricsObserver(MetricsObserver observer) {
+        this.metricsObserver = observer;
+    }
+    
+    /**
+     * Derniers appels terminés, du plus ancien au plus récent
+     */
+    public List<HttpMetrics> getRecentMetrics() {
+        synchronized (recentMetrics) {
+            return new ArrayList<>(recentMetrics);
+        }
+    }
+    
+    private void recordMetrics(HttpMetrics metrics) {
+        synchronized (recentMetrics) {
+            if (recentMetrics.size() == MAX_RECENT_METRICS) {
+                recentMetrics.removeFirst();
+            }
+            recentMetrics.addLast(metrics);
+        }
+        
+        MetricsObserver observer = metricsObserver;
+        if (observer != null) {
+            observer.onMetrics(metrics);
+        }
+    }
+    
+    // OpenFoodFacts ne renvoie pas toujours d'en-têtes de cache : sans eux OkHttp
+    // ne stockerait rien. Une politique explicite du serveur reste prioritaire.
+    private static Response applyDefaultCachePolicy(Interceptor.Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        if (!"GET".equals(chain.request().method()) || !response.isSuccessful()
+                || response.header("Cache-Control") != null || response.header("Expires") != null) {
+            return response;
+        }
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .header("Cache-Control", "public, max-age=" + DEFAULT_MAX_AGE_S)
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.projet_android.services;
+
+/**
+ * Durées d'un appel HTTP, en millisecondes (-1 : phase absente, par exemple pas de
+ * résolution DNS ni de connexion quand une connexion du pool est réutilisée).
+ */
+public class HttpMetrics {
+    
+    public final String method;
+    public final String url;
+    public final long dnsMs;
+    public final long connectMs; // TCP + TLS
+    public final long ttfbMs; // envoi de la requête -> premiers octets de la réponse
+    public final long totalMs;
+    public final boolean connectionReused;
+    public final boolean fromCache;
+    public final boolean failed;
+    
+    public HttpMetrics(String method, String url, long dnsMs, long connectMs, long ttfbMs, long totalMs,
+                       boolean connectionReused, boolean fromCache, boolean failed) {
+        this.method = method;
+        this.url = url;
+        this.dnsMs = dnsMs;
+        this.connectMs = connectMs;
+        this.ttfbMs = ttfbMs;
+        this.totalMs = totalMs;
+        this.connectionReused = connectionReused;
+        this.fromCache = fromCache;
+        this.failed = failed;
+    }
+    
+    @Override
+    public String toString() {
+        return method + " " + url + " total=" + totalMs + "ms dns=" + dnsMs + "ms connect=" + connectMs
+                + "ms ttfb=" + ttfbMs + "ms" + (connectionReused ? " reused" : "")
+                + (fromCache ? " cache" : "") + (failed ? " failed" : "");
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.projet_android.services;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+/**
+ * Chronomètre les phases d'un appel OkHttp (une instance par appel).
+ * Un intercepteur ne voit ni la résolution DNS ni la connexion : seuls les
+ * événements d'OkHttp donnent ces durées.
+ */
+class HttpMetricsListener extends EventListener {
+    
+    interface Sink {
+        void onMetrics(HttpMetrics metrics);
+    }
+    
+    static EventListener.Factory factory(Sink sink) {
+        return call -> new HttpMetricsListener(sink);
+    }
+    
+    private final Sink sink;
+    private long callStart;
+    private long dnsStart = -1;
+    private long dnsEnd = -1;
+    private long connectStart = -1;
+    private long connectEnd = -1;
+    private long requestStart = -1;
+    private long responseStart = -1;
+    private boolean fromCache;
+    
+    private HttpMetricsListener(Sink sink) {
+        this.sink = sink;
+    }
+    
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+    }
+    
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+    
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        dnsEnd = System.nanoTime();
+    }
+    
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+    
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        connectEnd = System.nanoTime();
+    }
+    
+    @Override
+    public void requestHeadersStart(Call call) {
+        if (requestStart < 0) {
+            requestStart = System.nanoTime();
+        }
+    }
+    
+    @Override
+    public void responseHeadersStart(Call call) {
+        if (responseStart < 0) {
+            responseStart = System.nanoTime();
+        }
+    }
+    
+    @Override
+    public void cacheHit(Call call, Response response) {
+        fromCache = true;
+    }
+    
+    @Override
+    public void callEnd(Call call) {
+        report(call, false);
+    }
+    
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        report(call, true);
+    }
+    
+    private void report(Call call, boolean failed) {
+        long end = System.nanoTime();
+        // Requête envoyée sans connectStart : connexion reprise dans le pool
+        boolean networkUsed = requestStart >= 0;
+        sink.onMetrics(new HttpMetrics(
+                call.request().method(),
+                call.request().url().toString(),
+                millisBetween(dnsStart, dnsEnd),
+                millisBetween(connectStart, connectEnd),
+                millisBetween(requestStart, responseStart),
+                TimeUnit.NANOSECONDS.toMillis(end - callStart),
+                networkUsed && connectStart < 0,
+                fromCache,
+                failed));
+    }
+    
+    private static long millisBetween(long start, long end) {
+        return start >= 0 && end >= 0 ? TimeUnit.NANOSECONDS.toMillis(end - start) : -1;
+    }
+}
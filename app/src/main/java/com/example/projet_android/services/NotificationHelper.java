@@ -1,6 +1,5 @@
 package com.example.projet_android.services;
 
-import android.app.AlarmManager;
 import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import android.app.PendingIntent;
@@ -14,8 +13,6 @@ import androidx.core.app.NotificationManagerCompat;
 import com.example.projet_android.MainActivity2;
 import com.example.projet_android.R;
 
-import java.util.Calendar;
-
 public class NotificationHelper {
     
     private static final String CHANNEL_ID = "health_reminders";
@@ -102,68 +99,4 @@ public class NotificationHelper {
             e.printStackTrace();
         }
     }
-    
-    public void scheduleWaterReminders() {
-        // Programmer des rappels d'eau toutes les 2 heures entre 8h et 20h
-        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-        
-        for (int hour = 8; hour <= 20; hour += 2) {
-            Calendar calendar = Calendar.getInstance();
-            calendar.set(Calendar.HOUR_OF_DAY, hour);
-            calendar.set(Calendar.MINUTE, 0);
-            calendar.set(Calendar.SECOND, 0);
-            
-            // Si l'heure est déjà passée aujourd'hui, programmer pour demain
-            if (calendar.before(Calendar.getInstance())) {
-                calendar.add(Calendar.DAY_OF_MONTH, 1);
-            }
-            
-            Intent intent = new Intent(context, WaterReminderReceiver.class);
-            PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                    context,
-                    hour, // Utiliser l'heure comme ID unique
-                    intent,
-                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-            );
-            
-            if (alarmManager != null) {
-                alarmManager.setRepeating(
-                        AlarmManager.RTC_WAKEUP,
-                        calendar.getTimeInMillis(),
-                        AlarmManager.INTERVAL_DAY, // Répéter chaque jour
-                        pendingIntent
-                );
-            }
-        }
-    }
-    
-    public void scheduleStepsReminder() {
-        // Programmer un rappel à 18h pour les pas
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.HOUR_OF_DAY, 18);
-        calendar.set(Calendar.MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
-        
-        if (calendar.before(Calendar.getInstance())) {
-            calendar.add(Calendar.DAY_OF_MONTH, 1);
-        }
-        
-        Intent intent = new Intent(context, StepsReminderReceiver.class);
-        PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                context,
-                100,
-                intent,
-                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-        );
-        
-        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-        if (alarmManager != null) {
-            alarmManager.setRepeating(
-                    AlarmManager.RTC_WAKEUP,
-                    calendar.getTimeInMillis(),
-                    AlarmManager.INTERVAL_DAY,
-                    pendingIntent
-            );
-        }
-    }
 }
@@ -3,15 +3,22 @@ package com.example.projet_android.services;
 import android.content.Context;
 import android.util.Log;
 
+import androidx.core.content.ContextCompat;
+
 import com.example.projet_android.models.FoodItem;
+import com.example.projet_android.database.AppDatabase;
 import com.example.projet_android.database.DatabaseManager;
+import com.example.projet_android.database.OfflineCatalog;
+import com.example.projet_android.database.entities.CachedProduct;
+import com.example.projet_android.database.entities.FoodLog;
+import com.example.projet_android.database.repositories.ProductCacheRepository;
 import com.example.projet_android.utils.PreferencesManager;
 
+import java.util.concurrent.Executor;
+
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
-import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 
 public class NutritionManager {
     
@@ -33,31 +40,76 @@ public class NutritionManager {
         this.databaseManager = DatabaseManager.getInstance(context);
         this.preferencesManager = new PreferencesManager(context);
         
-        Retrofit retrofit = new Retrofit.Builder()
-                .baseUrl(BASE_URL)
-                .addConverterFactory(GsonConverterFactory.create())
-                .build();
-        
-        service = retrofit.create(OpenFoodFactsService.class);
+        // Client HTTP partagé (pool de connexions et cache disque communs)
+        service = HttpClientProvider.getInstance(context).create(BASE_URL, OpenFoodFactsService.class);
     }
     
+    // Cache local d'abord (instantané, hors ligne), puis catalogue hors ligne ; une entrée
+    // périmée est servie immédiatement puis revalidée en arrière-plan auprès d'OpenFoodFacts
     public void searchProductByBarcode(String barcode, NutritionListener listener) {
-        Call<OpenFoodFactsService.OpenFoodFactsResponse> call = service.getProduct(barcode);
+        String userId = preferencesManager.getUserId();
+        Executor mainExecutor = ContextCompat.getMainExecutor(context);
+        
+        // Le cache est en base : lecture hors du thread principal
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            CachedProduct cached = databaseManager.getCachedProductSync(barcode);
+            if (cached == null && userId != null) {
+                // Produit déjà consommé mais absent du cache : servi, puis revalidé
+                FoodLog lastLog = databaseManager.getLastFoodByBarcodeSync(userId, barcode);
+                if (lastLog != null) {
+                    cached = fromFoodLog(lastLog);
+                }
+            }
+            if (cached == null) {
+                // Catalogue hors ligne embarqué : répond sans réseau, revalidé ensuite
+                OfflineCatalog catalog = OfflineCatalog.get(context);
+                if (catalog != null) {
+                    cached = catalog.lookup(barcode);
+                }
+            }
+            
+            if (cached == null) {
+                fetchProduct(barcode, listener);
+                return;
+            }
+            
+            CachedProduct hit = cached;
+            mainExecutor.execute(() -> {
+                if (hit.found) {
+                    listener.onFoodFound(toFoodItem(hit));
+                } else {
+                    listener.onFoodNotFound();
+                }
+            });
+            if (!ProductCacheRepository.isFresh(hit)) {
+                fetchProduct(barcode, null);
+            }
+        });
+    }
+    
+    // listener null : revalidation en arrière-plan, seul le cache est mis à jour
+    private void fetchProduct(String barcode, NutritionListener listener) {
+        Call<OpenFoodFactsService.OpenFoodFactsResponse> call = service.getProduct(barcode, OpenFoodFactsService.PRODUCT_FIELDS);
         
         call.enqueue(new Callback<OpenFoodFactsService.OpenFoodFactsResponse>() {
             @Override
             public void onResponse(Call<OpenFoodFactsService.OpenFoodFactsResponse> call, 
                                  Response<OpenFoodFactsService.OpenFoodFactsResponse> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    OpenFoodFactsService.OpenFoodFactsResponse apiResponse = response.body();
-                    
-                    if (apiResponse.status == 1 && apiResponse.product != null) {
-                        FoodItem foodItem = convertToFoodItem(apiResponse.product, barcode);
+                OpenFoodFactsService.OpenFoodFactsResponse apiResponse = response.body();
+                if (response.isSuccessful() && apiResponse != null
+                        && apiResponse.status == 1 && apiResponse.product != null) {
+                    FoodItem foodItem = convertToFoodItem(apiResponse.product, barcode);
+                    databaseManager.cacheProduct(toCachedProduct(foodItem));
+                    if (listener != null) {
                         listener.onFoodFound(foodItem);
-                    } else {
+                    }
+                } else if ((response.isSuccessful() && apiResponse != null) || response.code() == 404) {
+                    // Code inconnu : mémorisé pour ne pas le redemander à chaque scan
+                    databaseManager.cacheProductNotFound(barcode);
+                    if (listener != null) {
                         listener.onFoodNotFound();
                     }
-                } else {
+                } else if (listener != null) {
                     listener.onError("Erreur de réponse du serveur");
                 }
             }
@@ -65,11 +117,55 @@ public class NutritionManager {
             @Override
             public void onFailure(Call<OpenFoodFactsService.OpenFoodFactsResponse> call, Throwable t) {
                 Log.e(TAG, "Erreur lors de la recherche: " + t.getMessage());
-                listener.onError(t.getMessage());
+                if (listener != null) {
+                    listener.onError(t.getMessage());
+                }
             }
         });
     }
     
+    private static FoodItem toFoodItem(CachedProduct product) {
+        FoodItem foodItem = new FoodItem();
+        foodItem.setName(product.name);
+        foodItem.setBrand(product.brand);
+        foodItem.setBarcode(product.barcode);
+        foodItem.setImageUrl(product.imageUrl);
+        foodItem.setCalories(product.calories);
+        foodItem.setProtein(product.protein);
+        foodItem.setCarbs(product.carbs);
+        foodItem.setFat(product.fat);
+        return foodItem;
+    }
+    
+    private static CachedProduct toCachedProduct(FoodItem foodItem) {
+        CachedProduct product = new CachedProduct();
+        product.barcode = foodItem.getBarcode();
+        product.found = true;
+        product.name = foodItem.getName();
+        product.brand = foodItem.getBrand();
+        product.imageUrl = foodItem.getImageUrl();
+        product.calories = foodItem.getCalories();
+        product.protein = foodItem.getProtein();
+        product.carbs = foodItem.getCarbs();
+        product.fat = foodItem.getFat();
+        return product;
+    }
+    
+    // fetchedAt = 0 : toujours périmé, donc revalidé
+    private static CachedProduct fromFoodLog(FoodLog foodLog) {
+        CachedProduct product = new CachedProduct();
+        product.barcode = foodLog.barcode;
+        product.found = true;
+        product.name = foodLog.foodName;
+        product.brand = foodLog.brand != null ? foodLog.brand : "";
+        product.imageUrl = foodLog.imageUrl != null ? foodLog.imageUrl : "";
+        product.calories = foodLog.calories;
+        product.protein = foodLog.protein;
+        product.carbs = foodLog.carbs;
+        product.fat = foodLog.fat;
+        return product;
+    }
+    
     private FoodItem convertToFoodItem(OpenFoodFactsService.OpenFoodFactsResponse.Product product, String barcode) {
         FoodItem foodItem = new FoodItem();
         
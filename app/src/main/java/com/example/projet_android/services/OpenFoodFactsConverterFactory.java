@@ -0,0 +1,150 @@
+package com.example.projet_android.services;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Lecture en flux des fiches produit OpenFoodFacts.
+ * Une fiche complète pèse des dizaines de Ko (ingrédients, images, traductions) :
+ * seuls status, product_name, brands, image_url et quatre nutriments sont lus,
+ * tout le reste est sauté sans construire d'arbre ni d'objets intermédiaires.
+ * Ne prend en charge que OpenFoodFactsResponse ; les autres types passent à Gson.
+ */
+class OpenFoodFactsConverterFactory extends Converter.Factory {
+    
+    static final OpenFoodFactsConverterFactory INSTANCE = new OpenFoodFactsConverterFactory();
+    
+    private OpenFoodFactsConverterFactory() {
+    }
+    
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+        if (type != OpenFoodFactsService.OpenFoodFactsResponse.class) {
+            return null;
+        }
+        return (Converter<ResponseBody, OpenFoodFactsService.OpenFoodFactsResponse>) body -> {
+            try {
+                return parse(body.charStream());
+            } finally {
+                body.close();
+            }
+        };
+    }
+    
+    static OpenFoodFactsService.OpenFoodFactsResponse parse(Reader in) throws IOException {
+        JsonReader reader = new JsonReader(in);
+        OpenFoodFactsService.OpenFoodFactsResponse response = new OpenFoodFactsService.OpenFoodFactsResponse();
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "status":
+                    response.status = (int) readNumber(reader);
+                    break;
+                case "product":
+                    response.product = readProduct(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return response;
+    }
+    
+    private static OpenFoodFactsService.OpenFoodFactsResponse.Product readProduct(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        
+        OpenFoodFactsService.OpenFoodFactsResponse.Product product = new OpenFoodFactsService.OpenFoodFactsResponse.Product();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "product_name":
+                    product.product_name = readString(reader);
+                    break;
+                case "brands":
+                    product.brands = readString(reader);
+                    break;
+                case "image_url":
+                    product.image_url = readString(reader);
+                    break;
+                case "nutriments":
+                    product.nutriments = readNutriments(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return product;
+    }
+    
+    private static OpenFoodFactsService.OpenFoodFactsResponse.Product.Nutriments readNutriments(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        
+        OpenFoodFactsService.OpenFoodFactsResponse.Product.Nutriments nutriments =
+                new OpenFoodFactsService.OpenFoodFactsResponse.Product.Nutriments();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "energy-kcal_100g":
+                    nutriments.energy_kcal_100g = (float) readNumber(reader);
+                    break;
+                case "proteins_100g":
+                    nutriments.proteins_100g = (float) readNumber(reader);
+                    break;
+                case "carbohydrates_100g":
+                    nutriments.carbohydrates_100g = (float) readNumber(reader);
+                    break;
+                case "fat_100g":
+                    nutriments.fat_100g = (float) readNumber(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return nutriments;
+    }
+    
+    private static String readString(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return reader.nextString();
+        }
+        reader.skipValue();
+        return null;
+    }
+    
+    // Les valeurs saisies par les contributeurs arrivent parfois en texte ("12.5", "")
+    private static double readNumber(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.NUMBER) {
+            return reader.nextDouble();
+        }
+        if (token == JsonToken.STRING) {
+            try {
+                return Double.parseDouble(reader.nextString());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        reader.skipValue();
+        return 0;
+    }
+}
@@ -1,15 +1,19 @@
 package com.example.projet_android.services;
 
-import com.example.projet_android.models.FoodItem;
+import com.google.gson.annotations.SerializedName;
 
 import retrofit2.Call;
 import retrofit2.http.GET;
 import retrofit2.http.Path;
+import retrofit2.http.Query;
 
 public interface OpenFoodFactsService {
     
+    // Seuls les champs lus par OpenFoodFactsConverterFactory sont demandés à l'API
+    String PRODUCT_FIELDS = "product_name,brands,image_url,nutriments";
+    
     @GET("api/v0/product/{barcode}.json")
-    Call<OpenFoodFactsResponse> getProduct(@Path("barcode") String barcode);
+    Call<OpenFoodFactsResponse> getProduct(@Path("barcode") String barcode, @Query("fields") String fields);
     
     public static class OpenFoodFactsResponse {
         public int status;
@@ -22,6 +26,7 @@ public interface OpenFoodFactsService {
             public Nutriments nutriments;
             
             public static class Nutriments {
+                @SerializedName("energy-kcal_100g")
                 public float energy_kcal_100g;
                 public float proteins_100g;
                 public float carbohydrates_100g;
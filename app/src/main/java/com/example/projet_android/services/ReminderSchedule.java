@@ -0,0 +1,122 @@
+package com.example.projet_android.services;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Rappels voulus pour des réglages donnés, par canal (un receiver par canal).
+ * Un canal n'a qu'une alarme enregistrée à la fois : celle de son prochain créneau,
+ * reprogrammée par le receiver quand elle sonne (voir ReminderScheduler).
+ * La signature d'un canal permet de savoir si l'alarme déjà enregistrée est encore valable.
+ */
+public final class ReminderSchedule {
+    
+    public enum Channel {
+        DAILY,
+        STEPS,
+        WATER
+    }
+    
+    // Créneaux du canal DAILY (extra ReminderScheduler.EXTRA_ACTION)
+    public static final String ACTION_MORNING = "MORNING_REMINDER";
+    public static final String ACTION_EVENING = "EVENING_REMINDER";
+    
+    /**
+     * Prochain créneau d'un canal
+     */
+    public static final class Due {
+        public final long triggerAtMillis;
+        public final String action; // null sauf pour le canal DAILY
+        
+        Due(long triggerAtMillis, String action) {
+            this.triggerAtMillis = triggerAtMillis;
+            this.action = action;
+        }
+    }
+    
+    // Minute du jour -> action, triés ; deux rappels à la même minute n'en font qu'un
+    private final Map<Channel, TreeMap<Integer, String>> slots = new EnumMap<>(Channel.class);
+    
+    private ReminderSchedule() {
+        for (Channel channel : Channel.values()) {
+            slots.put(channel, new TreeMap<>());
+        }
+    }
+    
+    public static ReminderSchedule forSettings(boolean notificationsEnabled, boolean waterRemindersEnabled) {
+        ReminderSchedule schedule = new ReminderSchedule();
+        if (notificationsEnabled) {
+            schedule.add(Channel.DAILY, 8, 0, ACTION_MORNING);
+            schedule.add(Channel.DAILY, 20, 0, ACTION_EVENING);
+            
+            // Activité : 12h30 et 17h30, plus le rappel de 18h
+            schedule.add(Channel.STEPS, 12, 30, null);
+            schedule.add(Channel.STEPS, 17, 30, null);
+            schedule.add(Channel.STEPS, 18, 0, null);
+            
+            // Hydratation toutes les 2 heures, 9h-19h
+            for (int hour = 9; hour <= 19; hour += 2) {
+                schedule.add(Channel.WATER, hour, 0, null);
+            }
+        }
+        if (waterRemindersEnabled) {
+            // Rappels d'eau des paramètres : toutes les 2 heures, 8h-20h
+            for (int hour = 8; hour <= 20; hour += 2) {
+                schedule.add(Channel.WATER, hour, 0, null);
+            }
+        }
+        return schedule;
+    }
+    
+    private void add(Channel channel, int hour, int minute, String action) {
+        slots.get(channel).put(hour * 60 + minute, action);
+    }
+    
+    public boolean isEmpty(Channel channel) {
+        return slots.get(channel).isEmpty();
+    }
+    
+    /**
+     * Description stable des créneaux du canal, par exemple "480=MORNING_REMINDER,1200=EVENING_REMINDER"
+     */
+    public String signature(Channel channel) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<Integer, String> slot : slots.get(channel).entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(slot.getKey());
+            if (slot.getValue() != null) {
+                builder.append('=').append(slot.getValue());
+            }
+        }
+        return builder.toString();
+    }
+    
+    /**
+     * Premier créneau strictement après now (heure locale de now), null si le canal est vide
+     */
+    public Due nextDue(Channel channel, ZonedDateTime now) {
+        TreeMap<Integer, String> channelSlots = slots.get(channel);
+        if (channelSlots.isEmpty()) {
+            return null;
+        }
+        
+        // Aujourd'hui, sinon le premier créneau de demain
+        LocalDate today = now.toLocalDate();
+        for (int dayOffset = 0; dayOffset <= 1; dayOffset++) {
+            LocalDate day = today.plusDays(dayOffset);
+            for (Map.Entry<Integer, String> slot : channelSlots.entrySet()) {
+                ZonedDateTime at = day.atTime(LocalTime.ofSecondOfDay(slot.getKey() * 60L)).atZone(now.getZone());
+                if (at.isAfter(now)) {
+                    return new Due(at.toInstant().toEpochMilli(), slot.getValue());
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.projet_android.services;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.example.projet_android.utils.PreferencesManager;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Alarmes des rappels : une seule alarme par canal (celle du prochain créneau),
+ * reprogrammée par le receiver quand elle sonne, au lieu d'une alarme répétitive
+ * par créneau. L'état enregistré est conservé dans les préférences : sync() compare
+ * les créneaux voulus à ceux déjà programmés et ne touche qu'aux canaux modifiés
+ * (aucun appel à AlarmManager quand rien n'a changé).
+ */
+public final class ReminderScheduler {
+    
+    private static final String TAG = "ReminderScheduler";
+    private static final String PREFS_NAME = "reminder_schedule";
+    private static final String KEY_SIGNATURE = "signature_";
+    private static final String KEY_NEXT_AT = "next_at_";
+    private static final String KEY_LEGACY_CLEARED = "legacy_alarms_cleared";
+    private static final int REQUEST_CODE_BASE = 3000;
+    
+    // Créneau du canal DAILY (matin ou soir) porté par l'intent
+    public static final String EXTRA_ACTION = "reminder_action";
+    
+    private ReminderScheduler() {
+    }
+    
+    /**
+     * Applique les réglages de PreferencesManager : ajoute, déplace ou annule
+     * uniquement les alarmes des canaux dont les créneaux ont changé
+     */
+    public static synchronized void sync(Context context) {
+        Context appContext = context.getApplicationContext();
+        AlarmManager alarmManager = (AlarmManager) appContext.getSystemService(Context.ALARM_SERVICE);
+        SharedPreferences state = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        clearLegacyAlarms(appContext, alarmManager, state);
+        
+        ReminderSchedule schedule = currentSchedule(appContext);
+        ZonedDateTime now = ZonedDateTime.now();
+        SharedPreferences.Editor editor = state.edit();
+        int changed = 0;
+        for (ReminderSchedule.Channel channel : ReminderSchedule.Channel.values()) {
+            String registered = state.getString(KEY_SIGNATURE + channel.name(), null);
+            if (schedule.isEmpty(channel)) {
+                if (registered != null) {
+                    cancel(appContext, alarmManager, channel);
+                    editor.remove(KEY_SIGNATURE + channel.name()).remove(KEY_NEXT_AT + channel.name());
+                    changed++;
+                }
+                continue;
+            }
+            
+            // Le fuseau fait partie de la signature : les créneaux sont en heure locale
+            String desired = schedule.signature(channel) + "@" + now.getZone().getId();
+            long nextAt = state.getLong(KEY_NEXT_AT + channel.name(), 0);
+            if (desired.equals(registered) && nextAt > System.currentTimeMillis() && isRegistered(appContext, channel)) {
+                continue;
+            }
+            ReminderSchedule.Due due = schedule.nextDue(channel, now);
+            set(appContext, alarmManager, channel, due);
+            editor.putString(KEY_SIGNATURE + channel.name(), desired)
+                    .putLong(KEY_NEXT_AT + channel.name(), due.triggerAtMillis);
+            changed++;
+        }
+        editor.apply();
+        Log.d(TAG, changed == 0 ? "Alarmes déjà à jour" : changed + " canal(aux) reprogrammé(s)");
+    }
+    
+    /**
+     * Appelé par le receiver d'un canal quand son alarme sonne : programme le créneau suivant
+     */
+    public static synchronized void onAlarmFired(Context context, ReminderSchedule.Channel channel) {
+        Context appContext = context.getApplicationContext();
+        AlarmManager alarmManager = (AlarmManager) appContext.getSystemService(Context.ALARM_SERVICE);
+        SharedPreferences state = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        
+        ReminderSchedule schedule = currentSchedule(appContext);
+        if (schedule.isEmpty(channel)) {
+            cancel(appContext, alarmManager, channel);
+            state.edit().remove(KEY_SIGNATURE + channel.name()).remove(KEY_NEXT_AT + channel.name()).apply();
+            return;
+        }
+        
+        ZonedDateTime now = ZonedDateTime.now();
+        ReminderSchedule.Due due = schedule.nextDue(channel, now);
+        set(appContext, alarmManager, channel, due);
+        state.edit()
+                .putString(KEY_SIGNATURE + channel.name(), schedule.signature(channel) + "@" + now.getZone().getId())
+                .putLong(KEY_NEXT_AT + channel.name(), due.triggerAtMillis)
+                .apply();
+    }
+    
+    private static ReminderSchedule currentSchedule(Context context) {
+        PreferencesManager preferencesManager = new PreferencesManager(context);
+        return ReminderSchedule.forSettings(preferencesManager.areNotificationsEnabled(),
+                preferencesManager.areWaterRemindersEnabled());
+    }
+    
+    private static void set(Context context, AlarmManager alarmManager, ReminderSchedule.Channel channel,
+                            ReminderSchedule.Due due) {
+        Intent intent = new Intent(context, receiverFor(channel));
+        if (due.action != null) {
+            intent.putExtra(EXTRA_ACTION, due.action);
+        }
+        // FLAG_UPDATE_CURRENT : même PendingIntent, l'alarme précédente du canal est remplacée
+        PendingIntent pendingIntent = PendingIntent.getBroadcast(context, REQUEST_CODE_BASE + channel.ordinal(),
+                intent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+        alarmManager.set(AlarmManager.RTC_WAKEUP, due.triggerAtMillis, pendingIntent);
+    }
+    
+    private static void cancel(Context context, AlarmManager alarmManager, ReminderSchedule.Channel channel) {
+        cancelPendingIntent(context, alarmManager, new Intent(context, receiverFor(channel)),
+                REQUEST_CODE_BASE + channel.ordinal());
+    }
+    
+    // Les PendingIntent disparaissent au redémarrage ou à l'arrêt forcé, avec les alarmes
+    private static boolean isRegistered(Context context, ReminderSchedule.Channel channel) {
+        return PendingIntent.getBroadcast(context, REQUEST_CODE_BASE + channel.ordinal(),
+                new Intent(context, receiverFor(channel)),
+                PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE) != null;
+    }
+    
+    private static Class<? extends BroadcastReceiver> receiverFor(ReminderSchedule.Channel channel) {
+        switch (channel) {
+            case DAILY:
+                return DailyHealthReminderReceiver.class;
+            case STEPS:
+                return StepsReminderReceiver.class;
+            default:
+                return WaterReminderReceiver.class;
+        }
+    }
+    
+    /**
+     * Annule une fois les anciennes alarmes répétitives (une par créneau)
+     * programmées par les versions précédentes de l'application
+     */
+    private static void clearLegacyAlarms(Context context, AlarmManager alarmManager, SharedPreferences state) {
+        if (state.getBoolean(KEY_LEGACY_CLEARED, false)) {
+            return;
+        }
+        
+        Intent morning = new Intent(context, DailyHealthReminderReceiver.class).setAction(ReminderSchedule.ACTION_MORNING);
+        cancelPendingIntent(context, alarmManager, morning, HealthNotificationManager.REQUEST_MORNING_REMINDER);
+        Intent evening = new Intent(context, DailyHealthReminderReceiver.class).setAction(ReminderSchedule.ACTION_EVENING);
+        cancelPendingIntent(context, alarmManager, evening, HealthNotificationManager.REQUEST_EVENING_SUMMARY);
+        
+        Intent water = new Intent(context, WaterReminderReceiver.class);
+        for (int hour = 9; hour <= 19; hour += 2) {
+            cancelPendingIntent(context, alarmManager, water, HealthNotificationManager.REQUEST_WATER_REMINDER + hour);
+        }
+        // NotificationHelper utilisait l'heure comme code de requête
+        for (int hour = 8; hour <= 20; hour += 2) {
+            cancelPendingIntent(context, alarmManager, water, hour);
+        }
+        
+        Intent steps = new Intent(context, StepsReminderReceiver.class);
+        cancelPendingIntent(context, alarmManager, steps, HealthNotificationManager.REQUEST_STEPS_REMINDER + 12);
+        cancelPendingIntent(context, alarmManager, steps, HealthNotificationManager.REQUEST_STEPS_REMINDER + 17);
+        cancelPendingIntent(context, alarmManager, steps, 100);
+        
+        state.edit().putBoolean(KEY_LEGACY_CLEARED, true).apply();
+    }
+    
+    private static void cancelPendingIntent(Context context, AlarmManager alarmManager, Intent intent, int requestCode) {
+        PendingIntent pendingIntent = PendingIntent.getBroadcast(context, requestCode, intent,
+                PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE);
+        if (pendingIntent != null) {
+            alarmManager.cancel(pendingIntent);
+            pendingIntent.cancel();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.projet_android.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Intervalles de sommeil de plusieurs sources (téléphone, montre) : une même nuit
+ * enregistrée deux fois ne compte qu'une fois, les chevauchements sont fusionnés.
+ */
+final class SleepSegments {
+    
+    private final List<long[]> segments = new ArrayList<>();
+    
+    void add(long startMillis, long endMillis) {
+        if (endMillis > startMillis) {
+            segments.add(new long[] {startMillis, endMillis});
+        }
+    }
+    
+    boolean isEmpty() {
+        return segments.isEmpty();
+    }
+    
+    /**
+     * Durée couverte par au moins un intervalle
+     */
+    long totalMillis() {
+        List<long[]> sorted = new ArrayList<>(segments);
+        sorted.sort((a, b) -> Long.compare(a[0], b[0]));
+        long total = 0;
+        long currentStart = 0;
+        long currentEnd = Long.MIN_VALUE;
+        for (long[] segment : sorted) {
+            if (segment[0] > currentEnd) {
+                if (currentEnd != Long.MIN_VALUE) {
+                    total += currentEnd - currentStart;
+                }
+                currentStart = segment[0];
+                currentEnd = segment[1];
+            } else {
+                currentEnd = Math.max(currentEnd, segment[1]);
+            }
+        }
+        if (currentEnd != Long.MIN_VALUE) {
+            total += currentEnd - currentStart;
+        }
+        return total;
+    }
+}
@@ -22,6 +22,8 @@ public class StepsReminderReceiver extends BroadcastReceiver {
     @Override
     public void onReceive(Context context, Intent intent) {
         Log.d(TAG, "Rappel d'activité déclenché");
+        // Une seule alarme pour le canal : programmer le créneau suivant
+        ReminderScheduler.onAlarmFired(context, ReminderSchedule.Channel.STEPS);
         showStepsReminder(context);
     }
     
@@ -0,0 +1,156 @@
+package com.example.projet_android.services;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.projet_android.database.DatabaseManager;
+import com.example.projet_android.database.entities.HealthData;
+import com.example.projet_android.utils.PreferencesManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Point d'entrée unique des synchronisations (écrans, ViewModel, WorkManager).
+ * - Une seule synchronisation à la fois : les demandes concurrentes partagent son résultat.
+ * - Une synchronisation réussie il y a moins de freshnessTtlMs suffit : on relit
+ *   simplement la ligne du jour en base.
+ * - Une demande forcée pendant une synchronisation en déclenche une seule autre, à la fin
+ *   de la première (toutes les demandes forcées entre-temps la partagent).
+ * - Une synchronisation sans réponse après SYNC_TIMEOUT_MS échoue : les demandes
+ *   suivantes ne restent pas rattachées à une future qui ne se terminerait jamais.
+ */
+public final class SyncCoordinator {
+    
+    private static final String TAG = "SyncCoordinator";
+    public static final long DEFAULT_FRESHNESS_TTL_MS = 2 * 60 * 1000;
+    // Inférieur au délai d'attente de SyncWorker (5 minutes)
+    static final long SYNC_TIMEOUT_MS = 3 * 60 * 1000;
+    
+    private static final ScheduledExecutorService timeoutScheduler =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "sync-timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+    
+    private static volatile SyncCoordinator instance;
+    
+    private final DataSyncService dataSyncService;
+    private final DatabaseManager databaseManager;
+    private final PreferencesManager preferencesManager;
+    private final Object lock = new Object();
+    
+    // Protégés par lock
+    private CompletableFuture<HealthData> inFlight;
+    private CompletableFuture<HealthData> rerun;
+    
+    private volatile long freshnessTtlMs = DEFAULT_FRESHNESS_TTL_MS;
+    
+    public static SyncCoordinator getInstance(Context context) {
+        if (instance == null) {
+            synchronized (SyncCoordinator.class) {
+                if (instance == null) {
+                    instance = new SyncCoordinator(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+    
+    private SyncCoordinator(Context appContext) {
+        this.dataSyncService = new DataSyncService(appContext);
+        this.databaseManager = DatabaseManager.getInstance(appContext);
+        this.preferencesManager = new PreferencesManager(appContext);
+    }
+    
+    public void setFreshnessTtl(long ttlMs) {
+        this.freshnessTtlMs = ttlMs;
+    }
+    
+    /**
+     * Synchronisation si les données ne sont pas assez récentes
+     */
+    public CompletableFuture<HealthData> sync() {
+        return sync(false);
+    }
+    
+    /**
+     * Synchronisation même si la précédente est récente (connexion Google, action explicite)
+     */
+    public CompletableFuture<HealthData> syncNow() {
+        return sync(true);
+    }
+    
+    private CompletableFuture<HealthData> sync(boolean force) {
+        synchronized (lock) {
+            if (inFlight != null) {
+                if (!force) {
+                    Log.d(TAG, "Synchronisation déjà en cours, demande rattachée");
+                    return share(inFlight);
+                }
+                if (rerun == null) {
+                    rerun = new CompletableFuture<>();
+                }
+                return share(rerun);
+            }
+            
+            String userId = preferencesManager.getUserId();
+            if (!force && userId != null && isFresh()) {
+                Log.d(TAG, "Données récentes, pas de synchronisation");
+                return databaseManager.loadTodaysHealthData(userId);
+            }
+            return share(startLocked());
+        }
+    }
+    
+    private boolean isFresh() {
+        return System.currentTimeMillis() - preferencesManager.getLastSyncTime() < freshnessTtlMs;
+    }
+    
+    private CompletableFuture<HealthData> startLocked() {
+        CompletableFuture<HealthData> sync = dataSyncService.syncAllData();
+        inFlight = sync;
+        // Java 8 n'a pas orTimeout()
+        ScheduledFuture<?> timeout = timeoutScheduler.schedule(() -> {
+            if (sync.completeExceptionally(new TimeoutException("Synchronisation sans réponse"))) {
+                Log.w(TAG, "Synchronisation abandonnée après " + SYNC_TIMEOUT_MS + "ms");
+            }
+        }, SYNC_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        sync.whenComplete((healthData, error) -> {
+            timeout.cancel(false);
+            onFinished(sync);
+        });
+        return sync;
+    }
+    
+    private void onFinished(CompletableFuture<HealthData> sync) {
+        synchronized (lock) {
+            if (inFlight != sync) {
+                return;
+            }
+            inFlight = null;
+            
+            CompletableFuture<HealthData> follower = rerun;
+            rerun = null;
+            if (follower != null) {
+                startLocked().whenComplete((healthData, error) -> {
+                    if (error != null) {
+                        follower.completeExceptionally(error);
+                    } else {
+                        follower.complete(healthData);
+                    }
+                });
+            }
+        }
+    }
+    
+    // Chaque appelant reçoit sa propre future : l'annuler n'affecte pas les autres
+    private static CompletableFuture<HealthData> share(CompletableFuture<HealthData> shared) {
+        return shared.thenApply(healthData -> healthData);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.projet_android.services;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+
+import com.example.projet_android.utils.PreferencesManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planification des synchronisations en arrière-plan (WorkManager).
+ * Les travaux sont uniques par nom : une demande pendant qu'une synchronisation
+ * est déjà planifiée ou en cours n'en crée pas une seconde.
+ */
+public final class SyncScheduler {
+    
+    private static final String TAG = "SyncScheduler";
+    private static final String PERIODIC_WORK_NAME = "health_sync_periodic";
+    private static final String ONE_TIME_WORK_NAME = "health_sync_now";
+    
+    private static final long SYNC_INTERVAL_HOURS = 1;
+    private static final long SYNC_FLEX_MINUTES = 20;
+    private static final long BACKOFF_DELAY_SECONDS = 30;
+    
+    private SyncScheduler() {
+    }
+    
+    /**
+     * Synchronisation périodique, seulement en charge, sur réseau non mesuré et batterie
+     * suffisante. Sans effet si elle est déjà planifiée ; annulée si l'utilisateur a
+     * désactivé la synchronisation automatique.
+     */
+    public static void schedulePeriodicSync(Context context) {
+        WorkManager workManager = WorkManager.getInstance(context.getApplicationContext());
+        if (!new PreferencesManager(context).isAutoSyncEnabled()) {
+            workManager.cancelUniqueWork(PERIODIC_WORK_NAME);
+            return;
+        }
+        
+        Constraints constraints = new Constraints.Builder()
+                .setRequiresCharging(true)
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(SyncWorker.class,
+                SYNC_INTERVAL_HOURS, TimeUnit.HOURS, SYNC_FLEX_MINUTES, TimeUnit.MINUTES)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_DELAY_SECONDS, TimeUnit.SECONDS)
+                .build();
+        
+        workManager.enqueueUniquePeriodicWork(PERIODIC_WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+        Log.d(TAG, "Synchronisation périodique planifiée");
+    }
+    
+    /**
+     * Synchronisation ponctuelle dès qu'un réseau est disponible.
+     * Ignorée si une synchronisation ponctuelle est déjà en attente ou en cours.
+     */
+    public static void requestSync(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+        
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(SyncWorker.class)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_DELAY_SECONDS, TimeUnit.SECONDS)
+                .build();
+        
+        WorkManager.getInstance(context.getApplicationContext())
+                .enqueueUniqueWork(ONE_TIME_WORK_NAME, ExistingWorkPolicy.KEEP, request);
+    }
+    
+    /**
+     * A appeler à la déconnexion
+     */
+    public static void cancelAll(Context context) {
+        WorkManager workManager = WorkManager.getInstance(context.getApplicationContext());
+        workManager.cancelUniqueWork(PERIODIC_WORK_NAME);
+        workManager.cancelUniqueWork(ONE_TIME_WORK_NAME);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.projet_android.services;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.projet_android.utils.PreferencesManager;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Synchronisation en arrière-plan, planifiée par SyncScheduler.
+ * doWork() s'exécute sur un thread de WorkManager : on attend la fin de la
+ * synchronisation, les rappels Google Fit arrivent sur le thread principal.
+ */
+public class SyncWorker extends Worker {
+    
+    private static final String TAG = "SyncWorker";
+    private static final long SYNC_TIMEOUT_MINUTES = 5;
+    // Au-delà, l'échec est définitif jusqu'à la prochaine exécution périodique
+    private static final int MAX_ATTEMPTS = 5;
+    
+    public SyncWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+    
+    @NonNull
+    @Override
+    public Result doWork() {
+        String userId = new PreferencesManager(getApplicationContext()).getUserId();
+        if (userId == null || userId.isEmpty()) {
+            Log.d(TAG, "Pas d'utilisateur connecté, synchronisation ignorée");
+            return Result.success();
+        }
+        
+        try {
+            // Rattachée à une synchronisation déjà en cours, ignorée si la précédente est récente
+            SyncCoordinator.getInstance(getApplicationContext()).sync()
+                    .get(SYNC_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+            Log.d(TAG, "Synchronisation en arrière-plan terminée");
+            return Result.success();
+        } catch (ExecutionException | TimeoutException e) {
+            Log.w(TAG, "Synchronisation en arrière-plan échouée (tentative "
+                    + (getRunAttemptCount() + 1) + "): " + e.getMessage());
+            // Result.retry() : nouvel essai avec le délai exponentiel de SyncScheduler
+            return getRunAttemptCount() + 1 < MAX_ATTEMPTS ? Result.retry() : Result.failure();
+        } catch (InterruptedException e) {
+            // Travail arrêté par le système (contraintes plus remplies)
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+    }
+}
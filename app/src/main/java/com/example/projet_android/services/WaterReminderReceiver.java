@@ -22,6 +22,9 @@ public class WaterReminderReceiver extends BroadcastReceiver {
     @Override
     public void onReceive(Context context, Intent intent) {
         Log.d(TAG, "Rappel d'hydratation déclenché");
+        // Sans action ni extra, comme les anciennes alarmes : rien à distinguer
+        // Une seule alarme pour le canal : programmer le créneau suivant
+        ReminderScheduler.onAlarmFired(context, ReminderSchedule.Channel.WATER);
         showWaterReminder(context);
     }
     
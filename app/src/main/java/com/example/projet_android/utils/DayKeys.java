@@ -0,0 +1,133 @@
+package com.example.projet_android.utils;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Clés de jour ("yyyy-MM-dd") utilisées comme colonne date dans la base.
+ * Remplace les SimpleDateFormat partagés (non thread-safe) : java.time est immuable
+ * et le format ISO ne dépend pas de la locale (chiffres ASCII, ordre lexical = ordre chronologique).
+ * La clé du jour est mise en cache jusqu'à minuit (heure locale) ; le cache est
+ * invalidé si le fuseau horaire ou l'heure système change.
+ */
+public final class DayKeys {
+    
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+    
+    // Instantané immuable : publié d'un bloc via le champ volatile
+    private static final class Today {
+        final LocalDate date;
+        final String key;
+        final long validFromMillis;
+        final long validUntilMillis;
+        
+        Today(LocalDate date, long validFromMillis, long validUntilMillis) {
+            this.date = date;
+            this.key = date.format(FORMAT);
+            this.validFromMillis = validFromMillis;
+            this.validUntilMillis = validUntilMillis;
+        }
+    }
+    
+    private static volatile Today today;
+    private static volatile boolean receiverRegistered;
+    
+    private DayKeys() {
+    }
+    
+    /**
+     * Écoute les changements de fuseau horaire / d'heure pour invalider le cache.
+     * Appelé une fois avec le contexte de l'application (DatabaseManager).
+     */
+    public static void init(Context context) {
+        if (receiverRegistered) {
+            return;
+        }
+        synchronized (DayKeys.class) {
+            if (receiverRegistered) {
+                return;
+            }
+            IntentFilter filter = new IntentFilter();
+            filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+            filter.addAction(Intent.ACTION_TIME_CHANGED);
+            filter.addAction(Intent.ACTION_DATE_CHANGED);
+            context.getApplicationContext().registerReceiver(new BroadcastReceiver() {
+                @Override
+                public void onReceive(Context context, Intent intent) {
+                    invalidate();
+                }
+            }, filter);
+            receiverRegistered = true;
+        }
+    }
+    
+    /**
+     * Clé du jour courant. Sans allocation tant que minuit n'est pas passé.
+     */
+    public static String today() {
+        return currentDay().key;
+    }
+    
+    public static LocalDate todayDate() {
+        return currentDay().date;
+    }
+    
+    /**
+     * Clé du jour situé "days" jours avant aujourd'hui
+     */
+    public static String daysAgo(int days) {
+        return format(currentDay().date.minusDays(days));
+    }
+    
+    public static String format(LocalDate date) {
+        return date.format(FORMAT);
+    }
+    
+    public static LocalDate parse(String key) {
+        return LocalDate.parse(key, FORMAT);
+    }
+    
+    /**
+     * Numéro de jour depuis le 1970-01-01 (colonne epochDay), 0 si la clé est absente ou invalide
+     */
+    public static long toEpochDay(String key) {
+        if (key == null) {
+            return 0;
+        }
+        try {
+            return parse(key).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+    
+    public static void invalidate() {
+        today = null;
+    }
+    
+    private static Today currentDay() {
+        Today snapshot = today;
+        long now = System.currentTimeMillis();
+        if (snapshot == null || now >= snapshot.validUntilMillis || now < snapshot.validFromMillis) {
+            snapshot = computeToday(now);
+            today = snapshot;
+        }
+        return snapshot;
+    }
+    
+    private static Today computeToday(long now) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate date = Instant.ofEpochMilli(now).atZone(zone).toLocalDate();
+        long start = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        long end = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return new Today(date, start, end);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.projet_android.utils;
+
+/**
+ * Sous-échantillonnage Largest-Triangle-Three-Buckets pour les graphiques.
+ * Garde le premier et le dernier point, puis dans chaque tranche le point qui forme
+ * le plus grand triangle avec le point retenu précédent et la moyenne de la tranche
+ * suivante : les pics et creux restent visibles, contrairement à une moyenne.
+ * Travaille sur des tableaux fournis par l'appelant (aucune allocation).
+ */
+public final class Lttb {
+    
+    private Lttb() {
+    }
+    
+    /**
+     * Réduit les count premiers points (x croissants) à au plus threshold points,
+     * écrits dans outX / outY (taille >= min(count, threshold)).
+     * @return nombre de points écrits
+     */
+    public static int downsample(float[] x, float[] y, int count, int threshold, float[] outX, float[] outY) {
+        if (threshold >= count || threshold < 3) {
+            System.arraycopy(x, 0, outX, 0, count);
+            System.arraycopy(y, 0, outY, 0, count);
+            return count;
+        }
+        
+        // Tranches de taille égale entre le premier et le dernier point
+        double bucketSize = (double) (count - 2) / (threshold - 2);
+        int selected = 0;
+        int out = 0;
+        outX[out] = x[0];
+        outY[out++] = y[0];
+        
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Moyenne de la tranche suivante (le dernier point pour la dernière tranche)
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, count);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            avgX /= nextCount;
+            avgY /= nextCount;
+            
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+            double ax = x[selected];
+            double ay = y[selected];
+            double maxArea = -1;
+            int best = start;
+            for (int i = start; i < end; i++) {
+                // Double de l'aire : le facteur 1/2 ne change pas le maximum
+                double area = Math.abs((ax - avgX) * (y[i] - ay) - (ax - x[i]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    best = i;
+                }
+            }
+            
+            outX[out] = x[best];
+            outY[out++] = y[best];
+            selected = best;
+        }
+        
+        outX[out] = x[count - 1];
+        outY[out++] = y[count - 1];
+        return out;
+    }
+}
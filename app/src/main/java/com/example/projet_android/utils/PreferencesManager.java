@@ -152,6 +152,7 @@ public class PreferencesManager {
                 .putBoolean(KEY_USER_LOGGED_IN, false)
                 .putString(KEY_USER_ID, "")
                 .putString(KEY_USER_EMAIL, "")
+                .remove(KEY_LAST_SYNC_TIME)
                 .apply();
     }
     
@@ -0,0 +1,86 @@
+package com.example.projet_android.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Phases d'un démarrage à froid, en millisecondes depuis le lancement du processus.
+ * Une phase n'est enregistrée qu'une fois (la première) ; les phases de fond
+ * gardent aussi leur durée propre. Appelée depuis plusieurs threads.
+ */
+public class StartupTimings {
+    
+    private final long originMillis;
+    // Fin de chaque phase, relative à originMillis, dans l'ordre d'enregistrement
+    private final Map<String, Long> ends = new LinkedHashMap<>();
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+    
+    public StartupTimings(long originMillis) {
+        this.originMillis = originMillis;
+    }
+    
+    public synchronized void mark(String phase, long nowMillis) {
+        if (!ends.containsKey(phase)) {
+            ends.put(phase, nowMillis - originMillis);
+        }
+    }
+    
+    public synchronized void span(String phase, long startMillis, long endMillis) {
+        if (!ends.containsKey(phase)) {
+            ends.put(phase, endMillis - originMillis);
+            durations.put(phase, endMillis - startMillis);
+        }
+    }
+    
+    public synchronized boolean has(String phase) {
+        return ends.containsKey(phase);
+    }
+    
+    /**
+     * Fin de la phase depuis le lancement du processus, -1 si elle n'a pas eu lieu
+     */
+    public synchronized long getEnd(String phase) {
+        Long end = ends.get(phase);
+        return end != null ? end : -1;
+    }
+    
+    /**
+     * Fin de la dernière phase : durée totale du démarrage
+     */
+    public synchronized long getTotal() {
+        long total = 0;
+        for (long end : ends.values()) {
+            total = Math.max(total, end);
+        }
+        return total;
+    }
+    
+    /**
+     * Phases triées par fin, par exemple "splash_created=120ms, db_open=340ms (210ms)"
+     */
+    public synchronized String format() {
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(ends.entrySet());
+        sorted.sort((a, b) -> Long.compare(a.getValue(), b.getValue()));
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Long> entry : sorted) {
+            if (builder.length() > 0) {
+                builder.append(", ");
+            }
+            builder.append(entry.getKey()).append('=').append(entry.getValue()).append("ms");
+            Long duration = durations.get(entry.getKey());
+            if (duration != null) {
+                builder.append(" (").append(duration).append("ms)");
+            }
+        }
+        return builder.toString();
+    }
+    
+    /**
+     * Vrai si total dépasse le démarrage précédent de plus de tolerance (0.2 = 20 %)
+     */
+    public static boolean isRegression(long total, long previousTotal, float tolerance) {
+        return previousTotal > 0 && total > previousTotal * (1 + tolerance);
+    }
+}
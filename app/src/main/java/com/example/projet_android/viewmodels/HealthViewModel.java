@@ -6,12 +6,16 @@ import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
 
 import com.example.projet_android.database.DatabaseManager;
 import com.example.projet_android.database.entities.HealthData;
 import com.example.projet_android.database.entities.FoodLog;
 import com.example.projet_android.database.entities.Activity;
+import com.example.projet_android.database.entities.DailyDashboard;
+import com.example.projet_android.database.entities.NutritionTotals;
 import com.example.projet_android.services.DataSyncService;
+import com.example.projet_android.utils.DayKeys;
 import com.example.projet_android.utils.PreferencesManager;
 
 import java.util.List;
@@ -25,13 +29,42 @@ public class HealthViewModel extends AndroidViewModel {
     private MutableLiveData<Boolean> syncInProgress = new MutableLiveData<>(false);
     private MutableLiveData<String> syncError = new MutableLiveData<>();
     
+    // Jour affiché : les LiveData "du jour" en dépendent et changent de requête après minuit
+    private final MutableLiveData<String> today = new MutableLiveData<>(DayKeys.today());
+    
+    // Une seule requête partagée par les quatre totaux nutritionnels
+    private LiveData<NutritionTotals> todaysNutritionTotals;
+    private String nutritionTotalsUserId;
+    
+    // Tableau de bord du jour : un seul observer Room pour tout l'écran principal
+    private LiveData<DailyDashboard> todaysDashboard;
+    private String dashboardUserId;
+    
     public HealthViewModel(@NonNull Application application) {
         super(application);
         databaseManager = DatabaseManager.getInstance(application);
-        dataSyncService = new DataSyncService(application);
         preferencesManager = new PreferencesManager(application);
     }
     
+    // Construit à la première synchronisation : inutile pour afficher le tableau de bord
+    private DataSyncService getDataSyncService() {
+        if (dataSyncService == null) {
+            dataSyncService = new DataSyncService(getApplication());
+        }
+        return dataSyncService;
+    }
+    
+    /**
+     * À appeler au retour sur l'écran : si le jour a changé depuis la création
+     * de la requête, les observers basculent sur la requête du nouveau jour
+     */
+    public void refreshDay() {
+        String day = DayKeys.today();
+        if (!day.equals(today.getValue())) {
+            today.setValue(day);
+        }
+    }
+    
     // Getters pour les LiveData
     public LiveData<Boolean> getSyncInProgress() {
         return syncInProgress;
@@ -50,6 +83,23 @@ public class HealthViewModel extends AndroidViewModel {
         return new MutableLiveData<>(null);
     }
     
+    /**
+     * Résumé du jour (santé, nutrition, activités) émis une seule fois par changement.
+     * Les émissions identiques (ex: écriture sans effet) sont ignorées.
+     */
+    public LiveData<DailyDashboard> getTodaysDashboard() {
+        String userId = preferencesManager.getUserId();
+        if (userId == null) {
+            return new MutableLiveData<>(null);
+        }
+        if (todaysDashboard == null || !userId.equals(dashboardUserId)) {
+            todaysDashboard = Transformations.distinctUntilChanged(Transformations.switchMap(today,
+                    day -> databaseManager.getDailyDashboard(userId, day)));
+            dashboardUserId = userId;
+        }
+        return todaysDashboard;
+    }
+    
     public LiveData<List<HealthData>> getRecentHealthData(int days) {
         String userId = preferencesManager.getUserId();
         if (userId != null) {
@@ -67,36 +117,37 @@ public class HealthViewModel extends AndroidViewModel {
         return new MutableLiveData<>();
     }
     
-    public LiveData<Float> getTodaysTotalCalories() {
+    public LiveData<NutritionTotals> getTodaysNutritionTotals() {
         String userId = preferencesManager.getUserId();
-        if (userId != null) {
-            return databaseManager.getTodaysTotalCalories(userId);
+        if (userId == null) {
+            return new MutableLiveData<>(null);
+        }
+        if (todaysNutritionTotals == null || !userId.equals(nutritionTotalsUserId)) {
+            todaysNutritionTotals = Transformations.switchMap(today,
+                    day -> databaseManager.getNutritionTotalsForDate(userId, day));
+            nutritionTotalsUserId = userId;
         }
-        return new MutableLiveData<>(0f);
+        return todaysNutritionTotals;
+    }
+    
+    public LiveData<Float> getTodaysTotalCalories() {
+        return Transformations.map(getTodaysNutritionTotals(),
+                totals -> totals != null ? totals.calories : 0f);
     }
     
     public LiveData<Float> getTodaysTotalProtein() {
-        String userId = preferencesManager.getUserId();
-        if (userId != null) {
-            return databaseManager.getTodaysTotalProtein(userId);
-        }
-        return new MutableLiveData<>(0f);
+        return Transformations.map(getTodaysNutritionTotals(),
+                totals -> totals != null ? totals.protein : 0f);
     }
     
     public LiveData<Float> getTodaysTotalCarbs() {
-        String userId = preferencesManager.getUserId();
-        if (userId != null) {
-            return databaseManager.getTodaysTotalCarbs(userId);
-        }
-        return new MutableLiveData<>(0f);
+        return Transformations.map(getTodaysNutritionTotals(),
+                totals -> totals != null ? totals.carbs : 0f);
     }
     
     public LiveData<Float> getTodaysTotalFat() {
-        String userId = preferencesManager.getUserId();
-        if (userId != null) {
-            return databaseManager.getTodaysTotalFat(userId);
-        }
-        return new MutableLiveData<>(0f);
+        return Transformations.map(getTodaysNutritionTotals(),
+                totals -> totals != null ? totals.fat : 0f);
     }
     
     // Méthodes pour obtenir les données d'activités
@@ -121,7 +172,7 @@ public class HealthViewModel extends AndroidViewModel {
         syncInProgress.setValue(true);
         syncError.setValue(null);
         
-        dataSyncService.syncAllData(new DataSyncService.SyncListener() {
+        getDataSyncService().syncAllData(new DataSyncService.SyncListener() {
             @Override
             public void onSyncStarted() {
                 syncInProgress.postValue(true);
@@ -149,7 +200,7 @@ public class HealthViewModel extends AndroidViewModel {
         syncInProgress.setValue(true);
         syncError.setValue(null);
         
-        dataSyncService.quickSync(new DataSyncService.SyncListener() {
+        getDataSyncService().quickSync(new DataSyncService.SyncListener() {
             @Override
             public void onSyncStarted() {
                 syncInProgress.postValue(true);
@@ -175,15 +226,15 @@ public class HealthViewModel extends AndroidViewModel {
     
     // Méthodes pour mettre à jour les données manuellement
     public void updateSleepData(float sleepHours) {
-        dataSyncService.updateSleepData(sleepHours);
+        getDataSyncService().updateSleepData(sleepHours);
     }
     
     public void updateWaterIntake(int waterGlasses) {
-        dataSyncService.updateWaterIntake(waterGlasses);
+        getDataSyncService().updateWaterIntake(waterGlasses);
     }
     
     public void updateHeartRate(int heartRate) {
-        dataSyncService.updateHeartRate(heartRate);
+        getDataSyncService().updateHeartRate(heartRate);
     }
     
     // Méthode pour ajouter une activité manuelle
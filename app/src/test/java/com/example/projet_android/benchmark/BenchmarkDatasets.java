@@ -0,0 +1,112 @@
+package com.example.projet_android.benchmark;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+
+import com.example.projet_android.database.AppDatabase;
+import com.example.projet_android.database.DatabaseManager;
+import com.example.projet_android.database.DatabaseWriteQueue;
+import com.example.projet_android.database.entities.Activity;
+import com.example.projet_android.database.entities.FoodLog;
+import com.example.projet_android.database.entities.HealthData;
+import com.example.projet_android.database.entities.User;
+import com.example.projet_android.utils.DayKeys;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Jeux de données des benchmarks : N années d'historique pour un utilisateur
+ * (une ligne health_data, 4 aliments et une activité par jour).
+ */
+final class BenchmarkDatasets {
+    
+    static final String USER_ID = "benchmark_user";
+    static final int FOOD_LOGS_PER_DAY = 4;
+    
+    private static final String[] MEALS = {"breakfast", "lunch", "dinner", "snack"};
+    private static final String[] ACTIVITIES = {"walking", "running", "cycling", "gym"};
+    
+    private BenchmarkDatasets() {
+    }
+    
+    /**
+     * Les singletons (base, file d'écriture, DatabaseManager) survivent d'un test
+     * Robolectric à l'autre : on les remet à zéro avant chaque jeu de données
+     */
+    static void reset(Context context) throws Exception {
+        AppDatabase.closeDatabase();
+        clearStatic(DatabaseManager.class, "instance");
+        clearStatic(DatabaseWriteQueue.class, "INSTANCE");
+        context.deleteDatabase("health_tracker_database");
+    }
+    
+    static void seed(AppDatabase db, int years) {
+        Random random = new Random(42);
+        LocalDate today = DayKeys.todayDate();
+        LocalDate first = today.minusYears(years).plusDays(1);
+        
+        db.runInTransaction(() -> {
+            db.userDao().insertUser(new User(USER_ID, "bench@example.com", "Benchmark", "email"));
+            
+            for (LocalDate day = first; !day.isAfter(today); day = day.plusDays(1)) {
+                String date = DayKeys.format(day);
+                
+                HealthData healthData = new HealthData(USER_ID, date);
+                healthData.steps = 2000 + random.nextInt(14000);
+                healthData.calories = healthData.steps / 20;
+                healthData.distance = healthData.steps / 1300f;
+                healthData.heartRate = 60 + random.nextInt(40);
+                healthData.sleepHours = 5 + random.nextFloat() * 4;
+                healthData.waterGlasses = random.nextInt(10);
+                db.healthDataDao().insertHealthData(healthData);
+                
+                for (int meal = 0; meal < FOOD_LOGS_PER_DAY; meal++) {
+                    FoodLog foodLog = new FoodLog(USER_ID, date, "Aliment " + random.nextInt(200));
+                    foodLog.mealType = MEALS[meal];
+                    foodLog.calories = 50 + random.nextInt(400);
+                    foodLog.protein = random.nextFloat() * 30;
+                    foodLog.carbs = random.nextFloat() * 60;
+                    foodLog.fat = random.nextFloat() * 25;
+                    foodLog.quantity = 50 + random.nextInt(250);
+                    db.foodLogDao().insertFoodLog(foodLog);
+                }
+                
+                Activity activity = new Activity(USER_ID, date, ACTIVITIES[random.nextInt(ACTIVITIES.length)]);
+                activity.duration = 10 + random.nextInt(80);
+                activity.caloriesBurned = activity.duration * 7;
+                activity.distance = activity.duration / 10f;
+                db.activityDao().insertActivity(activity);
+            }
+        });
+    }
+    
+    /**
+     * Clé d'un jour aléatoire de l'historique
+     */
+    static String randomDay(Random random, int years) {
+        return DayKeys.daysAgo(random.nextInt(years * 365));
+    }
+    
+    /**
+     * Lecture synchrone d'un LiveData Room (avec InstantTaskExecutorRule)
+     */
+    static <T> T read(LiveData<T> liveData) {
+        Object[] value = new Object[1];
+        Observer<T> observer = v -> value[0] = v;
+        liveData.observeForever(observer);
+        liveData.removeObserver(observer);
+        @SuppressWarnings("unchecked")
+        T result = (T) value[0];
+        return result;
+    }
+    
+    private static void clearStatic(Class<?> type, String name) throws Exception {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(null, null);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.projet_android.benchmark;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Mini harnais de mesure (style JMH) pour les benchmarks Room sur JVM/Robolectric.
+ * Mesure le débit, les latences p50/p99 et les octets alloués par opération
+ * (tous threads confondus, pour compter aussi le thread d'écriture de la base).
+ * Les résultats sont affichés et ajoutés à build/reports/benchmarks/room-persistence.csv
+ * pour comparer un changement de schéma ou d'index à une référence.
+ */
+final class BenchmarkRunner {
+    
+    private static final File REPORT = new File("build/reports/benchmarks/room-persistence.csv");
+    
+    interface Operation {
+        void run(int iteration) throws Exception;
+    }
+    
+    static final class Result {
+        final String name;
+        final String dataset;
+        final int operations;
+        final double opsPerSecond;
+        final double p50Micros;
+        final double p99Micros;
+        final long allocatedBytesPerOp;
+        
+        Result(String name, String dataset, int operations, double opsPerSecond,
+               double p50Micros, double p99Micros, long allocatedBytesPerOp) {
+            this.name = name;
+            this.dataset = dataset;
+            this.operations = operations;
+            this.opsPerSecond = opsPerSecond;
+            this.p50Micros = p50Micros;
+            this.p99Micros = p99Micros;
+            this.allocatedBytesPerOp = allocatedBytesPerOp;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-40s %-8s %9.1f ops/s  p50 %9.1f µs  p99 %9.1f µs  %9d B/op",
+                    name, dataset, opsPerSecond, p50Micros, p99Micros, allocatedBytesPerOp);
+        }
+        
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%s,%d,%.1f,%.1f,%.1f,%d",
+                    name, dataset, operations, opsPerSecond, p50Micros, p99Micros, allocatedBytesPerOp);
+        }
+    }
+    
+    private final String dataset;
+    private final int warmupIterations;
+    private final int measuredIterations;
+    
+    BenchmarkRunner(String dataset, int warmupIterations, int measuredIterations) {
+        this.dataset = dataset;
+        this.warmupIterations = warmupIterations;
+        this.measuredIterations = measuredIterations;
+    }
+    
+    /**
+     * Mesure chaque opération séparément (latence + débit)
+     */
+    Result measure(String name, Operation operation) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            operation.run(i);
+        }
+        
+        long[] latencies = new long[measuredIterations];
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < measuredIterations; i++) {
+            long opStart = System.nanoTime();
+            operation.run(warmupIterations + i);
+            latencies[i] = System.nanoTime() - opStart;
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        
+        Arrays.sort(latencies);
+        return report(new Result(name, dataset, measuredIterations,
+                measuredIterations * 1e9 / elapsed,
+                percentile(latencies, 0.50) / 1000.0,
+                percentile(latencies, 0.99) / 1000.0,
+                allocated / measuredIterations));
+    }
+    
+    /**
+     * Mesure un lot d'opérations suivi d'une attente commune (ex: écritures regroupées
+     * par la file d'écriture) : seul le débit est significatif
+     */
+    Result measureBatch(String name, Operation operation, Operation completion) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            operation.run(i);
+        }
+        completion.run(0);
+        
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < measuredIterations; i++) {
+            operation.run(warmupIterations + i);
+        }
+        completion.run(0);
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        
+        double averageMicros = elapsed / 1000.0 / measuredIterations;
+        return report(new Result(name, dataset, measuredIterations,
+                measuredIterations * 1e9 / elapsed, averageMicros, averageMicros,
+                allocated / measuredIterations));
+    }
+    
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+    
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return 0;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+    
+    private static Result report(Result result) throws IOException {
+        System.out.println(result);
+        
+        File parent = REPORT.getParentFile();
+        boolean newFile = !REPORT.exists();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            return result;
+        }
+        try (FileWriter writer = new FileWriter(REPORT, true)) {
+            if (newFile) {
+                writer.write("benchmark,dataset,operations,ops_per_s,p50_us,p99_us,bytes_per_op\n");
+            }
+            writer.write(result.toCsv() + "\n");
+        }
+        return result;
+    }
+}
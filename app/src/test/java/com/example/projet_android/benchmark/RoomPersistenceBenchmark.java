@@ -0,0 +1,156 @@
+package com.example.projet_android.benchmark;
+
+import android.app.Application;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.projet_android.database.AppDatabase;
+import com.example.projet_android.database.DatabaseManager;
+import com.example.projet_android.database.DatabaseWriteQueue;
+import com.example.projet_android.database.RollupQueries;
+import com.example.projet_android.database.dao.ActivityDao;
+import com.example.projet_android.database.dao.FoodLogDao;
+import com.example.projet_android.database.dao.HealthDataDao;
+import com.example.projet_android.utils.DayKeys;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.example.projet_android.benchmark.BenchmarkDatasets.USER_ID;
+import static com.example.projet_android.benchmark.BenchmarkDatasets.randomDay;
+import static com.example.projet_android.benchmark.BenchmarkDatasets.read;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Benchmarks des chemins critiques de la couche Room, sur 1, 3 et 10 ans d'historique.
+ * Exclus de la suite de tests normale, à lancer avec :
+ *   ./gradlew :app:testDebugUnitTest -Pbenchmark
+ */
+@RunWith(ParameterizedRobolectricTestRunner.class)
+@Config(sdk = 33)
+public class RoomPersistenceBenchmark {
+    
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 500;
+    private static final long FLUSH_TIMEOUT_MS = 10_000;
+    
+    @Rule
+    public InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
+    
+    @ParameterizedRobolectricTestRunner.Parameters(name = "{0} an(s)")
+    public static List<Object[]> datasets() {
+        return Arrays.asList(new Object[][] {{1}, {3}, {10}});
+    }
+    
+    private final int years;
+    private final Random random = new Random(7);
+    
+    private AppDatabase db;
+    private DatabaseManager databaseManager;
+    private DatabaseWriteQueue writeQueue;
+    private BenchmarkRunner runner;
+    
+    public RoomPersistenceBenchmark(int years) {
+        this.years = years;
+    }
+    
+    @Before
+    public void setUp() throws Exception {
+        Application application = ApplicationProvider.getApplicationContext();
+        BenchmarkDatasets.reset(application);
+        
+        db = AppDatabase.getDatabase(application);
+        BenchmarkDatasets.seed(db, years);
+        databaseManager = DatabaseManager.getInstance(application);
+        writeQueue = DatabaseWriteQueue.getInstance(application);
+        runner = new BenchmarkRunner(years + "y", WARMUP, ITERATIONS);
+    }
+    
+    @After
+    public void tearDown() {
+        writeQueue.flush(FLUSH_TIMEOUT_MS);
+        AppDatabase.closeDatabase();
+    }
+    
+    // ================== ÉCRITURES ==================
+    
+    @Test
+    public void updateTodaysSteps() throws Exception {
+        // Latence jusqu'à la validation de la transaction
+        runner.measure("updateTodaysSteps (commit)", i -> {
+            databaseManager.updateTodaysSteps(USER_ID, i, i / 20, i / 1300f);
+            assertTrue(writeQueue.flush(FLUSH_TIMEOUT_MS));
+        });
+        // Débit quand les écritures sont regroupées par la file
+        runner.measureBatch("updateTodaysSteps (batched)",
+                i -> databaseManager.updateTodaysSteps(USER_ID, i, i / 20, i / 1300f),
+                i -> assertTrue(writeQueue.flush(FLUSH_TIMEOUT_MS)));
+    }
+    
+    @Test
+    public void addFoodItem() throws Exception {
+        runner.measure("addFoodItem (commit)", i -> {
+            databaseManager.addFoodItem(USER_ID, "Pomme", "snack", 52, 0.3f, 14f, 0.2f, 150);
+            assertTrue(writeQueue.flush(FLUSH_TIMEOUT_MS));
+        });
+        runner.measureBatch("addFoodItem (batched)",
+                i -> databaseManager.addFoodItem(USER_ID, "Pomme", "snack", 52, 0.3f, 14f, 0.2f, 150),
+                i -> assertTrue(writeQueue.flush(FLUSH_TIMEOUT_MS)));
+    }
+    
+    @Test
+    public void syncNutritionData() throws Exception {
+        runner.measure("syncNutritionData (commit)", i -> {
+            databaseManager.syncNutritionData(USER_ID);
+            assertTrue(writeQueue.flush(FLUSH_TIMEOUT_MS));
+        });
+    }
+    
+    // ================== LECTURES ==================
+    
+    @Test
+    public void foodLogSumQueries() throws Exception {
+        FoodLogDao foodLogDao = db.foodLogDao();
+        runner.measure("FoodLogDao SUM x4", i -> {
+            String day = randomDay(random, years);
+            read(foodLogDao.getTotalCaloriesForDate(USER_ID, day));
+            read(foodLogDao.getTotalProteinForDate(USER_ID, day));
+            read(foodLogDao.getTotalCarbsForDate(USER_ID, day));
+            read(foodLogDao.getTotalFatForDate(USER_ID, day));
+        });
+        // Référence : totaux maintenus par triggers (daily_nutrition)
+        runner.measure("daily_nutrition point read", i ->
+                db.nutritionTotalsDao().getNutritionTotalsSync(USER_ID, randomDay(random, years)));
+    }
+    
+    @Test
+    public void rangeQueries() throws Exception {
+        HealthDataDao healthDataDao = db.healthDataDao();
+        ActivityDao activityDao = db.activityDao();
+        FoodLogDao foodLogDao = db.foodLogDao();
+        long today = DayKeys.todayDate().toEpochDay();
+        long lastYear = today - 364;
+        long firstDay = today - years * 365L;
+        
+        runner.measure("health_data BETWEEN 365d", i ->
+                read(healthDataDao.getHealthDataBetweenDates(USER_ID, lastYear, today)));
+        runner.measure("activities BETWEEN 365d", i ->
+                read(activityDao.getActivitiesBetweenDates(USER_ID, lastYear, today)));
+        runner.measure("food_logs BETWEEN 30d", i ->
+                read(foodLogDao.getFoodLogsBetweenDates(USER_ID, today - 29, today)));
+        runner.measure("steps SUM BETWEEN full history (raw)", i ->
+                read(healthDataDao.getTotalStepsBetweenDates(USER_ID, firstDay, today)));
+        runner.measure("steps SUM BETWEEN full history (rollup)", i ->
+                db.rollupDao().getRangeStatsSync(RollupQueries.rangeStats(USER_ID, firstDay, today)));
+    }
+}
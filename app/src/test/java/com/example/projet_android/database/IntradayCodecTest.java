@@ -0,0 +1,73 @@
+package com.example.projet_android.database;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class IntradayCodecTest {
+    
+    private static final long DAY_START = 20_000L * 1440;
+    
+    @Test
+    public void roundTrip_keepsMinutesAndValues() {
+        long[] minutes = {DAY_START, DAY_START + 15, DAY_START + 30, DAY_START + 600};
+        float[] values = {120f, 0f, 3400f, 87f};
+        
+        IntradayCodec.Reader reader = IntradayCodec.reader(IntradayCodec.encode(minutes, values, 4, 1));
+        
+        assertEquals(4, reader.count());
+        for (int i = 0; i < minutes.length; i++) {
+            assertTrue(reader.next());
+            assertEquals(minutes[i], reader.minute());
+            assertEquals(values[i], reader.value(), 0f);
+        }
+        assertFalse(reader.next());
+    }
+    
+    @Test
+    public void fixedPoint_keepsScalePrecision() {
+        long[] minutes = {DAY_START, DAY_START + 15, DAY_START + 30};
+        float[] values = {72.4f, 68.1f, 95.7f};
+        
+        IntradayCodec.Reader reader = IntradayCodec.reader(IntradayCodec.encode(minutes, values, 3, 10));
+        
+        for (float expected : values) {
+            assertTrue(reader.next());
+            assertEquals(expected, reader.value(), 0.05f);
+        }
+    }
+    
+    @Test
+    public void fullDay_isMuchSmallerThanRows() {
+        int count = 96;
+        long[] minutes = new long[count];
+        float[] values = new float[count];
+        for (int i = 0; i < count; i++) {
+            minutes[i] = DAY_START + 15L * i;
+            values[i] = 60f + (i % 7) * 3.3f;
+        }
+        
+        byte[] blob = IntradayCodec.encode(minutes, values, count, 10);
+        
+        // Écart de 15 minutes : 1 octet ; écart de valeur : 1 à 2 octets
+        assertTrue("taille " + blob.length, blob.length <= 8 + count * 3);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void encode_rejectsUnsortedMinutes() {
+        IntradayCodec.encode(new long[] {DAY_START + 15, DAY_START}, new float[] {1f, 2f}, 2, 1);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void reader_rejectsTruncatedBlob() {
+        long[] minutes = {DAY_START, DAY_START + 15};
+        byte[] blob = IntradayCodec.encode(minutes, new float[] {500f, 700f}, 2, 1);
+        
+        IntradayCodec.Reader reader = IntradayCodec.reader(Arrays.copyOf(blob, blob.length - 1));
+        while (reader.next()) {
+            // lecture jusqu'à l'octet manquant
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.projet_android.database;
+
+import com.example.projet_android.database.entities.CachedProduct;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class OfflineCatalogTest {
+    
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+    
+    @Test
+    public void lookup_findsEveryProduct() throws IOException {
+        OfflineCatalog.Builder builder = new OfflineCatalog.Builder();
+        for (int i = 0; i < 1000; i++) {
+            // Ordre d'insertion quelconque : le builder trie
+            long code = 3_000_000_000_000L + (i * 7919L % 1000) * 13;
+            builder.add(product(String.valueOf(code), "Produit " + code, i % 3 == 0 ? "" : "Marque " + (i % 5), i));
+        }
+        OfflineCatalog catalog = write(builder);
+        
+        assertEquals(1000, catalog.size());
+        for (int i = 0; i < 1000; i++) {
+            String code = String.valueOf(3_000_000_000_000L + i * 13L);
+            CachedProduct product = catalog.lookup(code);
+            assertNotNull(code, product);
+            assertEquals(code, product.barcode);
+            assertEquals("Produit " + code, product.name);
+            assertTrue(product.found);
+            assertEquals(0, product.fetchedAt);
+        }
+        assertNull(catalog.lookup("3000000000001"));
+        assertNull(catalog.lookup("2999999999999"));
+        assertNull(catalog.lookup("9999999999999"));
+    }
+    
+    @Test
+    public void lookup_readsNutrimentsAndStrings() throws IOException {
+        CachedProduct yaourt = product("3033490004743", "Yaourt nature", "Danone", 59);
+        yaourt.protein = 4.1f;
+        yaourt.carbs = 5.2f;
+        yaourt.fat = 1.6f;
+        OfflineCatalog catalog = write(new OfflineCatalog.Builder()
+                .add(yaourt)
+                .add(product("3017620422003", "Pâte à tartiner", "", 539))
+                .add(product("3033490004750", "Yaourt fraise", "Danone", 88)));
+        
+        CachedProduct found = catalog.lookup("3033490004743");
+        assertEquals("Yaourt nature", found.name);
+        assertEquals("Danone", found.brand);
+        assertEquals(59, found.calories);
+        assertEquals(4.1f, found.protein, 0f);
+        assertEquals(5.2f, found.carbs, 0f);
+        assertEquals(1.6f, found.fat, 0f);
+        assertEquals("", found.imageUrl);
+        
+        CachedProduct noBrand = catalog.lookup("3017620422003");
+        assertEquals("Pâte à tartiner", noBrand.name);
+        assertEquals("", noBrand.brand);
+        assertEquals("Danone", catalog.lookup("3033490004750").brand);
+    }
+    
+    @Test
+    public void lookup_rejectsNonNumericBarcodes() throws IOException {
+        OfflineCatalog catalog = write(new OfflineCatalog.Builder().add(product("12345", "A", "", 1)));
+        
+        assertNull(catalog.lookup(""));
+        assertNull(catalog.lookup(null));
+        assertNull(catalog.lookup("12a45"));
+        assertNull(catalog.lookup("1234567890123456789"));
+        // UPC-A et EAN-13 équivalent (zéro de tête)
+        assertNotNull(catalog.lookup("0012345"));
+    }
+    
+    @Test
+    public void emptyCatalog_findsNothing() throws IOException {
+        OfflineCatalog catalog = write(new OfflineCatalog.Builder());
+        
+        assertEquals(0, catalog.size());
+        assertNull(catalog.lookup("3033490004743"));
+    }
+    
+    @Test
+    public void duplicateBarcode_keepsLastEntry() throws IOException {
+        OfflineCatalog catalog = write(new OfflineCatalog.Builder()
+                .add(product("42", "Ancien", "", 1))
+                .add(product("42", "Nouveau", "", 2)));
+        
+        assertEquals(1, catalog.size());
+        assertEquals("Nouveau", catalog.lookup("42").name);
+    }
+    
+    @Test(expected = IOException.class)
+    public void open_rejectsForeignFile() throws IOException {
+        File file = tempFolder.newFile();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[] {'{', '}', 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+        }
+        OfflineCatalog.open(file);
+    }
+    
+    @Test(expected = IOException.class)
+    public void open_rejectsTruncatedFile() throws IOException {
+        File full = tempFolder.newFile();
+        new OfflineCatalog.Builder().add(product("42", "A", "B", 1)).writeTo(full);
+        
+        byte[] bytes = Files.readAllBytes(full.toPath());
+        File truncated = tempFolder.newFile();
+        try (FileOutputStream out = new FileOutputStream(truncated)) {
+            out.write(bytes, 0, bytes.length - 1);
+        }
+        OfflineCatalog.open(truncated);
+    }
+    
+    private OfflineCatalog write(OfflineCatalog.Builder builder) throws IOException {
+        File file = tempFolder.newFile();
+        builder.writeTo(file);
+        return OfflineCatalog.open(file);
+    }
+    
+    private static CachedProduct product(String barcode, String name, String brand, int calories) {
+        CachedProduct product = new CachedProduct();
+        product.barcode = barcode;
+        product.found = true;
+        product.name = name;
+        product.brand = brand;
+        product.calories = calories;
+        return product;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.projet_android.models;
+
+import com.example.projet_android.database.entities.DayTotals;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MonthSummaryTest {
+    
+    @Test
+    public void rows_areIndexedByDayOfMonth() {
+        YearMonth month = YearMonth.of(2024, 2);
+        List<DayTotals> rows = new ArrayList<>();
+        rows.add(totals(LocalDate.of(2024, 2, 1), 8000, 2100, 7.5f));
+        rows.add(totals(LocalDate.of(2024, 2, 29), 12000, 1800, 6f));
+        
+        MonthSummary summary = MonthSummary.from(month, rows);
+        
+        assertEquals(month, summary.getMonth());
+        assertTrue(summary.hasData(1));
+        assertEquals(8000, summary.getSteps(1));
+        assertEquals(2100, summary.getCalories(1));
+        assertEquals(7.5f, summary.getSleepHours(1), 0f);
+        assertTrue(summary.hasData(29));
+        assertEquals(12000, summary.getSteps(29));
+        assertFalse(summary.hasData(15));
+        assertEquals(0, summary.getSteps(15));
+    }
+    
+    @Test
+    public void rowsOutsideMonth_areIgnored() {
+        YearMonth month = YearMonth.of(2024, 3);
+        List<DayTotals> rows = new ArrayList<>();
+        rows.add(totals(LocalDate.of(2024, 2, 29), 5000, 0, 0f));
+        rows.add(totals(LocalDate.of(2024, 4, 1), 5000, 0, 0f));
+        
+        MonthSummary summary = MonthSummary.from(month, rows);
+        
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            assertFalse(summary.hasData(day));
+        }
+    }
+    
+    @Test
+    public void emptyMonth_hasNoData() {
+        MonthSummary summary = MonthSummary.from(YearMonth.of(2023, 12), Collections.<DayTotals>emptyList());
+        
+        assertFalse(summary.hasData(1));
+        assertFalse(summary.hasData(31));
+    }
+    
+    private static DayTotals totals(LocalDate date, int steps, int calories, float sleepHours) {
+        DayTotals row = new DayTotals();
+        row.epochDay = date.toEpochDay();
+        row.steps = steps;
+        row.calories = calories;
+        row.sleepHours = sleepHours;
+        return row;
+    }
+}
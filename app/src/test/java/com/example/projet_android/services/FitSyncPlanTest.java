@@ -0,0 +1,80 @@
+package com.example.projet_android.services;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class FitSyncPlanTest {
+    
+    private static final ZoneId PARIS = ZoneId.of("Europe/Paris");
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 12);
+    private static final List<String> METRICS = Arrays.asList("steps", "calories");
+    
+    @Test
+    public void cursorInsideToday_readsOnlySinceCursor() {
+        long now = at(TODAY, 18);
+        Map<String, Long> cursors = cursors(at(TODAY, 15));
+        
+        List<FitSyncPlan.Chunk> chunks = FitSyncPlan.plan(cursors, METRICS, now, PARIS);
+        
+        assertEquals(1, chunks.size());
+        assertEquals(at(TODAY, 15), chunks.get(0).start);
+        assertEquals(now, chunks.get(0).end);
+        assertFalse(chunks.get(0).wholeDay);
+        assertEquals(METRICS, chunks.get(0).metrics);
+    }
+    
+    @Test
+    public void firstSyncAfterMidnight_rereadsClosedDayOnce() {
+        long now = at(TODAY, 2);
+        Map<String, Long> cursors = cursors(at(TODAY.minusDays(1), 22));
+        
+        List<FitSyncPlan.Chunk> chunks = FitSyncPlan.plan(cursors, METRICS, now, PARIS);
+        
+        assertEquals(2, chunks.size());
+        assertEquals(TODAY.minusDays(1), chunks.get(0).day);
+        assertEquals(at(TODAY.minusDays(1), 0), chunks.get(0).start);
+        assertEquals(at(TODAY, 0), chunks.get(0).end);
+        assertTrue(chunks.get(0).wholeDay);
+        assertEquals(TODAY, chunks.get(1).day);
+        assertTrue(chunks.get(1).wholeDay);
+        
+        // Synchronisation suivante : reprise au curseur, la veille n'est plus relue
+        List<FitSyncPlan.Chunk> next = FitSyncPlan.plan(cursors(now), METRICS, at(TODAY, 3), PARIS);
+        assertEquals(1, next.size());
+        assertEquals(now, next.get(0).start);
+        assertFalse(next.get(0).wholeDay);
+    }
+    
+    @Test
+    public void noCursor_backfillsInitialDays() {
+        long now = at(TODAY, 18);
+        
+        List<FitSyncPlan.Chunk> chunks = FitSyncPlan.plan(Collections.<String, Long>emptyMap(),
+                METRICS, now, PARIS);
+        
+        assertEquals(FitSyncPlan.INITIAL_BACKFILL_DAYS + 1, chunks.size());
+        assertEquals(TODAY.minusDays(FitSyncPlan.INITIAL_BACKFILL_DAYS), chunks.get(0).day);
+        assertEquals(now, chunks.get(chunks.size() - 1).end);
+    }
+    
+    private static Map<String, Long> cursors(long syncedUntil) {
+        Map<String, Long> cursors = new HashMap<>();
+        for (String metric : METRICS) {
+            cursors.put(metric, syncedUntil);
+        }
+        return cursors;
+    }
+    
+    private static long at(LocalDate day, int hour) {
+        return day.atTime(hour, 0).atZone(PARIS).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.projet_android.services;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.util.List;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+// Robolectric pour android.util.Log (journalisation du client)
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+public class HttpClientProviderTest {
+    
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+    
+    private MockWebServer server;
+    private HttpClientProvider provider;
+    
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        provider = new HttpClientProvider(tempFolder.newFolder("http_cache"));
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+    
+    @Test
+    public void get_withoutCacheHeaders_isServedFromDiskCache() throws IOException {
+        server.enqueue(new MockResponse().setBody("{\"status\":1}"));
+        
+        assertEquals("{\"status\":1}", get("/api/v0/product/123.json"));
+        assertEquals("{\"status\":1}", get("/api/v0/product/123.json"));
+        
+        assertEquals(1, server.getRequestCount());
+        List<HttpMetrics> metrics = provider.getRecentMetrics();
+        assertEquals(2, metrics.size());
+        assertFalse(metrics.get(0).fromCache);
+        assertTrue(metrics.get(1).fromCache);
+    }
+    
+    @Test
+    public void serverCachePolicy_isKept() throws IOException {
+        server.enqueue(new MockResponse().setHeader("Cache-Control", "no-store").setBody("a"));
+        server.enqueue(new MockResponse().setHeader("Cache-Control", "no-store").setBody("b"));
+        
+        assertEquals("a", get("/search"));
+        assertEquals("b", get("/search"));
+        
+        assertEquals(2, server.getRequestCount());
+    }
+    
+    @Test
+    public void successiveCalls_reuseConnection() throws Exception {
+        server.enqueue(new MockResponse().setBody("a"));
+        server.enqueue(new MockResponse().setBody("b"));
+        
+        get("/a");
+        get("/b");
+        
+        assertEquals(0, server.takeRequest().getSequenceNumber());
+        // Même connexion : deuxième requête reçue sur la socket déjà ouverte
+        assertEquals(1, server.takeRequest().getSequenceNumber());
+        
+        List<HttpMetrics> metrics = provider.getRecentMetrics();
+        assertFalse(metrics.get(0).connectionReused);
+        assertTrue(metrics.get(0).connectMs >= 0);
+        assertTrue(metrics.get(1).connectionReused);
+        assertEquals(-1, metrics.get(1).connectMs);
+    }
+    
+    @Test
+    public void metrics_recordTimingsAndFailures() throws IOException {
+        server.enqueue(new MockResponse().setBody("ok"));
+        get("/ok");
+        
+        HttpMetrics metrics = provider.getRecentMetrics().get(0);
+        assertEquals("GET", metrics.method);
+        assertTrue(metrics.url.endsWith("/ok"));
+        assertTrue(metrics.ttfbMs >= 0);
+        assertTrue(metrics.totalMs >= metrics.ttfbMs);
+        assertFalse(metrics.failed);
+        
+        server.shutdown();
+        try {
+            get("/down");
+            fail("Serveur arrêté : l'appel doit échouer");
+        } catch (IOException expected) {
+            // attendu
+        }
+        List<HttpMetrics> all = provider.getRecentMetrics();
+        assertTrue(all.get(all.size() - 1).failed);
+    }
+    
+    private String get(String path) throws IOException {
+        OkHttpClient client = provider.getClient();
+        Request request = new Request.Builder().url(server.url(path)).build();
+        try (Response response = client.newCall(request).execute()) {
+            return response.body().string();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.projet_android.services;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.annotation.Annotation;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+
+import static org.junit.Assert.*;
+
+public class OpenFoodFactsConverterFactoryTest {
+    
+    // Extrait d'une fiche réelle : champs ignorés de tous types autour des champs lus
+    private static final String FULL_PRODUCT = "{"
+            + "\"code\":\"3017620422003\","
+            + "\"product\":{"
+            + "\"_keywords\":[\"pate\",\"tartiner\",\"noisette\"],"
+            + "\"allergens_tags\":[],"
+            + "\"brands\":\"Nutella,Ferrero\","
+            + "\"ingredients\":[{\"id\":\"en:sugar\",\"percent_estimate\":56.3,\"vegan\":\"yes\"},"
+            + "{\"id\":\"en:palm-oil\",\"ingredients\":[{\"id\":\"en:fat\"}]}],"
+            + "\"image_url\":\"https://images.openfoodfacts.org/3017620422003/front_fr.jpg\","
+            + "\"nutriments\":{"
+            + "\"carbohydrates\":57.5,\"carbohydrates_100g\":57.5,\"carbohydrates_unit\":\"g\","
+            + "\"energy\":2252,\"energy-kcal\":539,\"energy-kcal_100g\":539,\"energy_100g\":2252,"
+            + "\"fat_100g\":30.9,\"nova-group\":4,\"proteins_100g\":6.3,\"salt_100g\":0.107},"
+            + "\"nutriscore_data\":{\"is_beverage\":0,\"negative_points\":26},"
+            + "\"product_name\":\"Nutella\","
+            + "\"selected_images\":{\"front\":{\"display\":{\"fr\":\"https://x/front.jpg\"}}},"
+            + "\"unknown_null\":null,\"vegan\":false},"
+            + "\"status\":1,"
+            + "\"status_verbose\":\"product found\"}";
+    
+    @Test
+    public void parse_readsOnlyUsedFields() throws IOException {
+        OpenFoodFactsService.OpenFoodFactsResponse response =
+                OpenFoodFactsConverterFactory.parse(new StringReader(FULL_PRODUCT));
+        
+        assertEquals(1, response.status);
+        assertEquals("Nutella", response.product.product_name);
+        assertEquals("Nutella,Ferrero", response.product.brands);
+        assertEquals("https://images.openfoodfacts.org/3017620422003/front_fr.jpg", response.product.image_url);
+        assertEquals(539f, response.product.nutriments.energy_kcal_100g, 0f);
+        assertEquals(6.3f, response.product.nutriments.proteins_100g, 0f);
+        assertEquals(57.5f, response.product.nutriments.carbohydrates_100g, 0f);
+        assertEquals(30.9f, response.product.nutriments.fat_100g, 0f);
+    }
+    
+    @Test
+    public void parse_productNotFound() throws IOException {
+        OpenFoodFactsService.OpenFoodFactsResponse response = OpenFoodFactsConverterFactory.parse(
+                new StringReader("{\"code\":\"123\",\"status\":0,\"status_verbose\":\"product not found\"}"));
+        
+        assertEquals(0, response.status);
+        assertNull(response.product);
+    }
+    
+    @Test
+    public void parse_toleratesNullsAndTextNumbers() throws IOException {
+        OpenFoodFactsService.OpenFoodFactsResponse response = OpenFoodFactsConverterFactory.parse(new StringReader(
+                "{\"status\":\"1\",\"product\":{\"product_name\":null,\"brands\":[\"x\"],"
+                        + "\"nutriments\":{\"energy-kcal_100g\":\"250.5\",\"fat_100g\":\"\",\"proteins_100g\":null}}}"));
+        
+        assertEquals(1, response.status);
+        assertNull(response.product.product_name);
+        assertNull(response.product.brands);
+        assertNull(response.product.image_url);
+        assertEquals(250.5f, response.product.nutriments.energy_kcal_100g, 0f);
+        assertEquals(0f, response.product.nutriments.fat_100g, 0f);
+        assertEquals(0f, response.product.nutriments.proteins_100g, 0f);
+    }
+    
+    @Test
+    public void parse_productWithoutNutriments() throws IOException {
+        OpenFoodFactsService.OpenFoodFactsResponse response = OpenFoodFactsConverterFactory.parse(
+                new StringReader("{\"product\":{\"product_name\":\"Eau\",\"nutriments\":null},\"status\":1}"));
+        
+        assertEquals("Eau", response.product.product_name);
+        assertNull(response.product.nutriments);
+    }
+    
+    @Test
+    public void factory_onlyHandlesProductResponses() throws IOException {
+        Annotation[] none = new Annotation[0];
+        assertNull(OpenFoodFactsConverterFactory.INSTANCE.responseBodyConverter(String.class, none, null));
+        
+        Converter<ResponseBody, ?> converter = OpenFoodFactsConverterFactory.INSTANCE
+                .responseBodyConverter(OpenFoodFactsService.OpenFoodFactsResponse.class, none, null);
+        assertNotNull(converter);
+        Object response = converter.convert(ResponseBody.create(FULL_PRODUCT, MediaType.get("application/json")));
+        assertEquals("Nutella", ((OpenFoodFactsService.OpenFoodFactsResponse) response).product.product_name);
+    }
+}
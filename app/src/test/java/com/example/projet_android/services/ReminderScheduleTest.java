@@ -0,0 +1,81 @@
+package com.example.projet_android.services;
+
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.*;
+
+public class ReminderScheduleTest {
+    
+    private static final ZoneId PARIS = ZoneId.of("Europe/Paris");
+    
+    @Test
+    public void disabledSettings_haveNoAlarms() {
+        ReminderSchedule schedule = ReminderSchedule.forSettings(false, false);
+        
+        for (ReminderSchedule.Channel channel : ReminderSchedule.Channel.values()) {
+            assertTrue(schedule.isEmpty(channel));
+            assertNull(schedule.nextDue(channel, ZonedDateTime.now(PARIS)));
+        }
+    }
+    
+    @Test
+    public void waterOnly_keepsWaterChannel() {
+        ReminderSchedule schedule = ReminderSchedule.forSettings(false, true);
+        
+        assertTrue(schedule.isEmpty(ReminderSchedule.Channel.DAILY));
+        assertTrue(schedule.isEmpty(ReminderSchedule.Channel.STEPS));
+        assertEquals("480,600,720,840,960,1080,1200", schedule.signature(ReminderSchedule.Channel.WATER));
+    }
+    
+    @Test
+    public void signature_isStableAndSorted() {
+        ReminderSchedule first = ReminderSchedule.forSettings(true, true);
+        ReminderSchedule second = ReminderSchedule.forSettings(true, true);
+        
+        assertEquals("480=MORNING_REMINDER,1200=EVENING_REMINDER", first.signature(ReminderSchedule.Channel.DAILY));
+        assertEquals("750,1050,1080", first.signature(ReminderSchedule.Channel.STEPS));
+        for (ReminderSchedule.Channel channel : ReminderSchedule.Channel.values()) {
+            assertEquals(first.signature(channel), second.signature(channel));
+        }
+        assertNotEquals(first.signature(ReminderSchedule.Channel.WATER),
+                ReminderSchedule.forSettings(true, false).signature(ReminderSchedule.Channel.WATER));
+    }
+    
+    @Test
+    public void nextDue_isFirstSlotAfterNow() {
+        ReminderSchedule schedule = ReminderSchedule.forSettings(true, false);
+        ZonedDateTime now = ZonedDateTime.of(2024, 5, 10, 8, 0, 0, 0, PARIS);
+        
+        // Le créneau de 8h vient de sonner : le suivant est celui du soir
+        ReminderSchedule.Due due = schedule.nextDue(ReminderSchedule.Channel.DAILY, now);
+        
+        assertEquals(ReminderSchedule.ACTION_EVENING, due.action);
+        assertEquals(ZonedDateTime.of(2024, 5, 10, 20, 0, 0, 0, PARIS).toInstant().toEpochMilli(), due.triggerAtMillis);
+    }
+    
+    @Test
+    public void nextDue_wrapsToTomorrow() {
+        ReminderSchedule schedule = ReminderSchedule.forSettings(true, false);
+        ZonedDateTime now = ZonedDateTime.of(2024, 5, 10, 19, 30, 0, 0, PARIS);
+        
+        ReminderSchedule.Due due = schedule.nextDue(ReminderSchedule.Channel.WATER, now);
+        
+        assertNull(due.action);
+        assertEquals(ZonedDateTime.of(2024, 5, 11, 9, 0, 0, 0, PARIS).toInstant().toEpochMilli(), due.triggerAtMillis);
+    }
+    
+    @Test
+    public void nextDue_usesLocalTimeAcrossDaylightSaving() {
+        ReminderSchedule schedule = ReminderSchedule.forSettings(true, false);
+        // Nuit du passage à l'heure d'été (31 mars 2024)
+        ZonedDateTime now = ZonedDateTime.of(2024, 3, 30, 21, 0, 0, 0, PARIS);
+        
+        ReminderSchedule.Due due = schedule.nextDue(ReminderSchedule.Channel.DAILY, now);
+        
+        assertEquals(ReminderSchedule.ACTION_MORNING, due.action);
+        assertEquals(ZonedDateTime.of(2024, 3, 31, 8, 0, 0, 0, PARIS).toInstant().toEpochMilli(), due.triggerAtMillis);
+    }
+}
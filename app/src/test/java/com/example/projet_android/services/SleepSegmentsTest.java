@@ -0,0 +1,46 @@
+package com.example.projet_android.services;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SleepSegmentsTest {
+    
+    private static final long HOUR = 3_600_000L;
+    
+    @Test
+    public void empty_hasNoDuration() {
+        SleepSegments segments = new SleepSegments();
+        
+        assertTrue(segments.isEmpty());
+        assertEquals(0, segments.totalMillis());
+    }
+    
+    @Test
+    public void sameNightFromTwoSources_countedOnce() {
+        SleepSegments segments = new SleepSegments();
+        // Téléphone : 23h-7h ; montre : 23h30-6h30 puis 6h30-7h15
+        segments.add(23 * HOUR, 31 * HOUR);
+        segments.add(23 * HOUR + HOUR / 2, 30 * HOUR + HOUR / 2);
+        segments.add(30 * HOUR + HOUR / 2, 31 * HOUR + HOUR / 4);
+        
+        assertEquals(8 * HOUR + HOUR / 4, segments.totalMillis());
+    }
+    
+    @Test
+    public void disjointSegments_areSummed() {
+        SleepSegments segments = new SleepSegments();
+        segments.add(14 * HOUR, 15 * HOUR);
+        segments.add(1 * HOUR, 3 * HOUR);
+        
+        assertEquals(3 * HOUR, segments.totalMillis());
+    }
+    
+    @Test
+    public void emptyInterval_isIgnored() {
+        SleepSegments segments = new SleepSegments();
+        segments.add(5 * HOUR, 5 * HOUR);
+        
+        assertTrue(segments.isEmpty());
+    }
+}
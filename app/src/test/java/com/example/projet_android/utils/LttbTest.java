@@ -0,0 +1,73 @@
+package com.example.projet_android.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LttbTest {
+    
+    @Test
+    public void shortSeries_isCopiedUnchanged() {
+        float[] x = {1, 2, 3, 4};
+        float[] y = {10, 20, 5, 40};
+        float[] outX = new float[4];
+        float[] outY = new float[4];
+        
+        assertEquals(4, Lttb.downsample(x, y, 4, 10, outX, outY));
+        assertArrayEquals(x, outX, 0f);
+        assertArrayEquals(y, outY, 0f);
+    }
+    
+    @Test
+    public void longSeries_isReducedToThreshold() {
+        int count = 3650;
+        float[] x = new float[count];
+        float[] y = new float[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = 20_000 + i;
+            y[i] = (float) (8000 + 3000 * Math.sin(i / 30.0));
+        }
+        float[] outX = new float[500];
+        float[] outY = new float[500];
+        
+        int written = Lttb.downsample(x, y, count, 500, outX, outY);
+        
+        assertEquals(500, written);
+        assertEquals(x[0], outX[0], 0f);
+        assertEquals(x[count - 1], outX[written - 1], 0f);
+        for (int i = 1; i < written; i++) {
+            assertTrue("x croissants", outX[i] > outX[i - 1]);
+        }
+    }
+    
+    @Test
+    public void peaksAndDips_areKept() {
+        int count = 1000;
+        float[] x = new float[count];
+        float[] y = new float[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = i;
+            y[i] = 5000;
+        }
+        y[317] = 25_000; // Journée exceptionnelle
+        y[642] = 0; // Montre oubliée
+        float[] outX = new float[50];
+        float[] outY = new float[50];
+        
+        int written = Lttb.downsample(x, y, count, 50, outX, outY);
+        
+        boolean peak = false;
+        boolean dip = false;
+        for (int i = 0; i < written; i++) {
+            peak |= outX[i] == 317 && outY[i] == 25_000;
+            dip |= outX[i] == 642 && outY[i] == 0;
+        }
+        assertTrue(peak);
+        assertTrue(dip);
+    }
+    
+    @Test
+    public void emptySeries_writesNothing() {
+        assertEquals(0, Lttb.downsample(new float[0], new float[0], 0, 100, new float[0], new float[0]));
+    }
+}
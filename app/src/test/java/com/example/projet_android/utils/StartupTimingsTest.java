@@ -0,0 +1,52 @@
+package com.example.projet_android.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StartupTimingsTest {
+    
+    @Test
+    public void phases_areRelativeToProcessStart() {
+        StartupTimings timings = new StartupTimings(1000);
+        
+        timings.mark("splash_created", 1120);
+        timings.span("db_open", 1130, 1340);
+        
+        assertEquals(120, timings.getEnd("splash_created"));
+        assertEquals(340, timings.getEnd("db_open"));
+        assertEquals(-1, timings.getEnd("main_created"));
+        assertEquals(340, timings.getTotal());
+    }
+    
+    @Test
+    public void firstRecord_wins() {
+        StartupTimings timings = new StartupTimings(0);
+        
+        timings.mark("main_created", 500);
+        timings.mark("main_created", 9000);
+        timings.span("google_fit", 600, 700);
+        timings.span("google_fit", 8000, 9500);
+        
+        assertEquals(500, timings.getEnd("main_created"));
+        assertEquals(700, timings.getEnd("google_fit"));
+    }
+    
+    @Test
+    public void format_sortsByEndAndShowsDurations() {
+        StartupTimings timings = new StartupTimings(0);
+        
+        timings.span("notifications", 3200, 3260);
+        timings.mark("splash_created", 120);
+        timings.span("db_open", 130, 340);
+        
+        assertEquals("splash_created=120ms, db_open=340ms (210ms), notifications=3260ms (60ms)", timings.format());
+    }
+    
+    @Test
+    public void regression_needsPreviousStartAndTolerance() {
+        assertFalse(StartupTimings.isRegression(5000, 0, 0.2f));
+        assertFalse(StartupTimings.isRegression(1190, 1000, 0.2f));
+        assertTrue(StartupTimings.isRegression(1250, 1000, 0.2f));
+    }
+}